@@ -50,6 +50,7 @@ public class SecurityConfig {
             .exceptionHandling(ex -> ex.authenticationEntryPoint(authenticationEntryPoint))
             .sessionManagement(sess -> sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
+                .requestMatchers("/actuator/health/**").permitAll()  // load balancer health checks
                 .requestMatchers("/api/accounts/exists/**").permitAll()
                 .anyRequest().authenticated()
             )
@@ -1,8 +1,12 @@
 package com.bingbank.accountservice.controller;
 
 import com.bingbank.accountservice.dto.AccountDTO;
+import com.bingbank.accountservice.dto.PostingRequest;
+import com.bingbank.accountservice.exception.PostingRejectedException;
 import com.bingbank.accountservice.service.AccountService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -18,6 +22,9 @@ public class AccountController {
     @Autowired
     private AccountService accountService;
 
+    @Value("${app.accounts.postings.max-batch-size:500}")
+    private int maxPostingBatchSize;
+
     /**
      * Get all accounts for a customer
      */
@@ -75,7 +82,11 @@ public class AccountController {
             BigDecimal amount = new BigDecimal(request.get("amount").toString());
             String description = request.getOrDefault("description", "Debit").toString();
             
-            AccountDTO updatedAccount = accountService.debitFromAccount(accountNumber, amount, description);
+            String sourceAccountNumber = (String) request.get("sourceAccountNumber");
+            String targetAccountNumber = (String) request.get("targetAccountNumber");
+            
+            AccountDTO updatedAccount = accountService.debitFromAccount(accountNumber, amount, description,
+                    sourceAccountNumber, targetAccountNumber);
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -111,7 +122,11 @@ public class AccountController {
             BigDecimal amount = new BigDecimal(request.get("amount").toString());
             String description = request.getOrDefault("description", "Credit").toString();
             
-            AccountDTO updatedAccount = accountService.creditToAccount(accountNumber, amount, description);
+            String sourceAccountNumber = (String) request.get("sourceAccountNumber");
+            String targetAccountNumber = (String) request.get("targetAccountNumber");
+            
+            AccountDTO updatedAccount = accountService.creditToAccount(accountNumber, amount, description,
+                    sourceAccountNumber, targetAccountNumber);
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -133,4 +148,40 @@ public class AccountController {
             return ResponseEntity.internalServerError().body(errorResponse);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Apply a batch of idempotent postings (retries with the same posting ids are skipped).
+     * 400: malformed batch, 422: rejected (final), 503: failed to apply, retry with the same batch.
+     */
+    @PostMapping("/postings/batch")
+    public ResponseEntity<?> applyPostings(@RequestBody List<PostingRequest> postings) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("success", false);
+        
+        if (postings.isEmpty() || postings.size() > maxPostingBatchSize) {
+            errorResponse.put("error", "Batch must contain between 1 and " + maxPostingBatchSize + " postings");
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+        
+        try {
+            System.out.println("AccountController: Posting batch of " + postings.size());
+            
+            Map<String, String> results = accountService.applyPostings(postings);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("results", results);
+            
+            return ResponseEntity.ok(response);
+        } catch (PostingRejectedException e) {
+            System.err.println("AccountController: Postings rejected - " + e.getMessage());
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.unprocessableEntity().body(errorResponse);
+        } catch (Exception e) {
+            // Database errors, lock timeouts, concurrent retries of the same posting id
+            System.err.println("AccountController: Error applying postings - " + e.getMessage());
+            errorResponse.put("error", "Unable to apply postings, please retry");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.bingbank.accountservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceChangedEvent {
+    private String eventId;              // unique per posting, used by consumers to de-duplicate
+    private String accountNumber;
+    private String transactionType;      // DEBIT or CREDIT
+    private BigDecimal amount;
+    private BigDecimal balanceAfter;
+    private String sourceAccountNumber;
+    private String targetAccountNumber;
+    private String description;
+    private LocalDateTime occurredAt;
+}
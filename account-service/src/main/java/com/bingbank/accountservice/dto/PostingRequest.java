@@ -0,0 +1,20 @@
+package com.bingbank.accountservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostingRequest {
+    private String postingId;            // caller-chosen, unique per posting (max 36 chars)
+    private String accountNumber;
+    private String transactionType;      // DEBIT or CREDIT
+    private BigDecimal amount;
+    private String description;
+    private String sourceAccountNumber;
+    private String targetAccountNumber;
+}
@@ -0,0 +1,13 @@
+package com.bingbank.accountservice.exception;
+
+/**
+ * A posting that can never succeed as sent (unknown account, insufficient
+ * balance, invalid posting). Callers treat it as final, unlike database or
+ * broker failures, which are worth retrying.
+ */
+public class PostingRejectedException extends RuntimeException {
+
+    public PostingRejectedException(String message) {
+        super(message);
+    }
+}
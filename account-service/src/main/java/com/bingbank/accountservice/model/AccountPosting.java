@@ -0,0 +1,39 @@
+package com.bingbank.accountservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A posting applied through the batch postings endpoint, kept so a
+ * retried batch does not move money twice.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "account_postings")
+public class AccountPosting {
+    
+    @Id
+    @Column(name = "posting_id", length = 36)
+    private String postingId;
+    
+    @Column(name = "account_number", nullable = false, length = 9)
+    private String accountNumber;
+    
+    @Column(name = "transaction_type", nullable = false, length = 10)
+    private String transactionType; // DEBIT or CREDIT
+    
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal amount;
+    
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,49 @@
+package com.bingbank.accountservice.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A balance-changed event written in the same transaction as the balance
+ * change, waiting to be published by BalanceEventRelay.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "balance_event_outbox")
+public class BalanceEventOutbox {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id; // publish order
+    
+    @Column(name = "event_id", nullable = false, length = 36)
+    private String eventId;
+    
+    @Column(name = "account_number", nullable = false, length = 9)
+    private String accountNumber;
+    
+    @Column(name = "transaction_type", nullable = false, length = 10)
+    private String transactionType;
+    
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal amount;
+    
+    @Column(name = "balance_after", nullable = false, precision = 15, scale = 2)
+    private BigDecimal balanceAfter;
+    
+    @Column(name = "source_account_number")
+    private String sourceAccountNumber;
+    
+    @Column(name = "target_account_number")
+    private String targetAccountNumber;
+    
+    private String description;
+    
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,17 @@
+package com.bingbank.accountservice.repository;
+
+import com.bingbank.accountservice.model.AccountPosting;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AccountPostingRepository extends JpaRepository<AccountPosting, String> {
+    
+    @Query("SELECT p.postingId FROM AccountPosting p WHERE p.postingId IN :postingIds")
+    List<String> findExistingPostingIds(@Param("postingIds") Collection<String> postingIds);
+}
@@ -1,10 +1,16 @@
 package com.bingbank.accountservice.repository;
 
 import com.bingbank.accountservice.model.Account;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface AccountRepository extends JpaRepository<Account, String> {
@@ -12,4 +18,14 @@ public interface AccountRepository extends JpaRepository<Account, String> {
     List<Account> findByCustomerId(Long customerId);
     
     boolean existsByAccountNumber(String accountNumber);
+    
+    // Balance changes read and write the row under this lock, so concurrent postings cannot overwrite each other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.accountNumber = :accountNumber")
+    Optional<Account> findByIdForUpdate(@Param("accountNumber") String accountNumber);
+    
+    // Locked in account number order so two batches touching the same accounts cannot deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.accountNumber IN :accountNumbers ORDER BY a.accountNumber")
+    List<Account> findAllByIdForUpdate(@Param("accountNumbers") Collection<String> accountNumbers);
 }
\ No newline at end of file
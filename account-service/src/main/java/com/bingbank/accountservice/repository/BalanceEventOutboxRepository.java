@@ -0,0 +1,21 @@
+package com.bingbank.accountservice.repository;
+
+import com.bingbank.accountservice.model.BalanceEventOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface BalanceEventOutboxRepository extends JpaRepository<BalanceEventOutbox, Long> {
+    
+    @Query("SELECT e FROM BalanceEventOutbox e ORDER BY e.id")
+    List<BalanceEventOutbox> findOldest(Pageable pageable);
+    
+    // One relay at a time across instances keeps events in commit order; released at commit
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryRelayLock(@Param("key") long key);
+}
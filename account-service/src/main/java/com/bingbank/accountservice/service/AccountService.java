@@ -2,15 +2,29 @@ package com.bingbank.accountservice.service;
 
 import com.bingbank.accountservice.dto.AccountDTO;
 import com.bingbank.accountservice.dto.BranchDTO;
+import com.bingbank.accountservice.dto.PostingRequest;
+import com.bingbank.accountservice.exception.PostingRejectedException;
 import com.bingbank.accountservice.model.Account;
+import com.bingbank.accountservice.model.AccountPosting;
+import com.bingbank.accountservice.model.BalanceEventOutbox;
 import com.bingbank.accountservice.model.Branch;
+import com.bingbank.accountservice.repository.AccountPostingRepository;
 import com.bingbank.accountservice.repository.AccountRepository;
+import com.bingbank.accountservice.repository.BalanceEventOutboxRepository;
 import com.bingbank.accountservice.repository.BranchRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,6 +36,12 @@ public class AccountService {
     @Autowired
     private BranchRepository branchRepository;
 
+    @Autowired
+    private AccountPostingRepository accountPostingRepository;
+
+    @Autowired
+    private BalanceEventOutboxRepository outboxRepository;
+
     /**
      * Get all accounts for a customer
      */
@@ -54,11 +74,15 @@ public class AccountService {
     
     /**
      * Debit amount from account
+     * The balance-changed event is written to the outbox in the same
+     * transaction, so a posting is never kept without its event.
      */
-    public AccountDTO debitFromAccount(String accountNumber, BigDecimal amount, String description) {
+    @Transactional
+    public AccountDTO debitFromAccount(String accountNumber, BigDecimal amount, String description,
+                                       String sourceAccountNumber, String targetAccountNumber) {
         System.out.println("AccountService: Debiting " + amount + " from account: " + accountNumber);
         
-        Account account = accountRepository.findById(accountNumber)
+        Account account = accountRepository.findByIdForUpdate(accountNumber)
                 .orElseThrow(() -> new RuntimeException("Account not found: " + accountNumber));
         
         if (account.getBalance().compareTo(amount) < 0) {
@@ -66,7 +90,10 @@ public class AccountService {
         }
         
         account.setBalance(account.getBalance().subtract(amount));
-        Account updatedAccount = accountRepository.save(account);
+        Account updatedAccount = accountRepository.saveAndFlush(account);
+        
+        recordBalanceChanged(UUID.randomUUID().toString(), updatedAccount.getBalance(), accountNumber, "DEBIT",
+                amount, description, sourceAccountNumber, targetAccountNumber);
         
         System.out.println("AccountService: Debit successful. New balance: " + updatedAccount.getBalance());
         return mapToDTO(updatedAccount);
@@ -75,19 +102,125 @@ public class AccountService {
     /**
      * Credit amount to account
      */
-    public AccountDTO creditToAccount(String accountNumber, BigDecimal amount, String description) {
+    @Transactional
+    public AccountDTO creditToAccount(String accountNumber, BigDecimal amount, String description,
+                                      String sourceAccountNumber, String targetAccountNumber) {
         System.out.println("AccountService: Crediting " + amount + " to account: " + accountNumber);
         
-        Account account = accountRepository.findById(accountNumber)
+        Account account = accountRepository.findByIdForUpdate(accountNumber)
                 .orElseThrow(() -> new RuntimeException("Account not found: " + accountNumber));
         
         account.setBalance(account.getBalance().add(amount));
-        Account updatedAccount = accountRepository.save(account);
+        Account updatedAccount = accountRepository.saveAndFlush(account);
+        
+        recordBalanceChanged(UUID.randomUUID().toString(), updatedAccount.getBalance(), accountNumber, "CREDIT",
+                amount, description, sourceAccountNumber, targetAccountNumber);
         
         System.out.println("AccountService: Credit successful. New balance: " + updatedAccount.getBalance());
         return mapToDTO(updatedAccount);
     }
 
+    /**
+     * Apply a batch of postings in one transaction.
+     * Postings whose id was already applied are skipped, so a caller can safely
+     * retry a batch after a timeout. Each posting's id becomes its event id, and
+     * with it the transaction-service posting id. Any failure rolls back the
+     * whole batch; PostingRejectedException marks the ones a retry cannot fix
+     * (unknown account, insufficient balance, invalid posting).
+     * Returns postingId -> APPLIED or DUPLICATE.
+     */
+    @Transactional
+    public Map<String, String> applyPostings(List<PostingRequest> postings) {
+        Map<String, PostingRequest> byPostingId = new LinkedHashMap<>();
+        for (PostingRequest posting : postings) {
+            validatePosting(posting);
+            if (byPostingId.putIfAbsent(posting.getPostingId(), posting) != null) {
+                throw new PostingRejectedException("Duplicate posting id in batch: " + posting.getPostingId());
+            }
+        }
+        
+        // Lock the accounts first: a concurrent retry of this batch then waits here and
+        // sees the postings it committed as already applied
+        Map<String, Account> accounts = new LinkedHashMap<>();
+        for (Account account : accountRepository.findAllByIdForUpdate(
+                byPostingId.values().stream().map(PostingRequest::getAccountNumber).collect(Collectors.toSet()))) {
+            accounts.put(account.getAccountNumber(), account);
+        }
+        
+        Set<String> alreadyApplied = new HashSet<>(accountPostingRepository.findExistingPostingIds(byPostingId.keySet()));
+        
+        Map<String, String> results = new LinkedHashMap<>();
+        List<AccountPosting> applied = new ArrayList<>();
+        for (PostingRequest posting : byPostingId.values()) {
+            if (alreadyApplied.contains(posting.getPostingId())) {
+                results.put(posting.getPostingId(), "DUPLICATE");
+                continue;
+            }
+            Account account = accounts.get(posting.getAccountNumber());
+            if (account == null) {
+                throw new PostingRejectedException("Account not found: " + posting.getAccountNumber());
+            }
+            if ("DEBIT".equals(posting.getTransactionType())) {
+                if (account.getBalance().compareTo(posting.getAmount()) < 0) {
+                    throw new PostingRejectedException("Insufficient balance in account " + posting.getAccountNumber());
+                }
+                account.setBalance(account.getBalance().subtract(posting.getAmount()));
+            } else {
+                account.setBalance(account.getBalance().add(posting.getAmount()));
+            }
+            applied.add(new AccountPosting(posting.getPostingId(), account.getAccountNumber(),
+                    posting.getTransactionType(), posting.getAmount(), null));
+            recordBalanceChanged(posting.getPostingId(), account.getBalance(), posting.getAccountNumber(),
+                    posting.getTransactionType(), posting.getAmount(), posting.getDescription(),
+                    posting.getSourceAccountNumber(), posting.getTargetAccountNumber());
+            results.put(posting.getPostingId(), "APPLIED");
+        }
+        
+        if (!applied.isEmpty()) {
+            accountRepository.saveAll(accounts.values());
+            accountPostingRepository.saveAll(applied);
+            accountRepository.flush();
+        }
+        
+        System.out.println("AccountService: Applied " + applied.size() + " of " + byPostingId.size() + " postings");
+        return results;
+    }
+
+    private void validatePosting(PostingRequest posting) {
+        if (posting.getPostingId() == null || posting.getPostingId().isBlank() || posting.getPostingId().length() > 36) {
+            throw new PostingRejectedException("Posting id is required (max 36 characters)");
+        }
+        if (posting.getAccountNumber() == null) {
+            throw new PostingRejectedException("Account number is required for posting " + posting.getPostingId());
+        }
+        if (!"DEBIT".equals(posting.getTransactionType()) && !"CREDIT".equals(posting.getTransactionType())) {
+            throw new PostingRejectedException("Transaction type must be DEBIT or CREDIT for posting " + posting.getPostingId());
+        }
+        if (posting.getAmount() == null || posting.getAmount().signum() <= 0) {
+            throw new PostingRejectedException("Amount must be positive for posting " + posting.getPostingId());
+        }
+    }
+
+    /**
+     * Queue a balance-changed event in the outbox; BalanceEventRelay publishes
+     * it once this transaction has committed.
+     */
+    private void recordBalanceChanged(String eventId, BigDecimal balanceAfter, String accountNumber,
+                                      String transactionType, BigDecimal amount, String description,
+                                      String sourceAccountNumber, String targetAccountNumber) {
+        BalanceEventOutbox event = new BalanceEventOutbox();
+        event.setEventId(eventId);
+        event.setAccountNumber(accountNumber);
+        event.setTransactionType(transactionType);
+        event.setAmount(amount);
+        event.setBalanceAfter(balanceAfter);
+        event.setSourceAccountNumber(sourceAccountNumber != null ? sourceAccountNumber : accountNumber);
+        event.setTargetAccountNumber(targetAccountNumber != null ? targetAccountNumber : "N/A");
+        event.setDescription(description);
+        event.setOccurredAt(LocalDateTime.now());
+        outboxRepository.save(event);
+    }
+
     /**
      * Map Account entity to DTO
      */
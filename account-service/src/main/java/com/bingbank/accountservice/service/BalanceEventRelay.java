@@ -0,0 +1,100 @@
+package com.bingbank.accountservice.service;
+
+import com.bingbank.accountservice.dto.BalanceChangedEvent;
+import com.bingbank.accountservice.model.BalanceEventOutbox;
+import com.bingbank.accountservice.repository.BalanceEventOutboxRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Publishes balance-changed events from the balance_event_outbox table.
+ *
+ * Events are sent in outbox order and deleted once the broker acknowledged
+ * them. If a send fails the batch stays in the outbox and is sent again on
+ * the next run, so an event can be delivered more than once (consumers
+ * de-duplicate by event id) but is never lost.
+ */
+@Service
+public class BalanceEventRelay {
+
+    private static final long RELAY_LOCK_KEY = 0x62616c6f7574L; // "balout"
+
+    @Autowired
+    private BalanceEventOutboxRepository outboxRepository;
+
+    @Autowired
+    private KafkaTemplate<String, BalanceChangedEvent> kafkaTemplate;
+
+    @Value("${app.kafka.topic.balance-changed}")
+    private String balanceChangedTopic;
+
+    @Value("${app.kafka.send-timeout-millis:5000}")
+    private long sendTimeoutMillis;
+
+    @Value("${app.kafka.outbox.batch-size:200}")
+    private int batchSize;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public BalanceEventRelay(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${app.kafka.outbox.poll-interval-millis:200}")
+    public void relay() {
+        try {
+            Integer published;
+            do {
+                published = transactionTemplate.execute(status -> publishBatch());
+            } while (published != null && published == batchSize);
+        } catch (Exception e) {
+            System.err.println("BalanceEventRelay: Publishing failed, will retry - " + e.getMessage());
+        }
+    }
+
+    private int publishBatch() {
+        if (!outboxRepository.tryRelayLock(RELAY_LOCK_KEY)) {
+            return 0; // another instance is relaying
+        }
+        List<BalanceEventOutbox> batch = outboxRepository.findOldest(PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        // Send every event first, then wait for all acknowledgements together
+        List<CompletableFuture<SendResult<String, BalanceChangedEvent>>> sends = new ArrayList<>(batch.size());
+        for (BalanceEventOutbox entry : batch) {
+            BalanceChangedEvent event = new BalanceChangedEvent(entry.getEventId(), entry.getAccountNumber(),
+                    entry.getTransactionType(), entry.getAmount(), entry.getBalanceAfter(),
+                    entry.getSourceAccountNumber(), entry.getTargetAccountNumber(), entry.getDescription(),
+                    entry.getOccurredAt());
+            // Keyed by account number so postings for one account stay in order
+            sends.add(kafkaTemplate.send(balanceChangedTopic, entry.getAccountNumber(), event));
+        }
+        try {
+            CompletableFuture.allOf(sends.toArray(new CompletableFuture[0])).get(sendTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while publishing balance events");
+        } catch (ExecutionException | TimeoutException e) {
+            throw new RuntimeException("Broker did not acknowledge " + batch.size() + " balance events", e);
+        }
+
+        outboxRepository.deleteAllInBatch(batch);
+        return batch.size();
+    }
+}
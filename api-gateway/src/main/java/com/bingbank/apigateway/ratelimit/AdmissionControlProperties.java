@@ -0,0 +1,82 @@
+package com.bingbank.apigateway.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-route admission limits (app.gateway.admission.*), keyed by gateway route id.
+ * Routes without an entry use the default policy.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.gateway.admission")
+public class AdmissionControlProperties {
+
+    private boolean enabled = true;
+
+    private RoutePolicy defaultPolicy = new RoutePolicy();
+
+    private Map<String, RoutePolicy> routes = new HashMap<>();
+
+    public RoutePolicy policyFor(String routeId) {
+        return routes.getOrDefault(routeId, defaultPolicy);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public RoutePolicy getDefaultPolicy() {
+        return defaultPolicy;
+    }
+
+    public void setDefaultPolicy(RoutePolicy defaultPolicy) {
+        this.defaultPolicy = defaultPolicy;
+    }
+
+    public Map<String, RoutePolicy> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(Map<String, RoutePolicy> routes) {
+        this.routes = routes;
+    }
+
+    public static class RoutePolicy {
+        // Per-user token bucket
+        private double replenishPerSecond = 20;
+        private long burstCapacity = 40;
+        // In-flight requests allowed to the route from this gateway; 0 = unlimited
+        private int maxConcurrent = 0;
+
+        public double getReplenishPerSecond() {
+            return replenishPerSecond;
+        }
+
+        public void setReplenishPerSecond(double replenishPerSecond) {
+            this.replenishPerSecond = replenishPerSecond;
+        }
+
+        public long getBurstCapacity() {
+            return burstCapacity;
+        }
+
+        public void setBurstCapacity(long burstCapacity) {
+            this.burstCapacity = burstCapacity;
+        }
+
+        public int getMaxConcurrent() {
+            return maxConcurrent;
+        }
+
+        public void setMaxConcurrent(int maxConcurrent) {
+            this.maxConcurrent = maxConcurrent;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.bingbank.apigateway.ratelimit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Token buckets held in gateway memory. Buckets are updated with CAS,
+ * and idle buckets are swept periodically to keep memory bounded.
+ */
+@Component
+@ConditionalOnProperty(name = "app.gateway.admission.store", havingValue = "in-memory", matchIfMissing = true)
+public class InMemoryRateLimitStore implements RateLimitStore {
+
+    private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final long idleNanos;
+
+    public InMemoryRateLimitStore(@Value("${app.gateway.admission.idle-eviction-seconds:600}") long idleEvictionSeconds) {
+        this.idleNanos = TimeUnit.SECONDS.toNanos(idleEvictionSeconds);
+    }
+
+    @Override
+    public Mono<Long> tryConsume(String key, long burstCapacity, double replenishPerSecond) {
+        long now = System.nanoTime();
+        Bucket bucket = buckets.computeIfAbsent(key, k -> new Bucket(burstCapacity, now));
+        return Mono.just(bucket.tryConsume(burstCapacity, replenishPerSecond, now));
+    }
+
+    @Scheduled(fixedDelayString = "${app.gateway.admission.sweep-interval-millis:60000}")
+    public void sweepIdleBuckets() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> now - bucket.lastAccessNanos > idleNanos);
+    }
+
+    private static final class Bucket {
+        private final AtomicReference<double[]> state; // [tokens, lastRefillNanos]
+        private volatile long lastAccessNanos;
+
+        private Bucket(long capacity, long now) {
+            this.state = new AtomicReference<>(new double[] {capacity, now});
+            this.lastAccessNanos = now;
+        }
+
+        private long tryConsume(long capacity, double replenishPerSecond, long now) {
+            lastAccessNanos = now;
+            double perNano = replenishPerSecond / 1_000_000_000.0;
+            while (true) {
+                double[] current = state.get();
+                double elapsed = Math.max(0, now - (long) current[1]);
+                double tokens = Math.min(capacity, current[0] + elapsed * perNano);
+
+                if (tokens < 1.0) {
+                    if (perNano <= 0) {
+                        return TimeUnit.MINUTES.toMillis(1);
+                    }
+                    return Math.max(1, (long) Math.ceil((1.0 - tokens) / perNano / 1_000_000.0));
+                }
+
+                if (state.compareAndSet(current, new double[] {tokens - 1.0, Math.max(now, current[1])})) {
+                    return 0L;
+                }
+            }
+        }
+    }
+}
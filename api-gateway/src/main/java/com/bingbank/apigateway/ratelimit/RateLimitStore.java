@@ -0,0 +1,19 @@
+package com.bingbank.apigateway.ratelimit;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Backing store for gateway rate limit buckets.
+ *
+ * The default implementation keeps buckets in gateway memory. A shared store
+ * (e.g. Redis) can be supplied so that several gateway instances enforce one limit.
+ */
+public interface RateLimitStore {
+
+    /**
+     * Take one token from the bucket identified by key.
+     *
+     * @return 0 if the token was granted, otherwise the milliseconds until the next token is available
+     */
+    Mono<Long> tryConsume(String key, long burstCapacity, double replenishPerSecond);
+}
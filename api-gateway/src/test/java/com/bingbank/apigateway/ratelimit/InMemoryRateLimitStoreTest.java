@@ -0,0 +1,50 @@
+package com.bingbank.apigateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemoryRateLimitStoreTest {
+
+	@Test
+	void admitsBurstThenReportsRetryAfter() {
+		InMemoryRateLimitStore store = new InMemoryRateLimitStore(600);
+
+		for (int i = 0; i < 5; i++) {
+			assertEquals(0L, store.tryConsume("user:1", 5, 0.5).block());
+		}
+		// 0.5 tokens per second: the next one is about two seconds away
+		long retryAfterMillis = store.tryConsume("user:1", 5, 0.5).block();
+		assertTrue(retryAfterMillis > 1_000 && retryAfterMillis <= 2_000, "retry after " + retryAfterMillis);
+	}
+
+	@Test
+	void keysHaveSeparateBuckets() {
+		InMemoryRateLimitStore store = new InMemoryRateLimitStore(600);
+
+		assertEquals(0L, store.tryConsume("user:1", 1, 0.001).block());
+		assertTrue(store.tryConsume("user:1", 1, 0.001).block() > 0);
+		assertEquals(0L, store.tryConsume("user:2", 1, 0.001).block());
+	}
+
+	@Test
+	void withoutReplenishRetryAfterIsOneMinute() {
+		InMemoryRateLimitStore store = new InMemoryRateLimitStore(600);
+		store.tryConsume("ip:10.0.0.1", 1, 0).block();
+
+		assertEquals(60_000L, store.tryConsume("ip:10.0.0.1", 1, 0).block());
+	}
+
+	@Test
+	void sweptBucketStartsFull() throws InterruptedException {
+		InMemoryRateLimitStore store = new InMemoryRateLimitStore(0);
+		store.tryConsume("user:1", 1, 0).block();
+		assertTrue(store.tryConsume("user:1", 1, 0).block() > 0);
+
+		Thread.sleep(1);
+		store.sweepIdleBuckets();
+
+		assertEquals(0L, store.tryConsume("user:1", 1, 0).block());
+	}
+}
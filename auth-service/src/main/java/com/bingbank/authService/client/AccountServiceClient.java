@@ -1,32 +1,53 @@
 package com.bingbank.authService.client;
 
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 
 import java.util.Map;
 
+/**
+ * Client for account-service, guarded by the "accountService" circuit breaker and bulkhead.
+ */
 @Component
 public class AccountServiceClient {
 
-    private static final String ACCOUNT_SERVICE_URL = "http://localhost:8082/api/accounts";
-    
+    private static final String ACCOUNT_SERVICE = "accountService";
+
     private final RestTemplate restTemplate;
+
+    private final String accountServiceUrl;
     
     @Autowired
-    public AccountServiceClient(RestTemplate restTemplate) {
+    public AccountServiceClient(RestTemplate restTemplate,
+                                @Value("${app.services.account-service.url}") String accountServiceUrl) {
         this.restTemplate = restTemplate;
+        this.accountServiceUrl = accountServiceUrl;
     }
     
+    @CircuitBreaker(name = ACCOUNT_SERVICE, fallbackMethod = "accountExistsFallback")
+    @Bulkhead(name = ACCOUNT_SERVICE)
     public boolean accountExists(String accountNumber) {
-        try {
-            String url = ACCOUNT_SERVICE_URL + "/exists/" + accountNumber;
-            @SuppressWarnings("unchecked")
-            Map<String, Boolean> response = restTemplate.getForObject(url, Map.class);
-            return response != null && Boolean.TRUE.equals(response.get("exists"));
-        } catch (Exception e) {
-            System.err.println("Error checking account existence: " + e.getMessage());
-            return false;
+        String url = accountServiceUrl + "/api/accounts/exists/" + accountNumber;
+        @SuppressWarnings("unchecked")
+        Map<String, Boolean> response = restTemplate.getForObject(url, Map.class);
+        return response != null && Boolean.TRUE.equals(response.get("exists"));
+    }
+
+    // Fallback hook: fail fast while account-service is unhealthy, pass other errors through
+    private boolean accountExistsFallback(String accountNumber, Throwable t) {
+        System.err.println("Error checking account existence: " + t.getMessage());
+        if (t instanceof CallNotPermittedException || t instanceof BulkheadFullException) {
+            throw new RuntimeException("Account service is temporarily unavailable. Please try again later.");
+        }
+        if (t instanceof RuntimeException) {
+            throw (RuntimeException) t;
         }
+        throw new RuntimeException(t.getMessage(), t);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,36 @@
+package com.bingbank.authService.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Rate limit settings for the public auth endpoints (app.rate-limit.*).
+ * Endpoints without an entry are not throttled.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // Upper bound on tracked keys (IP and email+IP buckets) before the least recently used are evicted
+    private int maxKeys = 100_000;
+
+    // Buckets untouched for this long (and already full again) are dropped
+    private long idleEvictionSeconds = 900;
+
+    private Map<String, EndpointLimit> endpoints = new HashMap<>();
+
+    @Data
+    public static class EndpointLimit {
+        private long ipCapacity = 20;
+        private long ipRefillPerMinute = 20;
+        private long emailCapacity = 5;
+        private long emailRefillPerMinute = 5;
+    }
+}
@@ -6,16 +6,21 @@ import com.bingbank.authService.dto.LoginRequest;
 import com.bingbank.authService.dto.RegisterRequest;
 import com.bingbank.authService.dto.VerifyOTPRequest;
 import com.bingbank.authService.model.Customer;
+import com.bingbank.authService.security.AuthRateLimiter;
 import com.bingbank.authService.service.AuthService;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 @RestController
@@ -26,18 +31,39 @@ public class AuthController {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private AuthRateLimiter rateLimiter;
+
+    // Addresses of the API gateway instances, the only hops whose X-Forwarded-For entries are trusted
+    @Value("${app.rate-limit.trusted-proxies:127.0.0.1,0:0:0:0:0:0:0:1}")
+    private List<String> trustedProxies;
+
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest loginRequest) {
+    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest loginRequest, HttpServletRequest httpRequest) {
+        ResponseEntity<?> throttled = checkRateLimit("login", httpRequest, loginRequest.getEmail());
+        if (throttled != null) {
+            return throttled;
+        }
         return authService.login(loginRequest);
     }
 
     @PostMapping("/verify-otp")
-    public ResponseEntity<?> verifyOTP(@Valid @RequestBody VerifyOTPRequest verifyOTPRequest) {
+    public ResponseEntity<?> verifyOTP(@Valid @RequestBody VerifyOTPRequest verifyOTPRequest,
+                                       HttpServletRequest httpRequest) {
+        ResponseEntity<?> throttled = checkRateLimit("verify-otp", httpRequest, verifyOTPRequest.getEmail());
+        if (throttled != null) {
+            return throttled;
+        }
         return authService.verifyOTP(verifyOTPRequest);
     }
 
     @PostMapping("/register")
-    public ResponseEntity<?> register(@Valid @RequestBody RegisterRequest registerRequest) {
+    public ResponseEntity<?> register(@Valid @RequestBody RegisterRequest registerRequest,
+                                      HttpServletRequest httpRequest) {
+        ResponseEntity<?> throttled = checkRateLimit("register", httpRequest, registerRequest.getEmail());
+        if (throttled != null) {
+            return throttled;
+        }
         return authService.register(registerRequest);
     }
 
@@ -55,7 +81,12 @@ public class AuthController {
      * Verify registration OTP
      */
     @PostMapping("/verify-registration-otp")
-    public ResponseEntity<?> verifyRegistrationOTP(@RequestBody VerifyOTPRequest request) {
+    public ResponseEntity<?> verifyRegistrationOTP(@RequestBody VerifyOTPRequest request,
+                                                   HttpServletRequest httpRequest) {
+        ResponseEntity<?> throttled = checkRateLimit("verify-registration-otp", httpRequest, request.getEmail());
+        if (throttled != null) {
+            return throttled;
+        }
         try {
             System.out.println("AuthController: Verifying registration OTP for email: " + request.getEmail());
             return authService.verifyRegistrationOTP(request);
@@ -71,7 +102,12 @@ public class AuthController {
      * Request password reset OTP
      */
     @PostMapping("/forgot-password")
-    public ResponseEntity<?> requestPasswordReset(@RequestBody Map<String, String> request) {
+    public ResponseEntity<?> requestPasswordReset(@RequestBody Map<String, String> request,
+                                                    HttpServletRequest httpRequest) {
+        ResponseEntity<?> throttled = checkRateLimit("forgot-password", httpRequest, request.get("email"));
+        if (throttled != null) {
+            return throttled;
+        }
         try {
             String email = request.get("email");
             System.out.println("AuthController: Password reset requested for email: " + email);
@@ -93,7 +129,12 @@ public class AuthController {
      * Verify password reset OTP
      */
     @PostMapping("/verify-reset-otp")
-    public ResponseEntity<?> verifyPasswordResetOTP(@RequestBody Map<String, String> request) {
+    public ResponseEntity<?> verifyPasswordResetOTP(@RequestBody Map<String, String> request,
+                                                    HttpServletRequest httpRequest) {
+        ResponseEntity<?> throttled = checkRateLimit("verify-reset-otp", httpRequest, request.get("email"));
+        if (throttled != null) {
+            return throttled;
+        }
         try {
             String email = request.get("email");
             String otp = request.get("otp");
@@ -140,5 +181,43 @@ public class AuthController {
                     .body(Map.of("success", false, "message", e.getMessage()));
         }
     }
-    
-}
\ No newline at end of file
+
+    /**
+     * Returns a 429 response if the caller is over the limit for this endpoint, null otherwise
+     */
+    private ResponseEntity<?> checkRateLimit(String endpoint, HttpServletRequest httpRequest, String email) {
+        long retryAfterSeconds = rateLimiter.tryAcquire(endpoint, clientIp(httpRequest), email);
+        if (retryAfterSeconds == 0) {
+            return null;
+        }
+
+        System.out.println("AuthController: Rate limit exceeded on " + endpoint + " for email: " + email);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(Map.of("success", false, "message", "Too many requests. Please try again later."));
+    }
+
+    /**
+     * The gateway appends the address it received the request from to X-Forwarded-For;
+     * everything left of that was sent by the client and can be forged. So the header
+     * is only read when the request came from a trusted proxy, from the right, and the
+     * first entry that is not a trusted proxy is the client.
+     */
+    private String clientIp(HttpServletRequest httpRequest) {
+        String remoteAddr = httpRequest.getRemoteAddr();
+        String forwardedFor = httpRequest.getHeader("X-Forwarded-For");
+        if (!trustedProxies.contains(remoteAddr) || forwardedFor == null || forwardedFor.isBlank()) {
+            return remoteAddr;
+        }
+
+        String[] hops = forwardedFor.split(",");
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            if (!hop.isEmpty() && !trustedProxies.contains(hop)) {
+                return hop;
+            }
+        }
+        return remoteAddr;
+    }
+
+}
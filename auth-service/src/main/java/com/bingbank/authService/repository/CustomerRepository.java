@@ -3,7 +3,11 @@ package com.bingbank.authService.repository;
 
 import com.bingbank.authService.model.Customer;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -11,4 +15,16 @@ import java.util.Optional;
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
     Optional<Customer> findByEmail(String email);
     Boolean existsByEmail(String email);
-}
\ No newline at end of file
+
+    /**
+     * Replace the stored hash only if it has not changed since it was read,
+     * so a background rehash never overwrites a concurrent password reset.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Customer c SET c.password = :newPassword " +
+           "WHERE c.customerId = :customerId AND c.password = :oldPassword")
+    int updatePasswordIfUnchanged(@Param("customerId") Long customerId,
+                                  @Param("oldPassword") String oldPassword,
+                                  @Param("newPassword") String newPassword);
+}
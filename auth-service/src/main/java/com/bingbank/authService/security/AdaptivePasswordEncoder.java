@@ -0,0 +1,93 @@
+package com.bingbank.authService.security;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Map;
+
+/**
+ * Delegating password encoder whose BCrypt work factor is calibrated at startup.
+ *
+ * New hashes are written as "{bcrypt}..." with the calibrated strength. Legacy
+ * hashes without an id prefix still verify through the default BCrypt encoder,
+ * and upgradeEncoding() reports them (or any hash with a lower strength) so the
+ * caller can rehash after a successful login.
+ *
+ * All hashing runs on the bounded PasswordHashingExecutor.
+ */
+public class AdaptivePasswordEncoder implements PasswordEncoder {
+
+    private static final String BCRYPT_ID = "bcrypt";
+    private static final String CALIBRATION_PASSWORD = "calibration-Password-123!";
+    private static final int CALIBRATION_ROUNDS = 3;
+
+    private final DelegatingPasswordEncoder delegate;
+    private final PasswordHashingExecutor hashingExecutor;
+    private final int strength;
+
+    public AdaptivePasswordEncoder(int minStrength, int maxStrength, long targetMillis,
+                                   PasswordHashingExecutor hashingExecutor) {
+        this.hashingExecutor = hashingExecutor;
+        this.strength = calibrate(minStrength, maxStrength, targetMillis);
+
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+        this.delegate = new DelegatingPasswordEncoder(BCRYPT_ID, Map.of(BCRYPT_ID, bcrypt));
+        this.delegate.setDefaultPasswordEncoderForMatches(bcrypt);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return hashingExecutor.execute(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return hashingExecutor.execute(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.isEmpty()) {
+            return false;
+        }
+        try {
+            return delegate.upgradeEncoding(encodedPassword);
+        } catch (IllegalArgumentException e) {
+            // Not something we can parse - leave it alone
+            return false;
+        }
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    /**
+     * Pick the highest strength whose hash time stays within the target.
+     * Each BCrypt strength step doubles the cost, so one measurement at the
+     * minimum strength is enough to extrapolate.
+     */
+    private static int calibrate(int minStrength, int maxStrength, long targetMillis) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minStrength);
+        probe.encode(CALIBRATION_PASSWORD); // warm up
+
+        long start = System.nanoTime();
+        for (int i = 0; i < CALIBRATION_ROUNDS; i++) {
+            probe.encode(CALIBRATION_PASSWORD);
+        }
+        double millisAtMin = Math.max((System.nanoTime() - start) / 1_000_000.0 / CALIBRATION_ROUNDS, 0.01);
+
+        int chosen = minStrength;
+        double estimated = millisAtMin;
+        while (chosen < maxStrength && estimated * 2 <= targetMillis) {
+            chosen++;
+            estimated *= 2;
+        }
+
+        System.out.println("AdaptivePasswordEncoder: BCrypt strength " + chosen
+                + " (~" + Math.round(estimated) + " ms per hash, ~"
+                + String.format("%.1f", 1000.0 / estimated) + " logins/sec per core)");
+        return chosen;
+    }
+}
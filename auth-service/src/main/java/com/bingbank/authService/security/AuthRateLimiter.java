@@ -0,0 +1,163 @@
+package com.bingbank.authService.security;
+
+import com.bingbank.authService.config.RateLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-process rate limiter for the public auth endpoints.
+ *
+ * Every request is checked against two token buckets, one keyed by client IP
+ * and one keyed by email and client IP together. Both have to allow it, and
+ * both are checked before a token is taken from either, so a request refused
+ * by one bucket does not use up the other. The email bucket is tied to the
+ * caller's IP so that nobody else can keep a known customer locked out by
+ * spending that customer's attempts. Buckets live in a bounded map:
+ * idle buckets are swept periodically, and when the map overflows the least
+ * recently used buckets are evicted.
+ */
+@Component
+public class AuthRateLimiter {
+
+    private final RateLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Counter> rejectionCounters = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean(false);
+
+    @Autowired
+    public AuthRateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        meterRegistry.gaugeMapSize("auth.rate_limit.tracked_keys", List.of(), buckets);
+    }
+
+    /**
+     * Check a request against the limits for an endpoint.
+     *
+     * @return 0 if the request may proceed, otherwise the number of seconds the client should wait
+     */
+    public long tryAcquire(String endpoint, String clientIp, String email) {
+        RateLimitProperties.EndpointLimit limit = properties.getEndpoints().get(endpoint);
+        if (!properties.isEnabled() || limit == null) {
+            return 0;
+        }
+
+        long now = System.nanoTime();
+
+        TokenBucket ipBucket = null;
+        if (clientIp != null && !clientIp.isBlank()) {
+            ipBucket = bucket(endpoint + "|ip|" + clientIp,
+                    limit.getIpCapacity(), limit.getIpRefillPerMinute(), now);
+        }
+
+        TokenBucket emailBucket = null;
+        if (email != null && !email.isBlank()) {
+            String normalizedEmail = email.trim().toLowerCase(Locale.ROOT);
+            emailBucket = bucket(endpoint + "|email|" + normalizedEmail + "|" + clientIp,
+                    limit.getEmailCapacity(), limit.getEmailRefillPerMinute(), now);
+        }
+
+        long ipWait = ipBucket != null ? ipBucket.waitNanos(now) : 0;
+        if (ipWait > 0) {
+            return reject(endpoint, "ip", ipWait);
+        }
+        long emailWait = emailBucket != null ? emailBucket.waitNanos(now) : 0;
+        if (emailWait > 0) {
+            return reject(endpoint, "email", emailWait);
+        }
+
+        if (ipBucket != null) {
+            ipWait = ipBucket.tryConsume(now);
+            if (ipWait > 0) {
+                return reject(endpoint, "ip", ipWait);
+            }
+        }
+        if (emailBucket != null) {
+            emailWait = emailBucket.tryConsume(now);
+            if (emailWait > 0) {
+                // Taken by a concurrent request since the check above
+                if (ipBucket != null) {
+                    ipBucket.refund();
+                }
+                return reject(endpoint, "email", emailWait);
+            }
+        }
+
+        return 0;
+    }
+
+    /**
+     * Drop buckets that have been idle long enough to be full again
+     */
+    @Scheduled(fixedDelayString = "${app.rate-limit.sweep-interval-millis:60000}")
+    public void sweepIdleBuckets() {
+        long now = System.nanoTime();
+        long idleNanos = TimeUnit.SECONDS.toNanos(properties.getIdleEvictionSeconds());
+        buckets.entrySet().removeIf(entry -> entry.getValue().isIdle(now, idleNanos));
+    }
+
+    private TokenBucket bucket(String key, long capacity, long refillPerMinute, long now) {
+        TokenBucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+
+        bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(capacity, refillPerMinute, now));
+        if (buckets.size() > properties.getMaxKeys()) {
+            evictLeastRecentlyUsed();
+        }
+        return bucket;
+    }
+
+    private void evictLeastRecentlyUsed() {
+        // One thread evicts, the others carry on
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            sweepIdleBuckets();
+
+            int target = (int) (properties.getMaxKeys() * 0.9);
+            int excess = buckets.size() - target;
+            if (excess <= 0) {
+                return;
+            }
+
+            List<Map.Entry<String, TokenBucket>> entries = new ArrayList<>(buckets.entrySet());
+            entries.sort(Comparator.comparingLong(entry -> entry.getValue().getLastAccessNanos()));
+            for (int i = 0; i < excess && i < entries.size(); i++) {
+                Map.Entry<String, TokenBucket> entry = entries.get(i);
+                buckets.remove(entry.getKey(), entry.getValue());
+            }
+            System.out.println("AuthRateLimiter: Evicted " + excess + " least recently used rate limit keys");
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private long reject(String endpoint, String keyType, long waitNanos) {
+        rejectionCounters.computeIfAbsent(endpoint + "|" + keyType, k -> Counter.builder("auth.rate_limit.rejected")
+                .description("Requests rejected by the auth rate limiter")
+                .tag("endpoint", endpoint)
+                .tag("key", keyType)
+                .register(meterRegistry))
+                .increment();
+
+        long seconds = waitNanos == Long.MAX_VALUE ? 60 : TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1;
+        return Math.max(1, seconds);
+    }
+}
@@ -4,6 +4,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -34,15 +35,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             // Get username from token
             String username = tokenProvider.getUsernameFromJWT(token);
 
-            // Load user details
-            UserDetails userDetails = customUserDetailsService.loadUserByUsername(username);
+            try {
+                // Load user details
+                UserDetails userDetails = customUserDetailsService.loadUserByUsername(username);
 
-            // Set authentication
-            UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                    userDetails, null, userDetails.getAuthorities());
-            authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                // Set authentication
+                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                        userDetails, null, userDetails.getAuthorities());
+                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            } catch (UsernameNotFoundException e) {
+                // Service tokens (e.g. "transaction-service") carry no customer;
+                // they only reach the permitAll /api/auth/** endpoints
+            }
         }
 
         filterChain.doFilter(request, response);
@@ -0,0 +1,101 @@
+package com.bingbank.authService.security;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free token bucket. The token count and last refill time are swapped
+ * together with a CAS, so concurrent requests never block each other.
+ */
+public class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final AtomicReference<State> state;
+
+    private volatile long lastAccessNanos;
+
+    public TokenBucket(long capacity, long refillPerMinute, long nowNanos) {
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerMinute / 60_000_000_000.0;
+        this.state = new AtomicReference<>(new State(capacity, nowNanos));
+        this.lastAccessNanos = nowNanos;
+    }
+
+    /**
+     * Try to take one token.
+     *
+     * @return 0 if a token was taken, otherwise the nanoseconds until one becomes available
+     */
+    public long tryConsume(long nowNanos) {
+        lastAccessNanos = nowNanos;
+        while (true) {
+            State current = state.get();
+            double tokens = refilled(current, nowNanos);
+
+            if (tokens < 1.0) {
+                if (tokensPerNano <= 0) {
+                    return Long.MAX_VALUE;
+                }
+                return (long) Math.ceil((1.0 - tokens) / tokensPerNano);
+            }
+
+            State next = new State(tokens - 1.0, Math.max(nowNanos, current.timestampNanos));
+            if (state.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Nanoseconds until a token is available, without taking it (0 if one is available now)
+     */
+    public long waitNanos(long nowNanos) {
+        double tokens = refilled(state.get(), nowNanos);
+        if (tokens >= 1.0) {
+            return 0;
+        }
+        if (tokensPerNano <= 0) {
+            return Long.MAX_VALUE;
+        }
+        return (long) Math.ceil((1.0 - tokens) / tokensPerNano);
+    }
+
+    /**
+     * Give back a token taken by tryConsume for a request that was refused elsewhere
+     */
+    public void refund() {
+        while (true) {
+            State current = state.get();
+            State next = new State(Math.min(capacity, current.tokens + 1.0), current.timestampNanos);
+            if (state.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * A bucket that has been idle long enough to refill completely carries no state worth keeping.
+     */
+    public boolean isIdle(long nowNanos, long idleNanos) {
+        return nowNanos - lastAccessNanos > idleNanos && refilled(state.get(), nowNanos) >= capacity;
+    }
+
+    public long getLastAccessNanos() {
+        return lastAccessNanos;
+    }
+
+    private double refilled(State current, long nowNanos) {
+        long elapsed = Math.max(0, nowNanos - current.timestampNanos);
+        return Math.min(capacity, current.tokens + elapsed * tokensPerNano);
+    }
+
+    private static final class State {
+        private final double tokens;
+        private final long timestampNanos;
+
+        private State(double tokens, long timestampNanos) {
+            this.tokens = tokens;
+            this.timestampNanos = timestampNanos;
+        }
+    }
+}
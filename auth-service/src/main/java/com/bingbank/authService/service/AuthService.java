@@ -31,6 +31,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
+import java.util.concurrent.RejectedExecutionException;
 
 @Service
 public class AuthService {
@@ -65,6 +66,9 @@ public class AuthService {
     @Autowired
     private OTPRepository otpRepository;
 
+    @Autowired
+    private PasswordRehashService passwordRehashService;
+
     public ResponseEntity<?> login(LoginRequest loginRequest) {
         try {
             // Authenticate with username and password
@@ -81,6 +85,9 @@ public class AuthService {
             Customer customer = customerRepository.findByEmail(loginRequest.getEmail())
                     .orElseThrow(() -> new RuntimeException("User not found"));
 
+            // Upgrade the stored hash if the encoder settings have changed
+            passwordRehashService.rehashIfNeeded(customer, loginRequest.getPassword());
+
             // Check if 2FA is enabled
             if (customer.getTwoFactorEnabled()) {
                 // Generate and send OTP
@@ -114,6 +121,10 @@ public class AuthService {
                         .build());
             }
         } catch (Exception e) {
+            if (isHashingRejected(e)) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .body("Server is busy. Please try again shortly.");
+            }
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body("Invalid email or password");
         }
@@ -206,6 +217,10 @@ public class AuthService {
                         "email", registerRequest.getEmail()
                     ));
         } catch (Exception e) {
+            if (isHashingRejected(e)) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .body("Server is busy. Please try again shortly.");
+            }
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Registration failed: " + e.getMessage());
         }
@@ -377,6 +392,16 @@ public class AuthService {
         System.out.println("AuthService: Password reset successfully");
     }
     
+    // Password hashing rejections may arrive wrapped by the authentication provider
+    private boolean isHashingRejected(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof RejectedExecutionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     // Helper method to generate OTP
     private String generateOTP() {
         Random random = new Random();
@@ -0,0 +1,50 @@
+package com.bingbank.authService.service;
+
+import com.bingbank.authService.model.Customer;
+import com.bingbank.authService.repository.CustomerRepository;
+import com.bingbank.authService.security.PasswordHashingExecutor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+@Service
+public class PasswordRehashService {
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private PasswordHashingExecutor hashingExecutor;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    /**
+     * Rehash a customer's password with the current encoder settings after a successful login.
+     * Runs in the background and is skipped when the hashing pool is busy - the next login retries.
+     */
+    public void rehashIfNeeded(Customer customer, String rawPassword) {
+        String storedHash = customer.getPassword();
+        if (rawPassword == null || !passwordEncoder.upgradeEncoding(storedHash)) {
+            return;
+        }
+
+        Long customerId = customer.getCustomerId();
+        boolean queued = hashingExecutor.tryExecuteInBackground(() -> {
+            try {
+                String newHash = passwordEncoder.encode(rawPassword);
+                int updated = customerRepository.updatePasswordIfUnchanged(customerId, storedHash, newHash);
+                if (updated > 0) {
+                    System.out.println("PasswordRehashService: Upgraded password hash for customer: " + customerId);
+                }
+            } catch (Exception e) {
+                System.err.println("PasswordRehashService: Failed to rehash password for customer "
+                        + customerId + " - " + e.getMessage());
+            }
+        });
+
+        if (!queued) {
+            System.out.println("PasswordRehashService: Hashing pool busy, deferring rehash for customer: " + customerId);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.bingbank.authService.security;
+
+import com.bingbank.authService.config.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuthRateLimiterTest {
+
+	private AuthRateLimiter limiter;
+
+	@BeforeEach
+	void setUp() {
+		RateLimitProperties.EndpointLimit login = new RateLimitProperties.EndpointLimit();
+		login.setIpCapacity(3);
+		login.setIpRefillPerMinute(0);
+		login.setEmailCapacity(2);
+		login.setEmailRefillPerMinute(0);
+
+		RateLimitProperties properties = new RateLimitProperties();
+		properties.getEndpoints().put("login", login);
+		limiter = new AuthRateLimiter(properties, new SimpleMeterRegistry());
+	}
+
+	@Test
+	void otherCallersCannotLockOutAnEmail() {
+		assertEquals(0, limiter.tryAcquire("login", "10.0.0.66", "victim@bingbank.com"));
+		assertEquals(0, limiter.tryAcquire("login", "10.0.0.66", "victim@bingbank.com"));
+		assertTrue(limiter.tryAcquire("login", "10.0.0.66", "victim@bingbank.com") > 0);
+
+		assertEquals(0, limiter.tryAcquire("login", "10.0.0.7", "Victim@BingBank.com "));
+	}
+
+	@Test
+	void emailRejectionDoesNotSpendTheIpToken() {
+		limiter.tryAcquire("login", "10.0.0.1", "a@bingbank.com");
+		limiter.tryAcquire("login", "10.0.0.1", "a@bingbank.com");
+		assertTrue(limiter.tryAcquire("login", "10.0.0.1", "a@bingbank.com") > 0);
+		assertTrue(limiter.tryAcquire("login", "10.0.0.1", "a@bingbank.com") > 0);
+
+		// Two rejections later the IP still has its third token
+		assertEquals(0, limiter.tryAcquire("login", "10.0.0.1", "b@bingbank.com"));
+		assertTrue(limiter.tryAcquire("login", "10.0.0.1", "c@bingbank.com") > 0);
+	}
+
+	@Test
+	void unconfiguredEndpointIsNotLimited() {
+		for (int i = 0; i < 10; i++) {
+			assertEquals(0, limiter.tryAcquire("logout", "10.0.0.1", "a@bingbank.com"));
+		}
+	}
+}
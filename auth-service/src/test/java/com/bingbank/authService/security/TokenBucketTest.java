@@ -0,0 +1,139 @@
+package com.bingbank.authService.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+
+	private static final long SECOND = 1_000_000_000L;
+	private static final long T0 = 5 * SECOND;
+
+	@Test
+	void startsFullAndRejectsOnceDrained() {
+		TokenBucket bucket = new TokenBucket(3, 60, T0);
+
+		assertEquals(0, bucket.tryConsume(T0));
+		assertEquals(0, bucket.tryConsume(T0));
+		assertEquals(0, bucket.tryConsume(T0));
+		assertTrue(bucket.tryConsume(T0) > 0);
+	}
+
+	@Test
+	void reportsWaitUntilNextToken() {
+		// 60 per minute: one token a second
+		TokenBucket bucket = new TokenBucket(1, 60, T0);
+		bucket.tryConsume(T0);
+
+		long wait = bucket.tryConsume(T0);
+		assertTrue(wait > SECOND - 1_000 && wait < SECOND + 1_000, "wait was " + wait);
+
+		long halfway = bucket.tryConsume(T0 + SECOND / 2);
+		assertTrue(halfway > SECOND / 2 - 1_000 && halfway < SECOND / 2 + 1_000, "wait was " + halfway);
+	}
+
+	@Test
+	void refillsOverTime() {
+		TokenBucket bucket = new TokenBucket(1, 60, T0);
+		bucket.tryConsume(T0);
+
+		assertEquals(0, bucket.tryConsume(T0 + SECOND + 1_000));
+	}
+
+	@Test
+	void refillIsCappedAtCapacity() {
+		TokenBucket bucket = new TokenBucket(2, 60, T0);
+		long later = T0 + 3600 * SECOND;
+
+		assertEquals(0, bucket.tryConsume(later));
+		assertEquals(0, bucket.tryConsume(later));
+		assertTrue(bucket.tryConsume(later) > 0);
+	}
+
+	@Test
+	void clockGoingBackwardsAddsNoTokens() {
+		TokenBucket bucket = new TokenBucket(1, 60, T0);
+		bucket.tryConsume(T0);
+
+		assertTrue(bucket.tryConsume(T0 - 10 * SECOND) > 0);
+	}
+
+	@Test
+	void withoutRefillWaitIsUnbounded() {
+		TokenBucket bucket = new TokenBucket(1, 0, T0);
+		bucket.tryConsume(T0);
+
+		assertEquals(Long.MAX_VALUE, bucket.tryConsume(T0 + 3600 * SECOND));
+	}
+
+	@Test
+	void waitNanosDoesNotTakeAToken() {
+		TokenBucket bucket = new TokenBucket(1, 60, T0);
+
+		assertEquals(0, bucket.waitNanos(T0));
+		assertEquals(0, bucket.waitNanos(T0));
+		assertEquals(0, bucket.tryConsume(T0));
+		assertTrue(bucket.waitNanos(T0) > 0);
+	}
+
+	@Test
+	void refundReturnsTheTokenUpToCapacity() {
+		TokenBucket bucket = new TokenBucket(1, 0, T0);
+		bucket.tryConsume(T0);
+
+		bucket.refund();
+		bucket.refund();
+
+		assertEquals(0, bucket.tryConsume(T0));
+		assertTrue(bucket.tryConsume(T0) > 0);
+	}
+
+	@Test
+	void idleOnlyOnceUnusedAndRefilled() {
+		TokenBucket bucket = new TokenBucket(2, 60, T0);
+		bucket.tryConsume(T0);
+		bucket.tryConsume(T0);
+
+		assertFalse(bucket.isIdle(T0 + SECOND, 0));
+		assertFalse(bucket.isIdle(T0 + 3 * SECOND, 10 * SECOND));
+		assertTrue(bucket.isIdle(T0 + 11 * SECOND, 10 * SECOND));
+	}
+
+	@Test
+	void concurrentConsumersNeverOverdraw() throws InterruptedException {
+		TokenBucket bucket = new TokenBucket(1000, 0, T0);
+		AtomicInteger taken = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < 8; t++) {
+			Thread thread = new Thread(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					return;
+				}
+				for (int i = 0; i < 500; i++) {
+					if (bucket.tryConsume(T0) == 0) {
+						taken.incrementAndGet();
+					}
+				}
+			});
+			thread.start();
+			threads.add(thread);
+		}
+
+		start.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		assertEquals(1000, taken.get());
+	}
+}
@@ -139,7 +139,7 @@ const FixedDeposits = () => {
       setCreateForm({ principalAmount: '', tenureYears: 1 });
       setCreatingFD(false);
       
-      alert("Fixed Deposit created successfully!");
+      alert("Fixed Deposit requested! It becomes active once the amount is debited from your account.");
     } catch (err) {
       console.error("Error creating FD:", err);
       alert(err.response?.data || "Failed to create Fixed Deposit");
@@ -168,7 +168,7 @@ const FixedDeposits = () => {
       setFdToClose(null);
       setClosingFD(false);
       
-      alert("Fixed Deposit closed successfully! Amount credited to your account.");
+      alert("Fixed Deposit closure requested! The amount will be credited to your account shortly.");
     } catch (err) {
       console.error("Error closing FD:", err);
       alert(err.response?.data || "Failed to close Fixed Deposit");
@@ -0,0 +1,20 @@
+-- Merchant search index for credit_card_transactions (cards-service).
+--
+-- Run once per database as a role allowed to create extensions, e.g.
+--   psql -d netbanking_db -f cards-service/db/dba/merchant_search_index.sql
+-- The service itself runs without that privilege, so this is not part of
+-- schema.sql. Start cards-service first so the table exists.
+--
+-- CREATE INDEX CONCURRENTLY does not block card writes while it builds, and
+-- cannot run inside a transaction block (do not wrap in BEGIN/COMMIT or use
+-- psql --single-transaction). If a build fails it leaves an INVALID index:
+-- drop it and run this script again.
+
+-- Merchant search: lower(merchant_name) LIKE '%term%' scoped to one card.
+-- btree_gin lets card_id share the trigram GIN index, so a search only
+-- touches that card's postings instead of scanning the table.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS btree_gin;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_cc_txn_card_merchant_trgm
+    ON credit_card_transactions USING gin (card_id, lower(merchant_name) gin_trgm_ops);
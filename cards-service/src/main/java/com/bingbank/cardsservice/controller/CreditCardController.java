@@ -1,12 +1,15 @@
 package com.bingbank.cardsservice.controller;
 
 import com.bingbank.cardsservice.dto.*;
-import com.bingbank.cardsservice.model.CreditCard;
-import com.bingbank.cardsservice.repository.CreditCardRepository;
-import com.bingbank.cardsservice.service.CreditCardPdfService;
+import com.bingbank.cardsservice.service.CardSummaryService;
 import com.bingbank.cardsservice.service.CreditCardService;
+import com.bingbank.cardsservice.service.CreditCardStatementService;
+import com.bingbank.cardsservice.service.CreditLedger;
+import com.bingbank.cardsservice.service.SpendingAnalyticsService;
+import com.bingbank.cardsservice.service.StatementJobService;
 import com.itextpdf.text.DocumentException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -15,9 +18,11 @@ import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
 import java.io.IOException;
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/cards/credit")
@@ -27,10 +32,19 @@ public class CreditCardController {
     private CreditCardService creditCardService;
 
     @Autowired
-    private CreditCardPdfService pdfService;
+    private CardSummaryService cardSummaryService;
 
     @Autowired
-    private CreditCardRepository creditCardRepository;
+    private SpendingAnalyticsService spendingAnalyticsService;
+
+    @Autowired
+    private CreditCardStatementService statementService;
+
+    @Autowired
+    private StatementJobService statementJobService;
+
+    @Autowired
+    private CreditLedger creditLedger;
 
     /**
      * Get credit card by customer ID
@@ -72,6 +86,24 @@ public class CreditCardController {
         }
     }
 
+    /**
+     * Search transactions by merchant name
+     */
+    @GetMapping("/{cardId}/transactions/search")
+    public ResponseEntity<?> searchTransactions(
+            @PathVariable Long cardId,
+            @RequestParam String merchant,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            System.out.println("CreditCardController: Merchant search for card: " + cardId);
+            List<CreditCardTransactionDTO> transactions = creditCardService.searchByMerchant(cardId, merchant, limit);
+            return ResponseEntity.ok(transactions);
+        } catch (Exception e) {
+            System.err.println("CreditCardController: Error - " + e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     /**
      * Get filtered transactions
      */
@@ -109,6 +141,42 @@ public class CreditCardController {
         }
     }
 
+    /**
+     * Get monthly spend summary (totals by type and purchases by category)
+     */
+    @GetMapping("/{cardId}/summary/{year}/{month}")
+    public ResponseEntity<?> getMonthlySummary(
+            @PathVariable Long cardId,
+            @PathVariable int year,
+            @PathVariable int month) {
+        try {
+            System.out.println("CreditCardController: Fetching monthly summary for " + year + "-" + month);
+            CardMonthlySummaryDTO summary = cardSummaryService.getMonthlySummary(cardId, year, month);
+            return ResponseEntity.ok(summary);
+        } catch (Exception e) {
+            System.err.println("CreditCardController: Error - " + e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Get spending analytics (category, merchant, weekday and month breakdowns)
+     */
+    @GetMapping("/{cardId}/analytics")
+    public ResponseEntity<?> getAnalytics(
+            @PathVariable Long cardId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        try {
+            System.out.println("CreditCardController: Fetching analytics for card: " + cardId);
+            SpendingAnalyticsDTO analytics = spendingAnalyticsService.getAnalytics(cardId, startDate, endDate);
+            return ResponseEntity.ok(analytics);
+        } catch (Exception e) {
+            System.err.println("CreditCardController: Error - " + e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     /**
      * Download monthly statement PDF
      */
@@ -117,31 +185,23 @@ public class CreditCardController {
             @PathVariable Long cardId,
             @PathVariable int year,
             @PathVariable int month,
-            @RequestHeader("Authorization") String authHeader) {
+            @RequestHeader("Authorization") String authHeader,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
             System.out.println("CreditCardController: Generating statement for " + year + "-" + month);
             
-            // Get credit card first to get customer ID
-            CreditCard card = creditCardRepository.findById(cardId)
-                    .orElseThrow(() -> new RuntimeException("Credit card not found"));
-            
-            // Get credit card details
-            CreditCardDTO creditCard = creditCardService.getCreditCardByCustomerId(card.getCustomerId());
+            // Statement version decides whether a cached copy is still valid
+            String etag = statementService.getStatementETag(cardId, year, month);
             
-            // Get monthly transactions
-            List<CreditCardTransactionDTO> transactions = 
-                    creditCardService.getMonthlyTransactions(cardId, year, month);
+            if (etag.equals(ifNoneMatch)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
             
-            // Generate PDF
-            byte[] pdfBytes = pdfService.generateCreditCardStatement(creditCard, transactions, year, month);
+            byte[] pdfBytes = statementService.getStatement(cardId, year, month, etag);
             
             // Set headers for PDF download
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_PDF);
-            String filename = "credit_card_statement_" + year + "_" + 
-                    String.format("%02d", month) + ".pdf";
-            headers.setContentDispositionFormData("attachment", filename);
-            headers.setCacheControl("must-revalidate, post-check=0, pre-check=0");
+            HttpHeaders headers = pdfHeaders(CreditCardStatementService.statementFilename(year, month));
+            headers.setETag(etag);
             
             return new ResponseEntity<>(pdfBytes, headers, HttpStatus.OK);
             
@@ -155,6 +215,85 @@ public class CreditCardController {
         }
     }
 
+    /**
+     * Queue a monthly statement for background rendering
+     */
+    @PostMapping("/{cardId}/statement/{year}/{month}/jobs")
+    public ResponseEntity<?> submitStatementJob(
+            @PathVariable Long cardId,
+            @PathVariable int year,
+            @PathVariable int month) {
+        try {
+            StatementJobDTO job = statementJobService.submit(cardId, year, month);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        } catch (RejectedExecutionException e) {
+            System.err.println("CreditCardController: Statement queue full");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("error", "Too many statement requests, please try again shortly"));
+        } catch (Exception e) {
+            System.err.println("CreditCardController: Error - " + e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Poll a statement job
+     */
+    @GetMapping("/{cardId}/statement/jobs/{jobId}")
+    public ResponseEntity<?> getStatementJob(@PathVariable Long cardId, @PathVariable String jobId) {
+        try {
+            return ResponseEntity.ok(statementJobService.getJob(cardId, jobId));
+        } catch (Exception e) {
+            System.err.println("CreditCardController: Error - " + e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Download the PDF of a completed statement job (the token works once)
+     */
+    @GetMapping("/{cardId}/statement/jobs/{jobId}/download")
+    public ResponseEntity<?> downloadStatementJob(
+            @PathVariable Long cardId,
+            @PathVariable String jobId,
+            @RequestParam String token) {
+        try {
+            byte[] pdfBytes = statementJobService.download(cardId, jobId, token);
+            StatementJobDTO job = statementJobService.getJob(cardId, jobId);
+            return new ResponseEntity<>(pdfBytes, pdfHeaders(job.getFilename()), HttpStatus.OK);
+        } catch (Exception e) {
+            System.err.println("CreditCardController: Error - " + e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    private HttpHeaders pdfHeaders(String filename) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_PDF);
+        headers.setContentDispositionFormData("attachment", filename);
+        headers.setCacheControl("private, no-cache");
+        return headers;
+    }
+
+    /**
+     * Authorize a purchase against the card's available credit.
+     * Declines are a normal 200 response with approved=false and a reason;
+     * an approval has already been stored when it is returned.
+     */
+    @PostMapping("/{cardId}/authorize")
+    public ResponseEntity<?> authorize(
+            @PathVariable Long cardId,
+            @Valid @RequestBody AuthorizationRequest request) {
+        // No per-request logging: this path is sized for thousands of calls per second
+        try {
+            return ResponseEntity.ok(creditLedger.authorize(cardId, request.getCustomerId(), request.getAmount(),
+                    request.getMerchantName(), request.getCategory()));
+        } catch (Exception e) {
+            System.err.println("CreditCardController: Authorization error for card " + cardId + " - " + e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     /**
      * Pay credit card bill
      */
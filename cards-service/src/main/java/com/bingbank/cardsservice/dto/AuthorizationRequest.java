@@ -0,0 +1,26 @@
+package com.bingbank.cardsservice.dto;
+
+import lombok.Data;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.math.BigDecimal;
+
+@Data
+public class AuthorizationRequest {
+    @NotNull(message = "Customer ID is required")
+    private Long customerId;
+
+    @NotNull(message = "Amount is required")
+    @DecimalMin(value = "0.01", message = "Amount must be at least $0.01")
+    private BigDecimal amount;
+
+    // Sizes match the credit_card_transactions columns
+    @NotBlank(message = "Merchant name is required")
+    @Size(max = 255, message = "Merchant name must be at most 255 characters")
+    private String merchantName;
+
+    @Size(max = 50, message = "Category must be at most 50 characters")
+    private String category;
+}
@@ -0,0 +1,19 @@
+package com.bingbank.cardsservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuthorizationResultDTO {
+    private String authorizationId; // null when declined
+    private Long cardId;
+    private Boolean approved;
+    private String declineReason; // INSUFFICIENT_CREDIT, CARD_INACTIVE, CARD_EXPIRED, SYSTEM_BUSY
+    private BigDecimal amount;
+    private BigDecimal availableCredit;
+}
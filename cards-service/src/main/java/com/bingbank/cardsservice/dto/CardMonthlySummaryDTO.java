@@ -0,0 +1,17 @@
+package com.bingbank.cardsservice.dto;
+
+import lombok.Data;
+import java.math.BigDecimal;
+import java.util.Map;
+
+@Data
+public class CardMonthlySummaryDTO {
+    private Long cardId;
+    private int year;
+    private int month;
+    private BigDecimal totalPurchases;
+    private BigDecimal totalPayments;
+    private BigDecimal totalRefunds;
+    private long transactionCount;
+    private Map<String, BigDecimal> purchasesByCategory;
+}
@@ -0,0 +1,33 @@
+package com.bingbank.cardsservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * One row of the statement loader query: the card columns the statement shows,
+ * joined with one transaction of the month (transaction fields are null when
+ * the month has no transactions).
+ */
+@Data
+@AllArgsConstructor
+public class CreditCardStatementRow {
+    private Long cardId;
+    private String cardholderName;
+    private String cardNumber;
+    private String accountNumber;
+    private BigDecimal creditLimit;
+    private BigDecimal availableCredit;
+    private BigDecimal outstandingBalance;
+    private LocalDate paymentDueDate;
+    private Long transactionId;
+    private LocalDate transactionDate;
+    private LocalTime transactionTime;
+    private String merchantName;
+    private String category;
+    private BigDecimal amount;
+    private String transactionType;
+    private String status;
+}
@@ -0,0 +1,19 @@
+package com.bingbank.cardsservice.dto;
+
+import lombok.Data;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+@Data
+public class SpendingAnalyticsDTO {
+    private Long cardId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private long transactionCount;
+    private BigDecimal totalSpent;
+    private Map<String, BigDecimal> byCategory;
+    private Map<String, BigDecimal> topMerchants;   // highest spend first
+    private Map<String, BigDecimal> byWeekday;      // MONDAY .. SUNDAY
+    private Map<String, BigDecimal> byMonth;        // yyyy-MM
+}
@@ -0,0 +1,15 @@
+package com.bingbank.cardsservice.dto;
+
+import lombok.Data;
+import java.time.LocalDateTime;
+
+@Data
+public class StatementJobDTO {
+    private String jobId;
+    private String status; // QUEUED, RUNNING, COMPLETED, FAILED, DOWNLOADED
+    private String downloadToken; // only returned when the job is submitted, valid for one download
+    private String filename;
+    private String error;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,48 @@
+package com.bingbank.cardsservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Running totals per card, month, transaction type and category.
+ * Maintained by a trigger on credit_card_transactions, see CardSummaryService.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "card_monthly_summary")
+@IdClass(CardMonthlySummaryId.class)
+public class CardMonthlySummary {
+
+    @Id
+    @Column(name = "card_id", nullable = false)
+    private Long cardId;
+
+    @Id
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart; // first day of the month
+
+    @Id
+    @Column(name = "transaction_type", nullable = false, length = 20)
+    private String transactionType; // PURCHASE, PAYMENT, REFUND
+
+    @Id
+    @Column(nullable = false, length = 50)
+    private String category;
+
+    @Column(name = "total_amount", nullable = false, precision = 15, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Column(name = "transaction_count", nullable = false)
+    private Long transactionCount;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,18 @@
+package com.bingbank.cardsservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardMonthlySummaryId implements Serializable {
+    private Long cardId;
+    private LocalDate periodStart;
+    private String transactionType;
+    private String category;
+}
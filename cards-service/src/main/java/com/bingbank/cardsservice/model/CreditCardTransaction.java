@@ -15,7 +15,9 @@ import java.time.LocalTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "credit_card_transactions")
+@Table(name = "credit_card_transactions", indexes = {
+        @Index(name = "idx_cc_txn_card_date", columnList = "card_id, transaction_date, transaction_time")
+})
 public class CreditCardTransaction {
     
     @Id
@@ -50,6 +52,9 @@ public class CreditCardTransaction {
     @Column(nullable = false, length = 20)
     private String status; // COMPLETED, PENDING, FAILED
     
+    @Column(name = "authorization_id", length = 36)
+    private String authorizationId; // set on purchases approved by CreditLedger (unique, see schema.sql)
+    
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
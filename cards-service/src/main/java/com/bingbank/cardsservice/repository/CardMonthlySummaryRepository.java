@@ -0,0 +1,63 @@
+package com.bingbank.cardsservice.repository;
+
+import com.bingbank.cardsservice.model.CardMonthlySummary;
+import com.bingbank.cardsservice.model.CardMonthlySummaryId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface CardMonthlySummaryRepository extends JpaRepository<CardMonthlySummary, CardMonthlySummaryId> {
+
+    List<CardMonthlySummary> findByCardIdAndPeriodStart(Long cardId, LocalDate periodStart);
+
+    // [outstanding balance, available credit] at the end of the month starting periodStart:
+    // the card's figures with the net of every later month taken back out, read in one snapshot
+    @Query(value = "SELECT c.outstanding_balance - COALESCE(SUM(CASE WHEN s.transaction_type = 'PURCHASE' " +
+            "THEN s.total_amount ELSE -s.total_amount END), 0), " +
+            "c.available_credit + COALESCE(SUM(CASE WHEN s.transaction_type = 'PURCHASE' " +
+            "THEN s.total_amount ELSE -s.total_amount END), 0) " +
+            "FROM credit_cards c LEFT JOIN card_monthly_summary s " +
+            "ON s.card_id = c.card_id AND s.period_start > :periodStart " +
+            "WHERE c.card_id = :cardId " +
+            "GROUP BY c.outstanding_balance, c.available_credit", nativeQuery = true)
+    List<Object[]> findMonthEndBalances(@Param("cardId") Long cardId, @Param("periodStart") LocalDate periodStart);
+
+    /**
+     * Bring the buckets of cards in (afterCardId, lastCardId] in line with the raw
+     * transactions. Transactions and buckets are read in one snapshot and only the
+     * differences are added, so buckets the trigger updates concurrently stay right.
+     * The category fallback matches the trigger.
+     */
+    @Modifying
+    @Query(value = "WITH actual AS (" +
+            "  SELECT card_id, CAST(date_trunc('month', transaction_date) AS date) AS period_start, transaction_type, " +
+            "         COALESCE(NULLIF(btrim(category), ''), 'Uncategorized') AS category, " +
+            "         SUM(amount) AS total_amount, COUNT(*) AS transaction_count " +
+            "  FROM credit_card_transactions " +
+            "  WHERE card_id > :afterCardId AND card_id <= :lastCardId " +
+            "  GROUP BY 1, 2, 3, 4), " +
+            "rollup AS (" +
+            "  SELECT card_id, period_start, transaction_type, category, total_amount, transaction_count " +
+            "  FROM card_monthly_summary " +
+            "  WHERE card_id > :afterCardId AND card_id <= :lastCardId), " +
+            "drift AS (" +
+            "  SELECT card_id, period_start, transaction_type, category, " +
+            "         COALESCE(a.total_amount, 0) - COALESCE(r.total_amount, 0) AS total_delta, " +
+            "         COALESCE(a.transaction_count, 0) - COALESCE(r.transaction_count, 0) AS count_delta " +
+            "  FROM actual a FULL JOIN rollup r USING (card_id, period_start, transaction_type, category)) " +
+            "INSERT INTO card_monthly_summary " +
+            "(card_id, period_start, transaction_type, category, total_amount, transaction_count, updated_at) " +
+            "SELECT card_id, period_start, transaction_type, category, total_delta, count_delta, now() " +
+            "FROM drift WHERE total_delta <> 0 OR count_delta <> 0 " +
+            "ON CONFLICT (card_id, period_start, transaction_type, category) DO UPDATE SET " +
+            "  total_amount = card_monthly_summary.total_amount + EXCLUDED.total_amount, " +
+            "  transaction_count = card_monthly_summary.transaction_count + EXCLUDED.transaction_count, " +
+            "  updated_at = now()", nativeQuery = true)
+    int applyDrift(@Param("afterCardId") long afterCardId, @Param("lastCardId") long lastCardId);
+}
@@ -1,9 +1,18 @@
 package com.bingbank.cardsservice.repository;
 
+import com.bingbank.cardsservice.dto.CreditCardStatementRow;
 import com.bingbank.cardsservice.model.CreditCard;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -14,4 +23,37 @@ public interface CreditCardRepository extends JpaRepository<CreditCard, Long> {
     Optional<CreditCard> findByAccountNumber(String accountNumber);
     
     Optional<CreditCard> findByCardNumber(String cardNumber);
+    
+    // Same row lock CreditLedger takes while it decides authorizations
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM CreditCard c WHERE c.cardId = :cardId")
+    Optional<CreditCard> findByIdForUpdate(@Param("cardId") Long cardId);
+    
+    // Relative update: CreditLedger applies purchases to the same columns concurrently
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("UPDATE CreditCard c SET c.outstandingBalance = c.outstandingBalance - :amount, " +
+           "c.availableCredit = c.availableCredit + :amount, c.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE c.cardId = :cardId AND c.outstandingBalance >= :amount")
+    int applyPayment(@Param("cardId") Long cardId, @Param("amount") BigDecimal amount);
+    
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("UPDATE CreditCard c SET c.cardStatus = :status, c.updatedAt = CURRENT_TIMESTAMP WHERE c.cardId = :cardId")
+    int updateCardStatus(@Param("cardId") Long cardId, @Param("status") String status);
+    
+    @Query("SELECT c.cardId FROM CreditCard c WHERE c.cardStatus = :status")
+    List<Long> findCardIdsByCardStatus(@Param("status") String status);
+    
+    // Card and its month of transactions in one round trip, only the columns a statement shows
+    @Query("SELECT new com.bingbank.cardsservice.dto.CreditCardStatementRow(" +
+           "c.cardId, c.cardholderName, c.cardNumber, c.accountNumber, " +
+           "c.creditLimit, c.availableCredit, c.outstandingBalance, c.paymentDueDate, " +
+           "t.transactionId, t.transactionDate, t.transactionTime, t.merchantName, " +
+           "t.category, t.amount, t.transactionType, t.status) " +
+           "FROM CreditCard c LEFT JOIN CreditCardTransaction t " +
+           "ON t.cardId = c.cardId AND t.transactionDate >= :startDate AND t.transactionDate <= :endDate " +
+           "WHERE c.cardId = :cardId " +
+           "ORDER BY t.transactionDate DESC, t.transactionTime DESC, t.transactionId DESC")
+    List<CreditCardStatementRow> findStatementRows(@Param("cardId") Long cardId,
+                                                   @Param("startDate") LocalDate startDate,
+                                                   @Param("endDate") LocalDate endDate);
 }
\ No newline at end of file
@@ -0,0 +1,13 @@
+package com.bingbank.cardsservice.repository;
+
+import com.bingbank.cardsservice.dto.TransactionFilterRequest;
+import com.bingbank.cardsservice.model.CreditCardTransaction;
+
+import java.util.List;
+
+public interface CreditCardTransactionRepositoryCustom {
+
+    // Filter with only the predicates and ordering the request actually uses,
+    // reading at most maxResults rows
+    List<CreditCardTransaction> findFilteredTransactions(TransactionFilterRequest filter, int maxResults);
+}
@@ -0,0 +1,112 @@
+package com.bingbank.cardsservice.repository;
+
+import com.bingbank.cardsservice.dto.TransactionFilterRequest;
+import com.bingbank.cardsservice.model.CreditCardTransaction;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Criteria-based filter query. Only supplied filters become predicates and
+ * the ORDER BY names real columns, replacing the catch-all
+ * "(:param IS NULL OR ...)" / "CASE WHEN :sortBy ..." query.
+ */
+public class CreditCardTransactionRepositoryCustomImpl implements CreditCardTransactionRepositoryCustom {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<CreditCardTransaction> findFilteredTransactions(TransactionFilterRequest filter, int maxResults) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<CreditCardTransaction> query = cb.createQuery(CreditCardTransaction.class);
+        Root<CreditCardTransaction> t = query.from(CreditCardTransaction.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(t.get("cardId"), filter.getCardId()));
+
+        if (filter.getStartDate() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(t.get("transactionDate"), filter.getStartDate()));
+        }
+        if (filter.getEndDate() != null) {
+            predicates.add(cb.lessThanOrEqualTo(t.get("transactionDate"), filter.getEndDate()));
+        }
+        if (filter.getMinAmount() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(t.get("amount"), filter.getMinAmount()));
+        }
+        if (filter.getMaxAmount() != null) {
+            predicates.add(cb.lessThanOrEqualTo(t.get("amount"), filter.getMaxAmount()));
+        }
+        if (hasText(filter.getCategory())) {
+            predicates.add(cb.equal(t.get("category"), filter.getCategory()));
+        }
+        if (hasText(filter.getMerchantName())) {
+            // Same expression as idx_cc_txn_card_merchant_trgm (db/dba/merchant_search_index.sql), so the trigram index applies
+            predicates.add(cb.like(cb.lower(t.get("merchantName")),
+                    "%" + escapeLike(filter.getMerchantName().trim().toLowerCase()) + "%", LIKE_ESCAPE));
+        }
+        if (hasText(filter.getTransactionType())) {
+            predicates.add(cb.equal(t.get("transactionType"), filter.getTransactionType()));
+        }
+
+        query.select(t)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(orderBy(cb, t, filter));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(maxResults)
+                .getResultList();
+    }
+
+    /**
+     * ORDER BY amount, merchant or date (default, newest first),
+     * with date/time/id as tie-breakers
+     */
+    private List<Order> orderBy(CriteriaBuilder cb, Root<CreditCardTransaction> t, TransactionFilterRequest filter) {
+        List<Order> orders = new ArrayList<>();
+        boolean ascending = "asc".equalsIgnoreCase(filter.getSortDirection());
+
+        if ("amount".equals(filter.getSortBy())) {
+            orders.add(ascending ? cb.asc(t.get("amount")) : cb.desc(t.get("amount")));
+        } else if ("merchant".equals(filter.getSortBy())) {
+            orders.add(ascending ? cb.asc(t.get("merchantName")) : cb.desc(t.get("merchantName")));
+        } else if (ascending) {
+            orders.add(cb.asc(t.get("transactionDate")));
+            orders.add(cb.asc(t.get("transactionTime")));
+            orders.add(cb.asc(t.get("transactionId")));
+            return orders;
+        }
+
+        orders.add(cb.desc(t.get("transactionDate")));
+        orders.add(cb.desc(t.get("transactionTime")));
+        orders.add(cb.desc(t.get("transactionId")));
+        return orders;
+    }
+
+    /**
+     * Treat user input literally: % and _ are not wildcards
+     */
+    private static String escapeLike(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+}
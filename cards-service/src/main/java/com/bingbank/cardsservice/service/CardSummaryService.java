@@ -0,0 +1,205 @@
+package com.bingbank.cardsservice.service;
+
+import com.bingbank.cardsservice.dto.CardMonthlySummaryDTO;
+import com.bingbank.cardsservice.dto.CreditCardDTO;
+import com.bingbank.cardsservice.model.CardMonthlySummary;
+import com.bingbank.cardsservice.repository.CardMonthlySummaryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Serves month totals from the card_monthly_summary rollup, so statements and
+ * month views do not re-sum raw transactions.
+ *
+ * The rollup is kept by an AFTER INSERT/UPDATE/DELETE trigger on
+ * credit_card_transactions, so every writer (authorizations, bill payments,
+ * manual fixes in SQL) is counted in the same DB transaction. The trigger is
+ * installed at startup and stays the source of truth. The first install and
+ * the periodic reconciliation walk the cards in id ranges, one short DB
+ * transaction each, and add only the differences between the raw
+ * transactions and the rollup. Nothing locks credit_card_transactions, so
+ * card writes carry on while it runs. Instances serialize on an advisory lock.
+ */
+@Service
+public class CardSummaryService {
+
+    // pg_advisory_xact_lock key for installing the trigger and reconciling
+    private static final long ROLLUP_LOCK_KEY = 0x63617264_73756d6dL;
+
+    private static final String TRIGGER = "trg_card_monthly_summary";
+
+    private static final String TRIGGER_FUNCTION =
+            "CREATE OR REPLACE FUNCTION card_monthly_summary_apply() RETURNS trigger AS $$ " +
+            "BEGIN " +
+            "  IF TG_OP IN ('UPDATE', 'DELETE') THEN " +
+            "    UPDATE card_monthly_summary SET " +
+            "      total_amount = total_amount - OLD.amount, " +
+            "      transaction_count = transaction_count - 1, " +
+            "      updated_at = now() " +
+            "    WHERE card_id = OLD.card_id " +
+            "      AND period_start = CAST(date_trunc('month', OLD.transaction_date) AS date) " +
+            "      AND transaction_type = OLD.transaction_type " +
+            "      AND category = COALESCE(NULLIF(btrim(OLD.category), ''), 'Uncategorized'); " +
+            "  END IF; " +
+            "  IF TG_OP IN ('INSERT', 'UPDATE') THEN " +
+            "    INSERT INTO card_monthly_summary " +
+            "      (card_id, period_start, transaction_type, category, total_amount, transaction_count, updated_at) " +
+            "    VALUES (NEW.card_id, CAST(date_trunc('month', NEW.transaction_date) AS date), NEW.transaction_type, " +
+            "      COALESCE(NULLIF(btrim(NEW.category), ''), 'Uncategorized'), NEW.amount, 1, now()) " +
+            "    ON CONFLICT (card_id, period_start, transaction_type, category) DO UPDATE SET " +
+            "      total_amount = card_monthly_summary.total_amount + EXCLUDED.total_amount, " +
+            "      transaction_count = card_monthly_summary.transaction_count + 1, " +
+            "      updated_at = now(); " +
+            "  END IF; " +
+            "  RETURN NULL; " +
+            "END $$ LANGUAGE plpgsql";
+
+    @Autowired
+    private CardMonthlySummaryRepository summaryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.cards.summary.reconcile-batch-size:500}")
+    private int reconcileBatchSize;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public CardSummaryService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Totals for one card and month (a handful of rows, independent of transaction volume)
+     */
+    public CardMonthlySummaryDTO getMonthlySummary(Long cardId, int year, int month) {
+        List<CardMonthlySummary> rows =
+                summaryRepository.findByCardIdAndPeriodStart(cardId, LocalDate.of(year, month, 1));
+
+        BigDecimal purchases = BigDecimal.ZERO;
+        BigDecimal payments = BigDecimal.ZERO;
+        BigDecimal refunds = BigDecimal.ZERO;
+        long count = 0;
+        Map<String, BigDecimal> byCategory = new TreeMap<>();
+
+        for (CardMonthlySummary row : rows) {
+            count += row.getTransactionCount();
+            switch (row.getTransactionType()) {
+                case "PURCHASE":
+                    purchases = purchases.add(row.getTotalAmount());
+                    byCategory.merge(row.getCategory(), row.getTotalAmount(), BigDecimal::add);
+                    break;
+                case "PAYMENT":
+                    payments = payments.add(row.getTotalAmount());
+                    break;
+                case "REFUND":
+                    refunds = refunds.add(row.getTotalAmount());
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        CardMonthlySummaryDTO dto = new CardMonthlySummaryDTO();
+        dto.setCardId(cardId);
+        dto.setYear(year);
+        dto.setMonth(month);
+        dto.setTotalPurchases(purchases);
+        dto.setTotalPayments(payments);
+        dto.setTotalRefunds(refunds);
+        dto.setTransactionCount(count);
+        dto.setPurchasesByCategory(byCategory);
+        return dto;
+    }
+
+    /**
+     * Set a card's outstanding balance and available credit to what they were at
+     * the end of the given month, so a closed month's statement does not move with
+     * later activity. PAYMENT and REFUND rows reduce the balance, PURCHASE rows add to it.
+     */
+    public void applyMonthEndBalances(CreditCardDTO card, int year, int month) {
+        List<Object[]> balances = summaryRepository.findMonthEndBalances(card.getCardId(), LocalDate.of(year, month, 1));
+        if (balances.isEmpty()) {
+            throw new RuntimeException("Credit card not found");
+        }
+        card.setOutstandingBalance((BigDecimal) balances.get(0)[0]);
+        card.setAvailableCredit((BigDecimal) balances.get(0)[1]);
+    }
+
+    /**
+     * Install the trigger; the first install (or an empty rollup) also fills it
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void installTrigger() {
+        Boolean fill = transactionTemplate.execute(status -> {
+            jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(?)", ROLLUP_LOCK_KEY);
+
+            Boolean installed = jdbcTemplate.queryForObject(
+                    "SELECT EXISTS (SELECT 1 FROM pg_trigger WHERE tgname = ? AND NOT tgisinternal)",
+                    Boolean.class, TRIGGER);
+            jdbcTemplate.execute(TRIGGER_FUNCTION);
+            if (Boolean.TRUE.equals(installed)) {
+                return summaryRepository.count() == 0;
+            }
+
+            // Waits for in-flight writes only; rows committed before this are picked up by the fill below
+            jdbcTemplate.execute("CREATE TRIGGER " + TRIGGER +
+                    " AFTER INSERT OR DELETE OR UPDATE OF card_id, transaction_date, transaction_type, category, amount" +
+                    " ON credit_card_transactions FOR EACH ROW EXECUTE FUNCTION card_monthly_summary_apply()");
+            System.out.println("CardSummaryService: Installed " + TRIGGER);
+            return true;
+        });
+
+        if (Boolean.TRUE.equals(fill)) {
+            reconcile();
+        }
+    }
+
+    /**
+     * Repair drift between the rollup and the raw transactions (e.g. rows
+     * changed while the trigger was disabled), one range of cards at a time
+     */
+    @Scheduled(cron = "${app.cards.summary.reconcile-cron:0 30 3 * * SUN}")
+    public void reconcile() {
+        long start = System.currentTimeMillis();
+        long afterCardId = 0;
+        int repaired = 0;
+
+        while (true) {
+            long from = afterCardId;
+            // Last card of this range; the final range is open-ended so rollup rows of deleted cards are covered too
+            List<Long> last = jdbcTemplate.queryForList(
+                    "SELECT card_id FROM credit_cards WHERE card_id > ? ORDER BY card_id OFFSET ? LIMIT 1",
+                    Long.class, from, reconcileBatchSize - 1);
+            long lastCardId = last.isEmpty() ? Long.MAX_VALUE : last.get(0);
+
+            Integer rows = transactionTemplate.execute(status -> {
+                // Two reconcilers must not add the same difference twice
+                jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(?)", ROLLUP_LOCK_KEY);
+                return summaryRepository.applyDrift(from, lastCardId);
+            });
+            repaired += rows != null ? rows : 0;
+
+            if (lastCardId == Long.MAX_VALUE) {
+                break;
+            }
+            afterCardId = lastCardId;
+        }
+
+        System.out.println("CardSummaryService: Reconciled monthly summary, " + repaired + " rows corrected in "
+                + (System.currentTimeMillis() - start) + " ms");
+    }
+}
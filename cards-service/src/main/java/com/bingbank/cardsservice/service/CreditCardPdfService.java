@@ -1,12 +1,13 @@
 package com.bingbank.cardsservice.service;
 
+import com.bingbank.cardsservice.dto.CardMonthlySummaryDTO;
 import com.bingbank.cardsservice.dto.CreditCardDTO;
 import com.bingbank.cardsservice.dto.CreditCardTransactionDTO;
 import com.itextpdf.text.*;
 import com.itextpdf.text.pdf.PdfPCell;
 import com.itextpdf.text.pdf.PdfPTable;
 import com.itextpdf.text.pdf.PdfWriter;
-import org.springframework.core.io.ClassPathResource;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.io.ByteArrayOutputStream;
@@ -24,12 +25,16 @@ public class CreditCardPdfService {
     private static final Font NORMAL_FONT = new Font(Font.FontFamily.HELVETICA, 10, Font.NORMAL, BaseColor.BLACK);
     private static final Font SMALL_FONT = new Font(Font.FontFamily.HELVETICA, 8, Font.NORMAL, BaseColor.GRAY);
 
+    @Autowired
+    private StatementResources statementResources;
+
     /**
      * Generate credit card statement PDF
      */
     public byte[] generateCreditCardStatement(
             CreditCardDTO creditCard,
             List<CreditCardTransactionDTO> transactions,
+            CardMonthlySummaryDTO summary,
             int year,
             int month) throws DocumentException, IOException {
 
@@ -75,7 +80,7 @@ public class CreditCardPdfService {
             document.add(new Paragraph("\n"));
 
             // Add account summary
-            addAccountSummary(document, creditCard, transactions);
+            addAccountSummary(document, creditCard, summary);
 
             document.add(new Paragraph("\n"));
 
@@ -106,21 +111,14 @@ public class CreditCardPdfService {
     /**
      * Add logo only (no bank name text)
      */
-    private void addLogoAndHeader(Document document) throws DocumentException, IOException {
-        try {
-            // Load logo
-            ClassPathResource resource = new ClassPathResource("static/logo.png");
-            Image logo = Image.getInstance(resource.getURL());
-            
-            // Scale logo to appropriate size
-            logo.scaleToFit(120, 120);
-            logo.setAlignment(Element.ALIGN_CENTER);
-            
+    private void addLogoAndHeader(Document document) throws DocumentException {
+        // Logo is decoded once at startup and copied per document
+        Image logo = statementResources.getLogo();
+        
+        if (logo != null) {
             document.add(logo);
             document.add(new Paragraph("\n")); // Add spacing after logo
-            
-        } catch (Exception e) {
-            System.err.println("Could not load logo: " + e.getMessage());
+        } else {
             // If logo fails, add text header as fallback
             Paragraph bankName = new Paragraph("BingBank", TITLE_FONT);
             bankName.setAlignment(Element.ALIGN_CENTER);
@@ -156,7 +154,7 @@ public class CreditCardPdfService {
      * Add account summary
      */
     private void addAccountSummary(Document document, CreditCardDTO creditCard, 
-                                   List<CreditCardTransactionDTO> transactions) throws DocumentException {
+                                   CardMonthlySummaryDTO summary) throws DocumentException {
         PdfPTable table = new PdfPTable(2);
         table.setWidthPercentage(100);
         table.setSpacingBefore(10);
@@ -169,16 +167,9 @@ public class CreditCardPdfService {
         headerCell.setPadding(8);
         table.addCell(headerCell);
 
-        // Calculate totals
-        BigDecimal totalPurchases = transactions.stream()
-                .filter(t -> "PURCHASE".equals(t.getTransactionType()))
-                .map(CreditCardTransactionDTO::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal totalPayments = transactions.stream()
-                .filter(t -> "PAYMENT".equals(t.getTransactionType()))
-                .map(CreditCardTransactionDTO::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        // Totals come from the monthly rollup
+        BigDecimal totalPurchases = summary.getTotalPurchases();
+        BigDecimal totalPayments = summary.getTotalPayments();
 
         // Summary details
         addDetailRow(table, "Previous Balance:", "$" + creditCard.getOutstandingBalance().add(totalPayments).subtract(totalPurchases).toString());
@@ -330,10 +321,7 @@ public class CreditCardPdfService {
     }
 
     private void addTableCell(PdfPTable table, String text, BaseColor color) {
-        Font font = new Font(NORMAL_FONT);
-        font.setColor(color);
-        
-        PdfPCell cell = new PdfPCell(new Phrase(text, font));
+        PdfPCell cell = new PdfPCell(new Phrase(text, statementResources.cellFont(color)));
         cell.setHorizontalAlignment(Element.ALIGN_CENTER);
         cell.setPadding(5);
         table.addCell(cell);
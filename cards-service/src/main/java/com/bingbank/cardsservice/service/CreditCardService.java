@@ -1,24 +1,23 @@
 package com.bingbank.cardsservice.service;
 
+import com.bingbank.cardsservice.client.AccountServiceClient;
 import com.bingbank.cardsservice.dto.*;
 import com.bingbank.cardsservice.model.CreditCard;
 import com.bingbank.cardsservice.model.CreditCardTransaction;
 import com.bingbank.cardsservice.repository.CreditCardRepository;
 import com.bingbank.cardsservice.repository.CreditCardTransactionRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.client.HttpClientErrorException;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -27,6 +26,8 @@ import java.util.stream.Collectors;
 @Service
 public class CreditCardService {
 
+    private static final String CARD_PAYMENT_COUNTERPARTY = "CREDIT_CARD_PAYMENT";
+
     @Autowired
     private CreditCardRepository creditCardRepository;
 
@@ -34,7 +35,13 @@ public class CreditCardService {
     private CreditCardTransactionRepository transactionRepository;
 
     @Autowired
-    private RestTemplate restTemplate;
+    private AccountServiceClient accountServiceClient;
+
+    @Value("${app.cards.filter.max-results:500}")
+    private int maxFilterResults;
+
+    @Value("${app.cards.search.max-results:50}")
+    private int maxSearchResults;
 
     /**
      * Get credit card by customer ID
@@ -73,31 +80,62 @@ public class CreditCardService {
     public List<CreditCardTransactionDTO> getFilteredTransactions(TransactionFilterRequest request) {
         System.out.println("CreditCardService: Fetching filtered transactions for card: " + request.getCardId());
         
-        List<CreditCardTransaction> transactions = transactionRepository.findFilteredTransactions(
-                request.getCardId(),
-                request.getStartDate(),
-                request.getEndDate(),
-                request.getMinAmount(),
-                request.getMaxAmount(),
-                request.getCategory(),
-                request.getMerchantName(),
-                request.getTransactionType(),
-                request.getSortBy(),
-                request.getSortDirection()
-        );
-        
-        // Apply limit if specified
-        if (request.getLimit() != null && request.getLimit() > 0) {
-            transactions = transactions.stream()
-                    .limit(request.getLimit())
-                    .collect(Collectors.toList());
-        }
+        // Limit is applied in SQL and capped by the server-side maximum
+        int limit = request.getLimit() != null && request.getLimit() > 0
+                ? Math.min(request.getLimit(), maxFilterResults)
+                : maxFilterResults;
+        List<CreditCardTransaction> transactions = transactionRepository.findFilteredTransactions(request, limit);
         
         return transactions.stream()
                 .map(this::mapTransactionToDTO)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Search a card's transactions by merchant name (case-insensitive substring)
+     * Served by the trigram index on merchant_name, newest first
+     */
+    public List<CreditCardTransactionDTO> searchByMerchant(Long cardId, String merchant, Integer limit) {
+        System.out.println("CreditCardService: Searching merchants matching '" + merchant + "' for card: " + cardId);
+        
+        if (merchant == null || merchant.isBlank()) {
+            throw new RuntimeException("Merchant search term is required");
+        }
+        
+        TransactionFilterRequest filter = new TransactionFilterRequest();
+        filter.setCardId(cardId);
+        filter.setMerchantName(merchant);
+        
+        int maxResults = limit != null && limit > 0 ? Math.min(limit, maxSearchResults) : maxSearchResults;
+        return transactionRepository.findFilteredTransactions(filter, maxResults).stream()
+                .map(this::mapTransactionToDTO)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Version of everything a monthly statement shows: the month's transactions
+     * (last id and count) and, for the current month only, the card itself
+     * (balances, due date, last update). A closed month is rendered from its
+     * month-end figures, so only a late transaction in that month changes it.
+     */
+    public String getStatementVersion(CreditCard card, int year, int month) {
+        LocalDate startDate = LocalDate.of(year, month, 1);
+        LocalDate endDate = startDate.plusMonths(1).minusDays(1);
+        
+        Object[] version = transactionRepository.findStatementVersion(card.getCardId(), startDate, endDate).get(0);
+        if (isClosedMonth(year, month)) {
+            return version[0] + ":" + version[1];
+        }
+        return version[0] + ":" + version[1] + ":" + card.getUpdatedAt();
+    }
+
+    /**
+     * True once the month has ended
+     */
+    public static boolean isClosedMonth(int year, int month) {
+        return YearMonth.of(year, month).isBefore(YearMonth.now());
+    }
+
     /**
      * Get transactions for a specific month
      */
@@ -150,15 +188,18 @@ public class CreditCardService {
             throw new RuntimeException("Insufficient balance in account");
         }
         
+        // Update credit card balances first (relative update, purchases may be authorized concurrently);
+        // a failed debit below rolls it back
+        if (creditCardRepository.applyPayment(card.getCardId(), request.getAmount()) == 0) {
+            throw new RuntimeException("Payment amount cannot exceed outstanding balance");
+        }
+        
         // Debit from account
         debitFromAccount(request.getAccountNumber(), request.getAmount(), 
                 "Credit Card Payment - Card ending " + card.getCardNumber().substring(12), authHeader);
         
-        // Update credit card balances
-        card.setOutstandingBalance(card.getOutstandingBalance().subtract(request.getAmount()));
-        card.setAvailableCredit(card.getAvailableCredit().add(request.getAmount()));
-        
-        CreditCard updatedCard = creditCardRepository.save(card);
+        CreditCard updatedCard = creditCardRepository.findById(card.getCardId())
+                .orElseThrow(() -> new RuntimeException("Credit card not found"));
         
         // Create payment transaction
         CreditCardTransaction payment = new CreditCardTransaction();
@@ -173,10 +214,6 @@ public class CreditCardService {
         payment.setStatus("COMPLETED");
         transactionRepository.save(payment);
         
-        // Create account transaction
-        createAccountTransaction(request.getAccountNumber(), request.getAmount(), "DEBIT",
-                "Credit Card Payment - Card ending " + card.getCardNumber().substring(12), authHeader);
-        
         System.out.println("CreditCardService: Bill payment completed successfully");
         
         return mapToDTO(updatedCard);
@@ -189,7 +226,8 @@ public class CreditCardService {
     public CreditCardDTO deactivateCard(DeactivateCardRequest request, String authHeader) {
         System.out.println("CreditCardService: Deactivating card: " + request.getCardId());
         
-        CreditCard card = creditCardRepository.findById(request.getCardId())
+        // Locked so no authorization can post a purchase between the balance check and the update
+        CreditCard card = creditCardRepository.findByIdForUpdate(request.getCardId())
                 .orElseThrow(() -> new RuntimeException("Credit card not found"));
         
         // Verify ownership
@@ -207,10 +245,10 @@ public class CreditCardService {
             throw new RuntimeException("Cannot deactivate card with outstanding balance");
         }
         
-        // Deactivate card
-        card.setCardStatus("INACTIVE");
-        
-        CreditCard updatedCard = creditCardRepository.save(card);
+        // Deactivate card (status only, balances are moved by relative updates)
+        creditCardRepository.updateCardStatus(card.getCardId(), "INACTIVE");
+        CreditCard updatedCard = creditCardRepository.findById(card.getCardId())
+                .orElseThrow(() -> new RuntimeException("Credit card not found"));
         System.out.println("CreditCardService: Card deactivated successfully");
         
         return mapToDTO(updatedCard);
@@ -220,23 +258,20 @@ public class CreditCardService {
      * Verify account balance
      */
     private boolean verifyAccountBalance(String accountNumber, BigDecimal amount, String authHeader) {
+        Map<String, Object> account;
         try {
-            String url = "http://localhost:8082/api/accounts/" + accountNumber;
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("Authorization", authHeader);
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-            
-            ResponseEntity<Map> response = restTemplate.exchange(url, HttpMethod.GET, entity, Map.class);
-            
-            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                Object balanceObj = response.getBody().get("balance");
-                BigDecimal balance = new BigDecimal(balanceObj.toString());
-                return balance.compareTo(amount) >= 0;
-            }
-        } catch (Exception e) {
+            account = accountServiceClient.getAccount(accountNumber, authHeader);
+        } catch (HttpClientErrorException e) {
             System.err.println("Error verifying account balance: " + e.getMessage());
+            return false;
+        }
+
+        Object balanceObj = account.get("balance");
+        if (balanceObj == null) {
+            return false;
         }
-        return false;
+        BigDecimal balance = new BigDecimal(balanceObj.toString());
+        return balance.compareTo(amount) >= 0;
     }
 
     /**
@@ -244,18 +279,8 @@ public class CreditCardService {
      */
     private void debitFromAccount(String accountNumber, BigDecimal amount, String description, String authHeader) {
         try {
-            String url = "http://localhost:8082/api/accounts/" + accountNumber + "/debit";
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("Authorization", authHeader);
-            headers.set("Content-Type", "application/json");
-            
-            Map<String, Object> request = new HashMap<>();
-            request.put("amount", amount);
-            request.put("description", description);
-            
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(request, headers);
-            restTemplate.exchange(url, HttpMethod.POST, entity, Map.class);
-            
+            accountServiceClient.debit(accountNumber, amount, description,
+                    accountNumber, CARD_PAYMENT_COUNTERPARTY, authHeader);
             System.out.println("Debited $" + amount + " from account: " + accountNumber);
         } catch (Exception e) {
             System.err.println("Error debiting from account: " + e.getMessage());
@@ -263,34 +288,6 @@ public class CreditCardService {
         }
     }
 
-    /**
-     * Create account transaction
-     */
-    private void createAccountTransaction(String accountNumber, BigDecimal amount, String type,
-                                          String description, String authHeader) {
-        try {
-            String url = "http://localhost:8083/api/transactions/create";
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("Authorization", authHeader);
-            headers.set("Content-Type", "application/json");
-            
-            Map<String, Object> request = new HashMap<>();
-            request.put("accountNumber", accountNumber);
-            request.put("amount", amount);
-            request.put("transactionType", type);
-            request.put("sourceAccountNumber", accountNumber);
-            request.put("targetAccountNumber", "CREDIT_CARD_PAYMENT");
-            request.put("description", description);
-            
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(request, headers);
-            restTemplate.exchange(url, HttpMethod.POST, entity, Map.class);
-            
-            System.out.println("Created " + type + " transaction for account: " + accountNumber);
-        } catch (Exception e) {
-            System.err.println("Error creating transaction: " + e.getMessage());
-        }
-    }
-
     /**
      * Map entity to DTO
      */
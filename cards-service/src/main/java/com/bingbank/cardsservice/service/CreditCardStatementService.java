@@ -0,0 +1,118 @@
+package com.bingbank.cardsservice.service;
+
+import com.bingbank.cardsservice.dto.CardMonthlySummaryDTO;
+import com.bingbank.cardsservice.dto.CreditCardDTO;
+import com.bingbank.cardsservice.dto.CreditCardStatementRow;
+import com.bingbank.cardsservice.dto.CreditCardTransactionDTO;
+import com.bingbank.cardsservice.model.CreditCard;
+import com.bingbank.cardsservice.repository.CreditCardRepository;
+import com.itextpdf.text.DocumentException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Renders monthly credit card statements through the StatementCache.
+ * Used by the synchronous download endpoint and by StatementJobService workers.
+ */
+@Service
+public class CreditCardStatementService {
+
+    @Autowired
+    private CreditCardRepository creditCardRepository;
+
+    @Autowired
+    private CreditCardService creditCardService;
+
+    @Autowired
+    private CardSummaryService cardSummaryService;
+
+    @Autowired
+    private CreditCardPdfService pdfService;
+
+    @Autowired
+    private StatementCache statementCache;
+
+    /**
+     * ETag of the current version of a statement
+     */
+    public String getStatementETag(Long cardId, int year, int month) {
+        CreditCard card = creditCardRepository.findById(cardId)
+                .orElseThrow(() -> new RuntimeException("Credit card not found"));
+        return statementCache.etag(cardId, year, month, creditCardService.getStatementVersion(card, year, month));
+    }
+
+    /**
+     * Statement PDF for the given version, rendered only on a cache miss
+     */
+    public byte[] getStatement(Long cardId, int year, int month, String etag) throws DocumentException, IOException {
+        byte[] pdfBytes = statementCache.get(cardId, year, month, etag);
+        if (pdfBytes != null) {
+            System.out.println("CreditCardStatementService: Serving cached statement for card " + cardId
+                    + ", " + year + "-" + month);
+            return pdfBytes;
+        }
+
+        // Card details and monthly transactions in one query
+        LocalDate startDate = LocalDate.of(year, month, 1);
+        List<CreditCardStatementRow> rows = creditCardRepository.findStatementRows(
+                cardId, startDate, startDate.plusMonths(1).minusDays(1));
+        if (rows.isEmpty()) {
+            throw new RuntimeException("Credit card not found");
+        }
+
+        CreditCardDTO creditCard = toCardDTO(rows.get(0));
+        if (CreditCardService.isClosedMonth(year, month)) {
+            // Balances as of month end, not today's, matching the version the cache is keyed on
+            cardSummaryService.applyMonthEndBalances(creditCard, year, month);
+        }
+        List<CreditCardTransactionDTO> transactions = new ArrayList<>(rows.size());
+        for (CreditCardStatementRow row : rows) {
+            if (row.getTransactionId() != null) {
+                transactions.add(toTransactionDTO(row));
+            }
+        }
+
+        // Month totals from the rollup
+        CardMonthlySummaryDTO summary = cardSummaryService.getMonthlySummary(cardId, year, month);
+
+        pdfBytes = pdfService.generateCreditCardStatement(creditCard, transactions, summary, year, month);
+        statementCache.put(cardId, year, month, etag, pdfBytes);
+        return pdfBytes;
+    }
+
+    private CreditCardDTO toCardDTO(CreditCardStatementRow row) {
+        CreditCardDTO dto = new CreditCardDTO();
+        dto.setCardId(row.getCardId());
+        dto.setCardholderName(row.getCardholderName());
+        dto.setCardNumber(row.getCardNumber());
+        dto.setAccountNumber(row.getAccountNumber());
+        dto.setCreditLimit(row.getCreditLimit());
+        dto.setAvailableCredit(row.getAvailableCredit());
+        dto.setOutstandingBalance(row.getOutstandingBalance());
+        dto.setPaymentDueDate(row.getPaymentDueDate());
+        return dto;
+    }
+
+    private CreditCardTransactionDTO toTransactionDTO(CreditCardStatementRow row) {
+        CreditCardTransactionDTO dto = new CreditCardTransactionDTO();
+        dto.setTransactionId(row.getTransactionId());
+        dto.setCardId(row.getCardId());
+        dto.setTransactionDate(row.getTransactionDate());
+        dto.setTransactionTime(row.getTransactionTime());
+        dto.setMerchantName(row.getMerchantName());
+        dto.setCategory(row.getCategory());
+        dto.setAmount(row.getAmount());
+        dto.setTransactionType(row.getTransactionType());
+        dto.setStatus(row.getStatus());
+        return dto;
+    }
+
+    public static String statementFilename(int year, int month) {
+        return "credit_card_statement_" + year + "_" + String.format("%02d", month) + ".pdf";
+    }
+}
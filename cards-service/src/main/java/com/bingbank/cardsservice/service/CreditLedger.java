@@ -0,0 +1,459 @@
+package com.bingbank.cardsservice.service;
+
+import com.bingbank.cardsservice.dto.AuthorizationResultDTO;
+import com.bingbank.cardsservice.model.CreditCardTransaction;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Purchase authorization against credit_cards.available_credit.
+ *
+ * Requests are spread over shards by card id. Each shard has a bounded queue
+ * and one worker thread that takes the waiting requests (up to a batch) and
+ * decides them in a single database transaction: the cards involved are
+ * locked with SELECT ... FOR UPDATE, each request is checked in arrival order
+ * against the locked balance, approved purchases are inserted into
+ * credit_card_transactions and the balances are moved with a guarded relative
+ * UPDATE. The caller gets its answer only after that transaction committed,
+ * so an approval is never lost on a crash, and the row lock serialises
+ * authorizations from every cards-service instance with bill payments and
+ * deactivations. Batching keeps the database cost per authorization low.
+ *
+ * If a batch fails, its requests are retried one at a time so a request that
+ * cannot be written fails on its own and the shard moves on. A full queue, or
+ * a caller that stops waiting before its request was picked up, gets
+ * SYSTEM_BUSY; nothing is stored for it.
+ */
+@Service
+public class CreditLedger {
+
+    public static final String INSUFFICIENT_CREDIT = "INSUFFICIENT_CREDIT";
+    public static final String CARD_INACTIVE = "CARD_INACTIVE";
+    public static final String CARD_EXPIRED = "CARD_EXPIRED";
+    public static final String SYSTEM_BUSY = "SYSTEM_BUSY";
+
+    private static final String LOCK_CARDS =
+            "SELECT card_id, customer_id, card_number, available_credit, card_status, expiry_date " +
+            "FROM credit_cards WHERE card_id IN (%s) ORDER BY card_id FOR UPDATE";
+
+    private static final String INSERT_PURCHASE =
+            "INSERT INTO credit_card_transactions (card_id, card_number, transaction_date, transaction_time, " +
+            "merchant_name, category, amount, transaction_type, status, authorization_id, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, 'PURCHASE', 'COMPLETED', ?, now())";
+
+    private static final String APPLY_PURCHASES =
+            "UPDATE credit_cards SET available_credit = available_credit - ?, " +
+            "outstanding_balance = outstanding_balance + ?, updated_at = now() " +
+            "WHERE card_id = ? AND available_credit >= ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+    private final Shard[] shards;
+    private final int batchSize;
+    private final long waitMillis;
+    private final List<Thread> workers = new ArrayList<>();
+    private final Map<String, Counter> outcomes = new HashMap<>();
+    private volatile boolean running = true;
+
+    public CreditLedger(@Value("${app.cards.authorization.shards:8}") int shardCount,
+                        @Value("${app.cards.authorization.batch-size:500}") int batchSize,
+                        @Value("${app.cards.authorization.queue-capacity:5000}") int queueCapacity,
+                        @Value("${app.cards.authorization.wait-millis:2000}") long waitMillis,
+                        PlatformTransactionManager transactionManager,
+                        MeterRegistry meterRegistry) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.waitMillis = waitMillis;
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(queueCapacity);
+        }
+
+        meterRegistry.gauge("cards.authorizations.queued", shards, all -> {
+            long queued = 0;
+            for (Shard shard : all) {
+                queued += shard.queue.size();
+            }
+            return queued;
+        });
+        for (String outcome : List.of("APPROVED", INSUFFICIENT_CREDIT, CARD_INACTIVE, CARD_EXPIRED, SYSTEM_BUSY)) {
+            outcomes.put(outcome, meterRegistry.counter("cards.authorizations", "result", outcome));
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger counter = new AtomicInteger();
+        for (Shard shard : shards) {
+            Thread worker = new Thread(() -> run(shard), "credit-ledger-" + counter.incrementAndGet());
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+        System.out.println("CreditLedger: Started with " + shards.length + " shards, batches of up to " + batchSize);
+    }
+
+    /**
+     * Approve or decline a purchase against the card's available credit. An
+     * approval has been committed when this returns.
+     * Throws if the card does not exist, belongs to another customer or the
+     * amount has more than 2 decimals.
+     */
+    public AuthorizationResultDTO authorize(Long cardId, Long customerId, BigDecimal amount,
+                                            String merchantName, String category) {
+        long amountCents = toCents(amount);
+        if (amountCents <= 0) {
+            throw new RuntimeException("Amount must be greater than zero");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        PendingAuthorization request = new PendingAuthorization(UUID.randomUUID().toString(), cardId, customerId,
+                amountCents, merchantName, category, now.toLocalDate(), now.toLocalTime());
+        if (!running || !shardOf(cardId).queue.offer(request)) {
+            return busy(cardId, amount);
+        }
+
+        try {
+            try {
+                return request.result.get(waitMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (request.cancel()) {
+                    return busy(cardId, amount);
+                }
+                // Already in a batch: its commit decides the outcome
+                return request.result.get();
+            }
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new RuntimeException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (request.cancel()) {
+                return busy(cardId, amount);
+            }
+            throw new RuntimeException("Interrupted while authorization " + request.authorizationId + " was written");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Workers finish what is already queued; new requests get SYSTEM_BUSY
+        running = false;
+        for (Thread worker : workers) {
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void run(Shard shard) {
+        List<PendingAuthorization> batch = new ArrayList<>(batchSize);
+        while (running || !shard.queue.isEmpty()) {
+            try {
+                PendingAuthorization first = shard.queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                shard.queue.drainTo(batch, batchSize - 1);
+                batch.removeIf(request -> !request.claim());
+                if (!batch.isEmpty()) {
+                    process(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                System.err.println("CreditLedger: Worker error - " + e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Write a batch in one transaction; on failure write each request on its
+     * own so one bad request cannot hold up the others
+     */
+    private void process(List<PendingAuthorization> batch) {
+        try {
+            complete(write(batch));
+        } catch (Exception e) {
+            if (batch.size() > 1) {
+                System.err.println("CreditLedger: Batch of " + batch.size() + " failed, writing one by one - "
+                        + e.getMessage());
+                for (PendingAuthorization request : batch) {
+                    process(List.of(request));
+                }
+                return;
+            }
+            PendingAuthorization request = batch.get(0);
+            System.err.println("CreditLedger: Authorization " + request.authorizationId + " for card "
+                    + request.cardId + " failed - " + e.getMessage());
+            request.result.completeExceptionally(new RuntimeException("Authorization could not be recorded"));
+        }
+    }
+
+    private List<Decision> write(List<PendingAuthorization> batch) {
+        return transactionTemplate.execute(status -> {
+            Map<Long, CardBalance> cards = lockCards(batch);
+            LocalDate today = LocalDate.now();
+
+            List<Decision> decisions = new ArrayList<>(batch.size());
+            List<Object[]> purchases = new ArrayList<>();
+            for (PendingAuthorization request : batch) {
+                CardBalance card = cards.get(request.cardId);
+                if (card == null) {
+                    decisions.add(new Decision(request, null, null, "Credit card not found"));
+                    continue;
+                }
+                if (!card.customerId.equals(request.customerId)) {
+                    decisions.add(new Decision(request, null, null, "Unauthorized to authorize purchases on this card"));
+                    continue;
+                }
+
+                String declineReason = card.reserve(request.amountCents, today);
+                decisions.add(new Decision(request, declineReason, fromCents(card.availableCents), null));
+                if (declineReason == null) {
+                    CreditCardTransaction purchase = request.toTransaction(card.cardNumber);
+                    purchases.add(new Object[] { purchase.getCardId(), purchase.getCardNumber(),
+                            Date.valueOf(purchase.getTransactionDate()), Time.valueOf(purchase.getTransactionTime()),
+                            purchase.getMerchantName(), purchase.getCategory(), purchase.getAmount(),
+                            purchase.getAuthorizationId() });
+                }
+            }
+            if (purchases.isEmpty()) {
+                return decisions;
+            }
+
+            jdbcTemplate.batchUpdate(INSERT_PURCHASE, purchases);
+            for (Map.Entry<Long, CardBalance> entry : cards.entrySet()) {
+                long reserved = entry.getValue().reservedCents();
+                if (reserved == 0) {
+                    continue;
+                }
+                BigDecimal total = fromCents(reserved);
+                // The row is locked, so the guard only trips if the decision above was wrong
+                if (jdbcTemplate.update(APPLY_PURCHASES, total, total, entry.getKey(), total) == 0) {
+                    throw new IllegalStateException("Available credit of card " + entry.getKey()
+                            + " would go below zero");
+                }
+            }
+            return decisions;
+        });
+    }
+
+    private Map<Long, CardBalance> lockCards(List<PendingAuthorization> batch) {
+        // Sorted ids and ORDER BY card_id keep lock order the same across instances
+        TreeSet<Long> cardIds = new TreeSet<>();
+        for (PendingAuthorization request : batch) {
+            cardIds.add(request.cardId);
+        }
+        String sql = String.format(LOCK_CARDS, String.join(",", Collections.nCopies(cardIds.size(), "?")));
+
+        Map<Long, CardBalance> cards = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            cards.put(rs.getLong("card_id"), new CardBalance(rs.getLong("customer_id"), rs.getString("card_number"),
+                    toCents(rs.getBigDecimal("available_credit")), rs.getString("card_status"),
+                    rs.getObject("expiry_date", LocalDate.class)));
+        }, cardIds.toArray());
+        return cards;
+    }
+
+    private void complete(List<Decision> decisions) {
+        for (Decision decision : decisions) {
+            PendingAuthorization request = decision.request;
+            if (decision.error != null) {
+                request.result.completeExceptionally(new RuntimeException(decision.error));
+                continue;
+            }
+            BigDecimal amount = fromCents(request.amountCents);
+            if (decision.declineReason == null) {
+                outcomes.get("APPROVED").increment();
+                request.result.complete(new AuthorizationResultDTO(request.authorizationId, request.cardId, true,
+                        null, amount, decision.availableCredit));
+            } else {
+                outcomes.get(decision.declineReason).increment();
+                request.result.complete(new AuthorizationResultDTO(null, request.cardId, false,
+                        decision.declineReason, amount, decision.availableCredit));
+            }
+        }
+    }
+
+    private AuthorizationResultDTO busy(Long cardId, BigDecimal amount) {
+        outcomes.get(SYSTEM_BUSY).increment();
+        return new AuthorizationResultDTO(null, cardId, false, SYSTEM_BUSY, amount, null);
+    }
+
+    private Shard shardOf(Long cardId) {
+        return shards[(int) Math.floorMod(cardId, (long) shards.length)];
+    }
+
+    private static long toCents(BigDecimal amount) {
+        try {
+            return amount.movePointRight(2).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new RuntimeException("Amount cannot have more than 2 decimal places");
+        }
+    }
+
+    private static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    private static class Shard {
+        final BlockingQueue<PendingAuthorization> queue;
+
+        Shard(int capacity) {
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+    }
+
+    /**
+     * A locked card row while a batch is decided
+     */
+    static class CardBalance {
+        final Long customerId;
+        final String cardNumber;
+        final String status;
+        final LocalDate expiryDate;
+        final long startCents;
+        long availableCents;
+
+        CardBalance(Long customerId, String cardNumber, long availableCents, String status, LocalDate expiryDate) {
+            this.customerId = customerId;
+            this.cardNumber = cardNumber;
+            this.startCents = availableCents;
+            this.availableCents = availableCents;
+            this.status = status;
+            this.expiryDate = expiryDate;
+        }
+
+        /**
+         * Take the amount off the available credit. Returns null when
+         * approved, otherwise the decline reason (the balance is unchanged).
+         */
+        String reserve(long amountCents, LocalDate today) {
+            if (!"ACTIVE".equals(status)) {
+                return CARD_INACTIVE;
+            }
+            if (expiryDate != null && expiryDate.isBefore(today)) {
+                return CARD_EXPIRED;
+            }
+            if (availableCents < amountCents) {
+                return INSUFFICIENT_CREDIT;
+            }
+            availableCents -= amountCents;
+            return null;
+        }
+
+        long reservedCents() {
+            return startCents - availableCents;
+        }
+    }
+
+    static class PendingAuthorization {
+        private static final int NEW = 0;
+        private static final int CLAIMED = 1;
+        private static final int CANCELLED = 2;
+
+        final String authorizationId;
+        final Long cardId;
+        final Long customerId;
+        final long amountCents;
+        final String merchantName;
+        final String category;
+        final LocalDate date;
+        final LocalTime time;
+        final CompletableFuture<AuthorizationResultDTO> result = new CompletableFuture<>();
+        private final AtomicInteger state = new AtomicInteger(NEW);
+
+        PendingAuthorization(String authorizationId, Long cardId, Long customerId, long amountCents,
+                             String merchantName, String category, LocalDate date, LocalTime time) {
+            this.authorizationId = authorizationId;
+            this.cardId = cardId;
+            this.customerId = customerId;
+            this.amountCents = amountCents;
+            this.merchantName = merchantName;
+            this.category = category;
+            this.date = date;
+            this.time = time;
+        }
+
+        /**
+         * Worker side: take the request into a batch unless the caller gave up
+         */
+        boolean claim() {
+            return state.compareAndSet(NEW, CLAIMED);
+        }
+
+        /**
+         * Caller side: give up, only possible before a worker claimed the request
+         */
+        boolean cancel() {
+            return state.compareAndSet(NEW, CANCELLED);
+        }
+
+        CreditCardTransaction toTransaction(String cardNumber) {
+            CreditCardTransaction transaction = new CreditCardTransaction();
+            transaction.setCardId(cardId);
+            transaction.setCardNumber(cardNumber);
+            transaction.setTransactionDate(date);
+            transaction.setTransactionTime(time);
+            transaction.setMerchantName(merchantName);
+            transaction.setCategory(category);
+            transaction.setAmount(fromCents(amountCents));
+            transaction.setTransactionType("PURCHASE");
+            transaction.setStatus("COMPLETED");
+            transaction.setAuthorizationId(authorizationId);
+            return transaction;
+        }
+    }
+
+    private static class Decision {
+        final PendingAuthorization request;
+        final String declineReason;
+        final BigDecimal availableCredit;
+        final String error;
+
+        Decision(PendingAuthorization request, String declineReason, BigDecimal availableCredit, String error) {
+            this.request = request;
+            this.declineReason = declineReason;
+            this.availableCredit = availableCredit;
+            this.error = error;
+        }
+    }
+}
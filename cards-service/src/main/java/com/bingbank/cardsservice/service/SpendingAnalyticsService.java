@@ -0,0 +1,195 @@
+package com.bingbank.cardsservice.service;
+
+import com.bingbank.cardsservice.dto.SpendingAnalyticsDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Purchase analytics for a credit card over a date window.
+ *
+ * Rows are streamed from JDBC straight into primitive column arrays
+ * (epoch day, amount in cents, dictionary-encoded category and merchant ids),
+ * then every breakdown is a single pass over those arrays into long[]
+ * accumulators. BigDecimal is only used for the handful of output values.
+ */
+@Service
+public class SpendingAnalyticsService {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.cards.analytics.default-months:12}")
+    private int defaultMonths;
+
+    @Value("${app.cards.analytics.max-months:36}")
+    private int maxMonths;
+
+    @Value("${app.cards.analytics.top-merchants:10}")
+    private int topMerchants;
+
+    /**
+     * Category, merchant, weekday and month breakdown of purchases
+     */
+    public SpendingAnalyticsDTO getAnalytics(Long cardId, LocalDate startDate, LocalDate endDate) {
+        LocalDate end = endDate != null ? endDate : LocalDate.now();
+        LocalDate start = startDate != null ? startDate : end.minusMonths(defaultMonths).plusDays(1);
+        if (start.isAfter(end)) {
+            throw new RuntimeException("Start date must not be after end date");
+        }
+        if (start.isBefore(end.minusMonths(maxMonths))) {
+            throw new RuntimeException("Analytics window cannot exceed " + maxMonths + " months");
+        }
+
+        System.out.println("SpendingAnalyticsService: Computing analytics for card " + cardId
+                + " from " + start + " to " + end);
+
+        Columns columns = load(cardId, start, end);
+
+        int rows = columns.size;
+        long[] categoryTotals = new long[columns.categories.size()];
+        long[] merchantTotals = new long[columns.merchants.size()];
+        long[] weekdayTotals = new long[7];
+        int firstMonth = monthIndex(start);
+        long[] monthTotals = new long[monthIndex(end) - firstMonth + 1];
+        long total = 0;
+
+        for (int i = 0; i < rows; i++) {
+            long cents = columns.cents[i];
+            long epochDay = columns.epochDays[i];
+            total += cents;
+            categoryTotals[columns.categoryIds[i]] += cents;
+            merchantTotals[columns.merchantIds[i]] += cents;
+            // 1970-01-01 was a Thursday (index 3 with Monday = 0)
+            weekdayTotals[(int) Math.floorMod(epochDay + 3, 7L)] += cents;
+            monthTotals[columns.monthIndexes[i] - firstMonth] += cents;
+        }
+
+        SpendingAnalyticsDTO dto = new SpendingAnalyticsDTO();
+        dto.setCardId(cardId);
+        dto.setStartDate(start);
+        dto.setEndDate(end);
+        dto.setTransactionCount(rows);
+        dto.setTotalSpent(toAmount(total));
+        dto.setByCategory(toMap(columns.categories, categoryTotals, categoryTotals.length));
+        dto.setTopMerchants(toMap(columns.merchants, merchantTotals, topMerchants));
+
+        Map<String, BigDecimal> byWeekday = new LinkedHashMap<>();
+        for (DayOfWeek day : DayOfWeek.values()) {
+            byWeekday.put(day.name(), toAmount(weekdayTotals[day.getValue() - 1]));
+        }
+        dto.setByWeekday(byWeekday);
+
+        Map<String, BigDecimal> byMonth = new LinkedHashMap<>();
+        for (int m = 0; m < monthTotals.length; m++) {
+            int index = firstMonth + m;
+            byMonth.put(String.format("%04d-%02d", index / 12, index % 12 + 1), toAmount(monthTotals[m]));
+        }
+        dto.setByMonth(byMonth);
+        return dto;
+    }
+
+    /**
+     * Stream the window into column arrays. Amounts are converted to cents and
+     * dates to epoch day / month index in SQL, so no per-row BigDecimal or LocalDate is built.
+     */
+    private Columns load(Long cardId, LocalDate start, LocalDate end) {
+        Columns columns = new Columns();
+        jdbcTemplate.query(
+                "SELECT CAST(ROUND(amount * 100) AS bigint) AS cents, " +
+                "transaction_date - DATE '1970-01-01' AS epoch_day, " +
+                "CAST(EXTRACT(YEAR FROM transaction_date) * 12 + EXTRACT(MONTH FROM transaction_date) - 1 AS int) AS month_index, " +
+                "category, merchant_name " +
+                "FROM credit_card_transactions " +
+                "WHERE card_id = ? AND transaction_date BETWEEN ? AND ? AND transaction_type = 'PURCHASE'",
+                rs -> {
+                    columns.add(rs.getLong(1), rs.getLong(2), rs.getInt(3), rs.getString(4), rs.getString(5));
+                },
+                cardId, start, end);
+        return columns;
+    }
+
+    /**
+     * Map dictionary ids to names, highest total first, keeping at most limit entries.
+     * Entries whose purchases net to zero are left out, as in transaction-service's account analytics.
+     */
+    private static Map<String, BigDecimal> toMap(List<String> names, long[] totals, int limit) {
+        Integer[] order = new Integer[totals.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(totals[b], totals[a]));
+
+        Map<String, BigDecimal> result = new LinkedHashMap<>();
+        for (int i = 0; i < order.length && result.size() < limit; i++) {
+            if (totals[order[i]] != 0) {
+                result.put(names.get(order[i]), toAmount(totals[order[i]]));
+            }
+        }
+        return result;
+    }
+
+    private static int monthIndex(LocalDate date) {
+        return date.getYear() * 12 + date.getMonthValue() - 1;
+    }
+
+    private static BigDecimal toAmount(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    /**
+     * Growable primitive columns with dictionary-encoded strings
+     */
+    private static class Columns {
+        long[] cents = new long[1024];
+        long[] epochDays = new long[1024];
+        int[] monthIndexes = new int[1024];
+        int[] categoryIds = new int[1024];
+        int[] merchantIds = new int[1024];
+        int size;
+
+        final List<String> categories = new ArrayList<>();
+        final List<String> merchants = new ArrayList<>();
+        private final Map<String, Integer> categoryIndex = new HashMap<>();
+        private final Map<String, Integer> merchantIndex = new HashMap<>();
+
+        void add(long amountCents, long epochDay, int monthIndex, String category, String merchant) {
+            if (size == cents.length) {
+                int capacity = size * 2;
+                cents = Arrays.copyOf(cents, capacity);
+                epochDays = Arrays.copyOf(epochDays, capacity);
+                monthIndexes = Arrays.copyOf(monthIndexes, capacity);
+                categoryIds = Arrays.copyOf(categoryIds, capacity);
+                merchantIds = Arrays.copyOf(merchantIds, capacity);
+            }
+            cents[size] = amountCents;
+            epochDays[size] = epochDay;
+            monthIndexes[size] = monthIndex;
+            categoryIds[size] = encode(category == null || category.isBlank() ? "Uncategorized" : category,
+                    categoryIndex, categories);
+            merchantIds[size] = encode(merchant, merchantIndex, merchants);
+            size++;
+        }
+
+        private static int encode(String value, Map<String, Integer> index, List<String> names) {
+            Integer id = index.get(value);
+            if (id == null) {
+                id = names.size();
+                index.put(value, id);
+                names.add(value);
+            }
+            return id;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.bingbank.cardsservice.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache of rendered credit card statements.
+ *
+ * Entries are keyed by card, month and a content version (last transaction id,
+ * transaction count and, for the current month, card update time), so a
+ * statement is only re-rendered when something it shows has changed. The version hash doubles as the HTTP ETag.
+ *
+ * Memory tier: LRU bounded by total bytes. Optional disk tier (app.cards.statement-cache.disk-dir)
+ * survives restarts; older versions of the same month are removed when a new one is stored.
+ */
+@Component
+public class StatementCache {
+
+    private final LinkedHashMap<String, byte[]> memory = new LinkedHashMap<>(64, 0.75f, true);
+    private final long maxBytes;
+    private final Path diskDir;
+    private long currentBytes;
+
+    public StatementCache(@Value("${app.cards.statement-cache.max-bytes:67108864}") long maxBytes,
+                          @Value("${app.cards.statement-cache.disk-dir:}") String diskDir) {
+        this.maxBytes = maxBytes;
+        this.diskDir = diskDir == null || diskDir.isBlank() ? null : Paths.get(diskDir);
+        if (this.diskDir != null) {
+            try {
+                Files.createDirectories(this.diskDir);
+            } catch (IOException e) {
+                throw new RuntimeException("Cannot create statement cache directory " + diskDir, e);
+            }
+        }
+        System.out.println("StatementCache: Memory budget " + maxBytes + " bytes, disk store "
+                + (this.diskDir != null ? this.diskDir : "disabled"));
+    }
+
+    /**
+     * Quoted ETag for a statement version
+     */
+    public String etag(Long cardId, int year, int month, String version) {
+        return "\"" + hash(cardId + ":" + year + ":" + month + ":" + version) + "\"";
+    }
+
+    /**
+     * Cached PDF for this statement version, or null
+     */
+    public byte[] get(Long cardId, int year, int month, String etag) {
+        String key = key(cardId, year, month, etag);
+        synchronized (this) {
+            byte[] pdf = memory.get(key);
+            if (pdf != null) {
+                return pdf;
+            }
+        }
+        if (diskDir == null) {
+            return null;
+        }
+        Path file = diskDir.resolve(key + ".pdf");
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            byte[] pdf = Files.readAllBytes(file);
+            putInMemory(key, pdf);
+            return pdf;
+        } catch (IOException e) {
+            System.err.println("StatementCache: Could not read " + file + " - " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Store a freshly rendered statement
+     */
+    public void put(Long cardId, int year, int month, String etag, byte[] pdf) {
+        String key = key(cardId, year, month, etag);
+        putInMemory(key, pdf);
+        if (diskDir != null) {
+            writeToDisk(cardId, year, month, key, pdf);
+        }
+    }
+
+    private synchronized void putInMemory(String key, byte[] pdf) {
+        if (pdf.length > maxBytes) {
+            return;
+        }
+        byte[] previous = memory.put(key, pdf);
+        currentBytes += pdf.length - (previous != null ? previous.length : 0);
+
+        Iterator<Map.Entry<String, byte[]>> eldest = memory.entrySet().iterator();
+        while (currentBytes > maxBytes && eldest.hasNext()) {
+            currentBytes -= eldest.next().getValue().length;
+            eldest.remove();
+        }
+    }
+
+    private void writeToDisk(Long cardId, int year, int month, String key, byte[] pdf) {
+        String monthPrefix = cardId + "_" + year + "_" + month + "_";
+        try {
+            // Drop superseded versions of this month
+            try (DirectoryStream<Path> stale = Files.newDirectoryStream(diskDir, monthPrefix + "*.pdf")) {
+                for (Path file : stale) {
+                    if (!file.getFileName().toString().equals(key + ".pdf")) {
+                        Files.deleteIfExists(file);
+                    }
+                }
+            }
+            Path tmp = Files.createTempFile(diskDir, monthPrefix, ".tmp");
+            Files.write(tmp, pdf);
+            Files.move(tmp, diskDir.resolve(key + ".pdf"),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("StatementCache: Could not write statement to disk - " + e.getMessage());
+        }
+    }
+
+    private static String key(Long cardId, int year, int month, String etag) {
+        return cardId + "_" + year + "_" + month + "_" + etag.replace("\"", "");
+    }
+
+    private static String hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 not available", e);
+        }
+    }
+}
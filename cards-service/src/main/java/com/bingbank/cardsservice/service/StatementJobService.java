@@ -0,0 +1,381 @@
+package com.bingbank.cardsservice.service;
+
+import com.bingbank.cardsservice.dto.StatementJobDTO;
+import com.bingbank.cardsservice.repository.CreditCardRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Asynchronous statement generation.
+ *
+ * Jobs live in the card_statement_jobs table (see schema.sql), so any instance
+ * can report on or serve a job no matter which one rendered it. Submitted jobs
+ * are rendered by a bounded local worker pool; a worker claims a job with a
+ * conditional status update, and jobs left QUEUED or RUNNING by an instance
+ * that went away are re-queued by resumeStalledJobs. When the local queue is
+ * full, submission is rejected instead of piling up work.
+ *
+ * The download token is stored only as a SHA-256 hash and works once: the
+ * first download takes the PDF out of the row and marks the job DOWNLOADED.
+ *
+ * At month end every active card's statement for the closed month is
+ * pre-rendered into the StatementCache from a dedicated thread, using at most
+ * half of the queue so customer requests still get through.
+ *
+ * Queue depth is published as statements.jobs.queue_depth.
+ */
+@Service
+public class StatementJobService {
+
+    private static final String QUEUED = "QUEUED";
+    private static final String DOWNLOADED = "DOWNLOADED";
+
+    private static final String INSERT_JOB =
+            "INSERT INTO card_statement_jobs (job_id, card_id, statement_year, statement_month, token_hash, "
+                    + "status, created_at, queued_at) VALUES (?, ?, ?, ?, ?, 'QUEUED', ?, ?)";
+
+    private static final String SELECT_JOB =
+            "SELECT job_id, card_id, statement_year, statement_month, token_hash, status, error, "
+                    + "created_at, completed_at FROM card_statement_jobs WHERE job_id = ? AND card_id = ?";
+
+    private static final String CLAIM_JOB =
+            "UPDATE card_statement_jobs SET status = 'RUNNING', started_at = ? "
+                    + "WHERE job_id = ? AND status = 'QUEUED' "
+                    + "RETURNING card_id, statement_year, statement_month";
+
+    private static final String COMPLETE_JOB =
+            "UPDATE card_statement_jobs SET status = 'COMPLETED', pdf = ?, completed_at = ? "
+                    + "WHERE job_id = ? AND status = 'RUNNING'";
+
+    private static final String FAIL_JOB =
+            "UPDATE card_statement_jobs SET status = 'FAILED', error = ?, completed_at = ? "
+                    + "WHERE job_id = ? AND status = 'RUNNING'";
+
+    // Hands the PDF to exactly one caller and clears it in the same statement
+    private static final String TAKE_PDF =
+            "WITH taken AS ("
+                    + "SELECT job_id, pdf FROM card_statement_jobs "
+                    + "WHERE job_id = ? AND card_id = ? AND token_hash = ? AND status = 'COMPLETED' FOR UPDATE) "
+                    + "UPDATE card_statement_jobs j SET status = 'DOWNLOADED', pdf = NULL "
+                    + "FROM taken WHERE j.job_id = taken.job_id RETURNING taken.pdf";
+
+    private static final String REQUEUE_STALLED =
+            "UPDATE card_statement_jobs SET status = 'QUEUED', started_at = NULL, queued_at = ? "
+                    + "WHERE job_id IN ("
+                    + "SELECT job_id FROM card_statement_jobs "
+                    + "WHERE (status = 'QUEUED' AND queued_at < ?) OR (status = 'RUNNING' AND started_at < ?) "
+                    + "ORDER BY queued_at LIMIT ? FOR UPDATE SKIP LOCKED) "
+                    + "RETURNING job_id";
+
+    @Autowired
+    private CreditCardStatementService statementService;
+
+    @Autowired
+    private CreditCardRepository creditCardRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ThreadPoolExecutor executor;
+    private final ThreadPoolExecutor pregenerator;
+    private final int queueCapacity;
+    private final long retentionMinutes;
+    private final long staleMinutes;
+
+    public StatementJobService(@Value("${app.cards.statement-jobs.threads:2}") int threads,
+                               @Value("${app.cards.statement-jobs.queue-capacity:200}") int queueCapacity,
+                               @Value("${app.cards.statement-jobs.retention-minutes:60}") long retentionMinutes,
+                               @Value("${app.cards.statement-jobs.stale-minutes:10}") long staleMinutes,
+                               MeterRegistry meterRegistry) {
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "statement-job-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        // One pre-generation run at a time, off the shared scheduler thread
+        this.pregenerator = new ThreadPoolExecutor(
+                1, 1,
+                0L, TimeUnit.MILLISECONDS,
+                new SynchronousQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "statement-pregenerate");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.queueCapacity = queueCapacity;
+        this.retentionMinutes = retentionMinutes;
+        this.staleMinutes = staleMinutes;
+
+        meterRegistry.gauge("statements.jobs.queue_depth", executor, e -> e.getQueue().size());
+        meterRegistry.gauge("statements.jobs.active", executor, ThreadPoolExecutor::getActiveCount);
+
+        System.out.println("StatementJobService: Started with " + threads + " workers, queue capacity "
+                + queueCapacity);
+    }
+
+    /**
+     * Queue a statement for rendering. Throws RejectedExecutionException when the queue is full.
+     */
+    public StatementJobDTO submit(Long cardId, int year, int month) {
+        if (!creditCardRepository.existsById(cardId)) {
+            throw new RuntimeException("Credit card not found");
+        }
+
+        String jobId = UUID.randomUUID().toString();
+        String downloadToken = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update(INSERT_JOB, jobId, cardId, year, month, hashToken(downloadToken), now, now);
+        try {
+            executor.execute(() -> run(jobId));
+        } catch (RejectedExecutionException e) {
+            jdbcTemplate.update("DELETE FROM card_statement_jobs WHERE job_id = ?", jobId);
+            throw e;
+        }
+
+        System.out.println("StatementJobService: Queued job " + jobId + " for card " + cardId
+                + ", " + year + "-" + month);
+        StatementJobDTO dto = new StatementJobDTO();
+        dto.setJobId(jobId);
+        dto.setStatus(QUEUED);
+        dto.setDownloadToken(downloadToken);
+        dto.setFilename(CreditCardStatementService.statementFilename(year, month));
+        dto.setCreatedAt(now);
+        return dto;
+    }
+
+    public StatementJobDTO getJob(Long cardId, String jobId) {
+        return convertToDTO(findJob(cardId, jobId));
+    }
+
+    /**
+     * Rendered PDF of a completed job. The token handed out at submission is
+     * required and can be used once.
+     */
+    public byte[] download(Long cardId, String jobId, String token) {
+        if (token != null) {
+            List<byte[]> pdf = jdbcTemplate.query(TAKE_PDF, (rs, rowNum) -> rs.getBytes("pdf"),
+                    jobId, cardId, hashToken(token));
+            if (!pdf.isEmpty()) {
+                return pdf.get(0);
+            }
+        }
+
+        // Nothing taken: work out why
+        StatementJob job = findJob(cardId, jobId);
+        if (token == null || !MessageDigest.isEqual(job.tokenHash.getBytes(StandardCharsets.UTF_8),
+                hashToken(token).getBytes(StandardCharsets.UTF_8))) {
+            throw new RuntimeException("Invalid download token");
+        }
+        if (DOWNLOADED.equals(job.status)) {
+            throw new RuntimeException("Statement has already been downloaded");
+        }
+        throw new RuntimeException("Statement job is " + job.status);
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Pre-render the closed month's statement for every active card
+     */
+    @Scheduled(cron = "${app.cards.statement-jobs.pregenerate-cron:0 0 1 1 * *}")
+    public void pregenerateMonthlyStatements() {
+        YearMonth closed = YearMonth.now().minusMonths(1);
+        try {
+            pregenerator.execute(() -> pregenerate(closed));
+        } catch (RejectedExecutionException e) {
+            System.err.println("StatementJobService: Previous pre-generation still running, skipping " + closed);
+        }
+    }
+
+    /**
+     * Re-queue jobs whose instance stopped before finishing them
+     */
+    @Scheduled(fixedDelayString = "${app.cards.statement-jobs.recovery-interval-millis:60000}")
+    public void resumeStalledJobs() {
+        int capacity = executor.getQueue().remainingCapacity();
+        if (capacity == 0) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cutoff = now.minusMinutes(staleMinutes);
+        List<String> jobIds = jdbcTemplate.queryForList(REQUEUE_STALLED, String.class,
+                now, cutoff, cutoff, capacity);
+
+        for (String jobId : jobIds) {
+            try {
+                executor.execute(() -> run(jobId));
+            } catch (RejectedExecutionException e) {
+                // Still QUEUED, picked up again once it goes stale
+                break;
+            }
+        }
+        if (!jobIds.isEmpty()) {
+            System.out.println("StatementJobService: Re-queued " + jobIds.size() + " stalled jobs");
+        }
+    }
+
+    /**
+     * Drop finished jobs once the retention period has passed
+     */
+    @Scheduled(fixedDelayString = "${app.cards.statement-jobs.cleanup-interval-millis:300000}")
+    public void purgeExpiredJobs() {
+        int purged = jdbcTemplate.update("DELETE FROM card_statement_jobs WHERE completed_at < ?",
+                LocalDateTime.now().minusMinutes(retentionMinutes));
+        if (purged > 0) {
+            System.out.println("StatementJobService: Purged " + purged + " expired jobs");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pregenerator.shutdownNow();
+        executor.shutdown();
+    }
+
+    private void pregenerate(YearMonth closed) {
+        List<Long> cardIds = creditCardRepository.findCardIdsByCardStatus("ACTIVE");
+        System.out.println("StatementJobService: Pre-generating " + closed + " statements for "
+                + cardIds.size() + " active cards");
+
+        int queued = 0;
+        for (Long cardId : cardIds) {
+            // Leave half of the queue for customer requests
+            while (executor.getQueue().size() >= queueCapacity / 2) {
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            try {
+                executor.execute(() -> {
+                    try {
+                        String etag = statementService.getStatementETag(cardId, closed.getYear(), closed.getMonthValue());
+                        statementService.getStatement(cardId, closed.getYear(), closed.getMonthValue(), etag);
+                    } catch (Exception e) {
+                        System.err.println("StatementJobService: Pre-generation failed for card " + cardId
+                                + " - " + e.getMessage());
+                    }
+                });
+                queued++;
+            } catch (RejectedExecutionException e) {
+                System.err.println("StatementJobService: Queue full, skipping pre-generation for card " + cardId);
+            }
+        }
+
+        System.out.println("StatementJobService: Queued pre-generation of " + queued + " statements");
+    }
+
+    private void run(String jobId) {
+        List<StatementJob> claimed = jdbcTemplate.query(CLAIM_JOB, (rs, rowNum) -> {
+            StatementJob job = new StatementJob();
+            job.cardId = rs.getLong("card_id");
+            job.year = rs.getInt("statement_year");
+            job.month = rs.getInt("statement_month");
+            return job;
+        }, LocalDateTime.now(), jobId);
+        if (claimed.isEmpty()) {
+            // Another instance got to it first
+            return;
+        }
+
+        StatementJob job = claimed.get(0);
+        long start = System.currentTimeMillis();
+        try {
+            String etag = statementService.getStatementETag(job.cardId, job.year, job.month);
+            byte[] pdfBytes = statementService.getStatement(job.cardId, job.year, job.month, etag);
+            jdbcTemplate.update(COMPLETE_JOB, pdfBytes, LocalDateTime.now(), jobId);
+            System.out.println("StatementJobService: Job " + jobId + " completed in "
+                    + (System.currentTimeMillis() - start) + " ms");
+        } catch (Exception e) {
+            System.err.println("StatementJobService: Job " + jobId + " failed - " + e.getMessage());
+            jdbcTemplate.update(FAIL_JOB, e.getMessage(), LocalDateTime.now(), jobId);
+        }
+    }
+
+    private StatementJob findJob(Long cardId, String jobId) {
+        List<StatementJob> jobs = jdbcTemplate.query(SELECT_JOB, (rs, rowNum) -> mapJob(rs), jobId, cardId);
+        if (jobs.isEmpty()) {
+            throw new RuntimeException("Statement job not found");
+        }
+        return jobs.get(0);
+    }
+
+    private StatementJob mapJob(ResultSet rs) throws SQLException {
+        StatementJob job = new StatementJob();
+        job.jobId = rs.getString("job_id");
+        job.cardId = rs.getLong("card_id");
+        job.year = rs.getInt("statement_year");
+        job.month = rs.getInt("statement_month");
+        job.tokenHash = rs.getString("token_hash");
+        job.status = rs.getString("status");
+        job.error = rs.getString("error");
+        job.createdAt = rs.getObject("created_at", LocalDateTime.class);
+        job.completedAt = rs.getObject("completed_at", LocalDateTime.class);
+        return job;
+    }
+
+    private static String hashToken(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 not available", e);
+        }
+    }
+
+    private StatementJobDTO convertToDTO(StatementJob job) {
+        StatementJobDTO dto = new StatementJobDTO();
+        dto.setJobId(job.jobId);
+        dto.setStatus(job.status);
+        dto.setFilename(CreditCardStatementService.statementFilename(job.year, job.month));
+        dto.setError(job.error);
+        dto.setCreatedAt(job.createdAt);
+        dto.setCompletedAt(job.completedAt);
+        return dto;
+    }
+
+    private static class StatementJob {
+        String jobId;
+        Long cardId;
+        int year;
+        int month;
+        String tokenHash;
+        String status;
+        String error;
+        LocalDateTime createdAt;
+        LocalDateTime completedAt;
+    }
+}
@@ -0,0 +1,71 @@
+package com.bingbank.cardsservice.service;
+
+import com.itextpdf.text.BaseColor;
+import com.itextpdf.text.Element;
+import com.itextpdf.text.Font;
+import com.itextpdf.text.Image;
+import jakarta.annotation.PostConstruct;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Statement rendering resources shared across documents.
+ *
+ * The logo is read and decoded once at startup; each statement gets a cheap
+ * copy of the decoded image instead of re-reading and re-parsing the PNG.
+ * Cell fonts are created once per colour instead of once per table cell.
+ */
+@Component
+public class StatementResources {
+
+    private static final String LOGO_PATH = "static/logo.png";
+
+    private final Map<BaseColor, Font> cellFonts = new ConcurrentHashMap<>();
+
+    private Image logoTemplate;
+
+    @PostConstruct
+    public void preload() {
+        try (InputStream in = new ClassPathResource(LOGO_PATH).getInputStream()) {
+            Image logo = Image.getInstance(StreamUtils.copyToByteArray(in));
+            logo.scaleToFit(120, 120);
+            logo.setAlignment(Element.ALIGN_CENTER);
+            logoTemplate = logo;
+            System.out.println("StatementResources: Logo preloaded");
+        } catch (Exception e) {
+            System.err.println("StatementResources: Could not load logo: " + e.getMessage());
+        }
+
+        for (BaseColor color : new BaseColor[] { BaseColor.BLACK, BaseColor.RED, BaseColor.GREEN }) {
+            cellFont(color);
+        }
+    }
+
+    /**
+     * Copy of the decoded logo for one document, or null if it could not be loaded
+     */
+    public Image getLogo() {
+        if (logoTemplate == null) {
+            return null;
+        }
+        try {
+            return Image.getInstance(logoTemplate);
+        } catch (Exception e) {
+            System.err.println("StatementResources: Could not copy logo: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Shared 10pt Helvetica table-cell font in the given colour
+     */
+    public Font cellFont(BaseColor color) {
+        return cellFonts.computeIfAbsent(color,
+                c -> new Font(Font.FontFamily.HELVETICA, 10, Font.NORMAL, c));
+    }
+}
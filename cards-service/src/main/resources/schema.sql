@@ -0,0 +1,32 @@
+-- Runs after Hibernate's schema update (spring.jpa.defer-datasource-initialization)
+
+-- Extensions and the merchant search index need elevated privileges and a
+-- non-blocking build, so they are applied by db/dba/merchant_search_index.sql.
+
+-- Purchases approved by CreditLedger carry their authorization id,
+-- which is the record a merchant reconciles against.
+CREATE UNIQUE INDEX IF NOT EXISTS idx_cc_txn_authorization_id
+    ON credit_card_transactions (authorization_id);
+
+-- Statement jobs (StatementJobService). Shared by every instance, so a job
+-- can be polled and downloaded from any of them; pdf is cleared on download.
+CREATE TABLE IF NOT EXISTS card_statement_jobs (
+    job_id          VARCHAR(36) PRIMARY KEY,
+    card_id         BIGINT      NOT NULL,
+    statement_year  INT         NOT NULL,
+    statement_month INT         NOT NULL,
+    token_hash      VARCHAR(64) NOT NULL,
+    status          VARCHAR(20) NOT NULL,
+    error           TEXT,
+    pdf             BYTEA,
+    created_at      TIMESTAMP   NOT NULL,
+    queued_at       TIMESTAMP   NOT NULL,
+    started_at      TIMESTAMP,
+    completed_at    TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_card_statement_jobs_status
+    ON card_statement_jobs (status, queued_at);
+
+CREATE INDEX IF NOT EXISTS idx_card_statement_jobs_completed_at
+    ON card_statement_jobs (completed_at);
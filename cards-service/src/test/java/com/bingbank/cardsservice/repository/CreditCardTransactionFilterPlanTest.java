@@ -0,0 +1,155 @@
+package com.bingbank.cardsservice.repository;
+
+import com.bingbank.cardsservice.dto.TransactionFilterRequest;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.client.RestTemplateAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Every filter shape and sort option of findFilteredTransactions must be servable
+ * by idx_cc_txn_card_date. The SQL is the one Hibernate generates from the
+ * Criteria query, explained on a real PostgreSQL.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+		+ "com.bingbank.cardsservice.repository.QueryPlans")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(RestTemplateAutoConfiguration.class)
+class CreditCardTransactionFilterPlanTest {
+
+	private static final String FILTER_INDEX = "idx_cc_txn_card_date";
+
+	private static final int MAX_RESULTS = 500;
+
+	// Columns the index scan must look up (Index Cond), not filter afterwards
+	private static final List<String> CARD = List.of("card_id = ");
+	private static final List<String> CARD_AND_DATES = List.of("card_id = ", "transaction_date >= ", "transaction_date <= ");
+
+	private static final EmbeddedPostgres POSTGRES = start();
+
+	@Autowired
+	private CreditCardTransactionRepository repository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@DynamicPropertySource
+	static void datasource(DynamicPropertyRegistry registry) {
+		registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+		registry.add("spring.datasource.username", () -> "postgres");
+	}
+
+	@AfterAll
+	static void stop() throws IOException {
+		POSTGRES.close();
+	}
+
+	@BeforeEach
+	void seed() {
+		// 200 cards with 25 transactions each, so statistics make a per-card index worth using
+		jdbcTemplate.update("INSERT INTO credit_card_transactions (card_id, card_number, transaction_date, " +
+				"transaction_time, merchant_name, category, amount, transaction_type, status, created_at) " +
+				"SELECT i % 200 + 1, lpad((i % 200 + 1)::text, 16, '0'), CURRENT_DATE - i % 400, " +
+				"TIME '00:00' + (i % 1440) * INTERVAL '1 minute', 'Merchant ' || i % 50, 'Dining', i % 500 + 0.99, " +
+				"CASE WHEN i % 10 = 0 THEN 'PAYMENT' ELSE 'PURCHASE' END, 'COMPLETED', now() " +
+				"FROM generate_series(1, 5000) AS i");
+		jdbcTemplate.execute("ANALYZE credit_card_transactions");
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("filters")
+	void filterUsesCardDateIndex(String shape, TransactionFilterRequest filter, List<String> indexCondition) {
+		QueryPlans.clear();
+		repository.findFilteredTransactions(filter, MAX_RESULTS);
+		List<String> plan = QueryPlans.explain(jdbcTemplate, QueryPlans.lastSelectFrom("credit_card_transactions"),
+				parameters(filter));
+
+		String planText = String.join("\n", plan);
+		assertFalse(QueryPlans.hasSeqScan(plan), shape + " needs a sequential scan:\n" + planText);
+		assertEquals(List.of(FILTER_INDEX), QueryPlans.scannedIndexes(plan), shape + " plan:\n" + planText);
+		assertTrue(QueryPlans.indexConditions(plan).stream().anyMatch(c -> indexCondition.stream().allMatch(c::contains)),
+				shape + " does not look up " + indexCondition + " in the index:\n" + planText);
+	}
+
+	static Stream<Arguments> filters() {
+		List<Arguments> filters = new ArrayList<>();
+		for (String sortBy : List.of("date", "amount", "merchant")) {
+			for (String direction : List.of("desc", "asc")) {
+				String sort = sortBy + " " + direction;
+				filters.add(Arguments.of("card, " + sort, filter(sortBy, direction, f -> { }), CARD));
+				filters.add(Arguments.of("date range, " + sort, filter(sortBy, direction, f -> {
+					f.setStartDate(LocalDate.now().minusMonths(1));
+					f.setEndDate(LocalDate.now());
+				}), CARD_AND_DATES));
+				filters.add(Arguments.of("amount, category and type, " + sort, filter(sortBy, direction, f -> {
+					f.setMinAmount(new BigDecimal("10.00"));
+					f.setMaxAmount(new BigDecimal("250.00"));
+					f.setCategory("Dining");
+					f.setTransactionType("PURCHASE");
+				}), CARD));
+				filters.add(Arguments.of("merchant, " + sort,
+						filter(sortBy, direction, f -> f.setMerchantName("merchant 1")), CARD));
+			}
+		}
+		return filters.stream();
+	}
+
+	/**
+	 * Bound values in the order CreditCardTransactionRepositoryCustomImpl adds its predicates, then the row limit
+	 */
+	private static Object[] parameters(TransactionFilterRequest filter) {
+		List<Object> values = new ArrayList<>();
+		values.add(filter.getCardId());
+		Stream.of(filter.getStartDate(), filter.getEndDate(), filter.getMinAmount(), filter.getMaxAmount(),
+				filter.getCategory()).filter(Objects::nonNull).forEach(values::add);
+		if (filter.getMerchantName() != null) {
+			values.add("%" + filter.getMerchantName().toLowerCase() + "%");
+		}
+		if (filter.getTransactionType() != null) {
+			values.add(filter.getTransactionType());
+		}
+		values.add(MAX_RESULTS);
+		return values.toArray();
+	}
+
+	private static TransactionFilterRequest filter(String sortBy, String direction, Consumer<TransactionFilterRequest> shape) {
+		TransactionFilterRequest filter = new TransactionFilterRequest();
+		filter.setCardId(7L);
+		filter.setSortBy(sortBy);
+		filter.setSortDirection(direction);
+		shape.accept(filter);
+		return filter;
+	}
+
+	private static EmbeddedPostgres start() {
+		try {
+			return EmbeddedPostgres.start();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
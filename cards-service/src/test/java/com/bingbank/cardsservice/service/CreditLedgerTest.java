@@ -0,0 +1,84 @@
+package com.bingbank.cardsservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CreditLedgerTest {
+
+	private static final LocalDate TODAY = LocalDate.of(2026, 10, 19);
+
+	@Test
+	void approvesInArrivalOrderUntilCreditRunsOut() {
+		CreditLedger.CardBalance card = activeCard(10_000);
+
+		assertNull(card.reserve(6_000, TODAY));
+		assertEquals(CreditLedger.INSUFFICIENT_CREDIT, card.reserve(5_000, TODAY));
+		assertNull(card.reserve(4_000, TODAY));
+		assertEquals(CreditLedger.INSUFFICIENT_CREDIT, card.reserve(1, TODAY));
+
+		assertEquals(0, card.availableCents);
+		assertEquals(10_000, card.reservedCents());
+	}
+
+	@Test
+	void declineLeavesBalanceUnchanged() {
+		CreditLedger.CardBalance card = activeCard(500);
+
+		assertEquals(CreditLedger.INSUFFICIENT_CREDIT, card.reserve(501, TODAY));
+
+		assertEquals(500, card.availableCents);
+		assertEquals(0, card.reservedCents());
+	}
+
+	@Test
+	void declinesInactiveCard() {
+		CreditLedger.CardBalance card = new CreditLedger.CardBalance(1L, "4111111111111111", 10_000, "INACTIVE",
+				TODAY.plusYears(1));
+
+		assertEquals(CreditLedger.CARD_INACTIVE, card.reserve(100, TODAY));
+		assertEquals(0, card.reservedCents());
+	}
+
+	@Test
+	void declinesExpiredCardButNotOnItsLastDay() {
+		CreditLedger.CardBalance expired = new CreditLedger.CardBalance(1L, "4111111111111111", 10_000, "ACTIVE",
+				TODAY.minusDays(1));
+		CreditLedger.CardBalance lastDay = new CreditLedger.CardBalance(1L, "4111111111111111", 10_000, "ACTIVE",
+				TODAY);
+
+		assertEquals(CreditLedger.CARD_EXPIRED, expired.reserve(100, TODAY));
+		assertNull(lastDay.reserve(100, TODAY));
+	}
+
+	@Test
+	void cancelledRequestIsNotClaimed() {
+		CreditLedger.PendingAuthorization request = pending();
+
+		assertTrue(request.cancel());
+		assertFalse(request.claim());
+	}
+
+	@Test
+	void claimedRequestCannotBeCancelled() {
+		CreditLedger.PendingAuthorization request = pending();
+
+		assertTrue(request.claim());
+		assertFalse(request.cancel());
+	}
+
+	private CreditLedger.CardBalance activeCard(long availableCents) {
+		return new CreditLedger.CardBalance(1L, "4111111111111111", availableCents, "ACTIVE", TODAY.plusYears(1));
+	}
+
+	private CreditLedger.PendingAuthorization pending() {
+		return new CreditLedger.PendingAuthorization("auth-1", 7L, 1L, 1_000, "Coffee Shop", "Dining", TODAY,
+				LocalTime.NOON);
+	}
+}
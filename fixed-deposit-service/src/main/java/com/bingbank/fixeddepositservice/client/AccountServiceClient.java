@@ -0,0 +1,162 @@
+package com.bingbank.fixeddepositservice.client;
+
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Client for account-service.
+ *
+ * Every call goes through the "accountService" circuit breaker and bulkhead
+ * (see resilience4j.* in application.properties), on top of the RestTemplate
+ * connect/read timeouts. When the breaker is open or the bulkhead is full,
+ * the fallbacks fail fast with an "unavailable" error instead of queueing
+ * more threads behind a degraded account-service.
+ */
+@Component
+public class AccountServiceClient {
+
+    private static final String ACCOUNT_SERVICE = "accountService";
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Value("${app.services.account-service.url}")
+    private String accountServiceUrl;
+
+    /**
+     * Fetch account details (customerId, balance, accountType, branch ...)
+     */
+    @CircuitBreaker(name = ACCOUNT_SERVICE, fallbackMethod = "getAccountFallback")
+    @Bulkhead(name = ACCOUNT_SERVICE)
+    public Map<String, Object> getAccount(String accountNumber, String authHeader) {
+        String url = accountServiceUrl + "/api/accounts/" + accountNumber;
+        ResponseEntity<Map> response = restTemplate.exchange(url, HttpMethod.GET,
+                new HttpEntity<>(headers(authHeader)), Map.class);
+        if (response.getBody() == null) {
+            throw new RuntimeException("Empty response from account service for account " + accountNumber);
+        }
+        return response.getBody();
+    }
+
+    /**
+     * Debit an account
+     */
+    @CircuitBreaker(name = ACCOUNT_SERVICE, fallbackMethod = "debitFallback")
+    @Bulkhead(name = ACCOUNT_SERVICE)
+    public Map<String, Object> debit(String accountNumber, BigDecimal amount, String description,
+                                     String sourceAccountNumber, String targetAccountNumber, String authHeader) {
+        return post(accountNumber, "/debit", amount, description, sourceAccountNumber, targetAccountNumber, authHeader);
+    }
+
+    /**
+     * Credit an account
+     */
+    @CircuitBreaker(name = ACCOUNT_SERVICE, fallbackMethod = "creditFallback")
+    @Bulkhead(name = ACCOUNT_SERVICE)
+    public Map<String, Object> credit(String accountNumber, BigDecimal amount, String description,
+                                      String sourceAccountNumber, String targetAccountNumber, String authHeader) {
+        return post(accountNumber, "/credit", amount, description, sourceAccountNumber, targetAccountNumber, authHeader);
+    }
+
+    /**
+     * Apply a batch of postings (postingId, accountNumber, transactionType, amount, description,
+     * sourceAccountNumber, targetAccountNumber). Posting ids already applied are skipped by
+     * account-service, so a failed call can be retried with the same batch. A final rejection
+     * (unknown account, insufficient balance) fails with 422, see isRejection.
+     */
+    @CircuitBreaker(name = ACCOUNT_SERVICE, fallbackMethod = "postBatchFallback")
+    @Bulkhead(name = ACCOUNT_SERVICE)
+    public Map<String, Object> postBatch(List<Map<String, Object>> postings, String authHeader) {
+        String url = accountServiceUrl + "/api/accounts/postings/batch";
+        ResponseEntity<Map> response = restTemplate.exchange(url, HttpMethod.POST,
+                new HttpEntity<>(postings, headers(authHeader)), Map.class);
+        return response.getBody();
+    }
+
+    private Map<String, Object> post(String accountNumber, String operation, BigDecimal amount, String description,
+                                     String sourceAccountNumber, String targetAccountNumber, String authHeader) {
+        String url = accountServiceUrl + "/api/accounts/" + accountNumber + operation;
+
+        Map<String, Object> request = new HashMap<>();
+        request.put("amount", amount);
+        request.put("description", description);
+        request.put("sourceAccountNumber", sourceAccountNumber);
+        request.put("targetAccountNumber", targetAccountNumber);
+
+        ResponseEntity<Map> response = restTemplate.exchange(url, HttpMethod.POST,
+                new HttpEntity<>(request, headers(authHeader)), Map.class);
+        return response.getBody();
+    }
+
+    /**
+     * True if account-service rejected the postings for good. Any other failure
+     * (5xx, timeout, breaker open, 4xx from a bad request) says nothing about
+     * whether the postings could succeed and should be retried.
+     */
+    public static boolean isRejection(Exception e) {
+        return e instanceof HttpClientErrorException clientError
+                && clientError.getStatusCode().value() == HttpStatus.UNPROCESSABLE_ENTITY.value();
+    }
+
+    private HttpHeaders headers(String authHeader) {
+        HttpHeaders headers = new HttpHeaders();
+        if (authHeader != null) {
+            headers.set("Authorization", authHeader);
+        }
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return headers;
+    }
+
+    private Map<String, Object> getAccountFallback(String accountNumber, String authHeader, Throwable t) {
+        throw unavailable("getAccount", t);
+    }
+
+    private Map<String, Object> debitFallback(String accountNumber, BigDecimal amount, String description,
+                                              String sourceAccountNumber, String targetAccountNumber,
+                                              String authHeader, Throwable t) {
+        throw unavailable("debit", t);
+    }
+
+    private Map<String, Object> creditFallback(String accountNumber, BigDecimal amount, String description,
+                                               String sourceAccountNumber, String targetAccountNumber,
+                                               String authHeader, Throwable t) {
+        throw unavailable("credit", t);
+    }
+
+    private Map<String, Object> postBatchFallback(List<Map<String, Object>> postings, String authHeader, Throwable t) {
+        throw unavailable("postBatch", t);
+    }
+
+    /**
+     * Fallback hook: breaker/bulkhead rejections become a clear "unavailable" error,
+     * anything else (4xx, timeouts) is passed through unchanged.
+     */
+    private RuntimeException unavailable(String operation, Throwable t) {
+        if (t instanceof CallNotPermittedException || t instanceof BulkheadFullException) {
+            System.err.println("AccountServiceClient: " + operation + " rejected - " + t.getMessage());
+            return new RuntimeException("Account service is temporarily unavailable. Please try again later.");
+        }
+        if (t instanceof RuntimeException) {
+            return (RuntimeException) t;
+        }
+        return new RuntimeException(t.getMessage(), t);
+    }
+}
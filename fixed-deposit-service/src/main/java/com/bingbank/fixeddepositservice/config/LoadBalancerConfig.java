@@ -0,0 +1,42 @@
+package com.bingbank.fixeddepositservice.config;
+
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Client-side load balancing for calls made through the @LoadBalanced RestTemplate.
+ *
+ * Service names (http://account-service/...) are resolved against the registered
+ * DiscoveryClient - by default the static instance list under
+ * spring.cloud.discovery.client.simple.instances.* - and only instances whose
+ * /actuator/health check passes are handed out, round-robin.
+ */
+@Configuration
+@LoadBalancerClients(defaultConfiguration = LoadBalancerConfig.HealthCheckedInstances.class)
+public class LoadBalancerConfig {
+
+    /**
+     * Per-client configuration; deliberately not a @Configuration so it is only
+     * loaded into the load balancer's child contexts.
+     */
+    static class HealthCheckedInstances {
+
+        @Bean
+        public ServiceInstanceListSupplier serviceInstanceListSupplier(ConfigurableApplicationContext context) {
+            // Health probes use a plain RestTemplate - the load-balanced one cannot reach raw instance URLs
+            return ServiceInstanceListSupplier.builder()
+                    .withBlockingDiscoveryClient()
+                    .withBlockingHealthChecks(new RestTemplateBuilder()
+                            .setConnectTimeout(Duration.ofSeconds(1))
+                            .setReadTimeout(Duration.ofSeconds(2))
+                            .build())
+                    .build(context);
+        }
+    }
+}
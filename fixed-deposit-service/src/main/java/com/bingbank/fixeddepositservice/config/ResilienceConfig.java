@@ -0,0 +1,45 @@
+package com.bingbank.fixeddepositservice.config;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.core.registry.EntryAddedEvent;
+import io.github.resilience4j.core.registry.EntryRemovedEvent;
+import io.github.resilience4j.core.registry.EntryReplacedEvent;
+import io.github.resilience4j.core.registry.RegistryEventConsumer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Logs circuit breaker state transitions and counts them in
+ * resilience.circuitbreaker.transitions (tagged name/from/to).
+ * Call and state gauges are published by resilience4j's own Micrometer binding.
+ */
+@Configuration
+public class ResilienceConfig {
+
+    @Bean
+    public RegistryEventConsumer<CircuitBreaker> circuitBreakerTransitionListener(MeterRegistry meterRegistry) {
+        return new RegistryEventConsumer<>() {
+            @Override
+            public void onEntryAddedEvent(EntryAddedEvent<CircuitBreaker> entryAddedEvent) {
+                entryAddedEvent.getAddedEntry().getEventPublisher().onStateTransition(event -> {
+                    CircuitBreaker.StateTransition transition = event.getStateTransition();
+                    System.out.println("ResilienceConfig: Circuit breaker '" + event.getCircuitBreakerName()
+                            + "' moved from " + transition.getFromState() + " to " + transition.getToState());
+                    meterRegistry.counter("resilience.circuitbreaker.transitions",
+                            "name", event.getCircuitBreakerName(),
+                            "from", transition.getFromState().name(),
+                            "to", transition.getToState().name()).increment();
+                });
+            }
+
+            @Override
+            public void onEntryRemovedEvent(EntryRemovedEvent<CircuitBreaker> entryRemoveEvent) {
+            }
+
+            @Override
+            public void onEntryReplacedEvent(EntryReplacedEvent<CircuitBreaker> entryReplacedEvent) {
+            }
+        };
+    }
+}
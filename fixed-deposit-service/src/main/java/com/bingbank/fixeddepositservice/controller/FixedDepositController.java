@@ -2,12 +2,14 @@ package com.bingbank.fixeddepositservice.controller;
 
 import com.bingbank.fixeddepositservice.dto.*;
 import com.bingbank.fixeddepositservice.service.FixedDepositService;
+import com.bingbank.fixeddepositservice.service.PortfolioService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
+import java.math.BigDecimal;
 import java.util.List;
 
 @RestController
@@ -17,6 +19,9 @@ public class FixedDepositController {
     @Autowired
     private FixedDepositService fdService;
 
+    @Autowired
+    private PortfolioService portfolioService;
+
     /**
      * Get all active FDs for a customer
      */
@@ -38,7 +43,39 @@ public class FixedDepositController {
     }
 
     /**
-     * Create a new FD
+     * Aggregate value, yield and maturity ladder of a customer's active FDs
+     */
+    @GetMapping("/customer/{customerId}/portfolio")
+    public ResponseEntity<FDPortfolioDTO> getPortfolio(@PathVariable Long customerId) {
+        System.out.println("FDController: Fetching portfolio for customer: " + customerId);
+        return ResponseEntity.ok(portfolioService.getCustomerPortfolio(customerId));
+    }
+
+    /**
+     * Bank-wide maturity liability ladder of all active FDs (OPS role only, see SecurityConfig)
+     */
+    @GetMapping("/portfolio/maturity-ladder")
+    public ResponseEntity<FDPortfolioDTO> getMaturityLadder() {
+        System.out.println("FDController: Building bank-wide maturity ladder");
+        return ResponseEntity.ok(portfolioService.getMaturityLadder());
+    }
+
+    /**
+     * Quote rate, compounding and maturity amount for a prospective FD
+     */
+    @GetMapping("/quote")
+    public ResponseEntity<?> quote(@RequestParam BigDecimal amount, @RequestParam Integer tenureYears) {
+        try {
+            System.out.println("FDController: Quoting FD of " + amount + " for " + tenureYears + " years");
+            return ResponseEntity.ok(fdService.quote(amount, tenureYears));
+        } catch (Exception e) {
+            System.err.println("Error quoting FD: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Request a new FD
      */
     @PostMapping("/create")
     public ResponseEntity<?> createFD(
@@ -47,7 +84,8 @@ public class FixedDepositController {
         try {
             System.out.println("FDController: Creating FD for customer: " + request.getCustomerId());
             FixedDepositDTO fd = fdService.createFD(request, authHeader);
-            return ResponseEntity.status(HttpStatus.CREATED).body(fd);
+            // PENDING until the opening saga has debited the account
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(fd);
         } catch (Exception e) {
             System.err.println("Error creating FD: " + e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
@@ -55,7 +93,7 @@ public class FixedDepositController {
     }
 
     /**
-     * Close an existing FD
+     * Request closing an existing FD
      */
     @PostMapping("/close")
     public ResponseEntity<?> closeFD(
@@ -64,7 +102,8 @@ public class FixedDepositController {
         try {
             System.out.println("FDController: Closing FD: " + request.getFdId());
             FixedDepositDTO fd = fdService.closeFD(request, authHeader);
-            return ResponseEntity.ok(fd);
+            // CLOSING until the closing saga has credited the account
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(fd);
         } catch (Exception e) {
             System.err.println("Error closing FD: " + e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
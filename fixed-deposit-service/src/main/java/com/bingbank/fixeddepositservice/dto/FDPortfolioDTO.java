@@ -0,0 +1,31 @@
+package com.bingbank.fixeddepositservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+public class FDPortfolioDTO {
+    private Long customerId; // null for the bank-wide ladder
+    private Long fdCount;
+    private BigDecimal totalPrincipal;
+    private BigDecimal totalCurrentValue;
+    private BigDecimal totalMaturityAmount;
+    private BigDecimal accruedInterest;
+    private BigDecimal projectedInterest;
+    private BigDecimal weightedAverageRate; // principal-weighted
+    private List<MaturityBucket> maturityLadder;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class MaturityBucket {
+        private String month; // yyyy-MM
+        private Long fdCount;
+        private BigDecimal principalAmount;
+        private BigDecimal maturityAmount;
+    }
+}
@@ -0,0 +1,16 @@
+package com.bingbank.fixeddepositservice.dto;
+
+import lombok.Data;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+public class FDQuoteDTO {
+    private BigDecimal principalAmount;
+    private Integer tenureYears;
+    private BigDecimal interestRate;
+    private String compoundingFrequency;
+    private BigDecimal effectiveAnnualRate;
+    private BigDecimal maturityAmount;
+    private LocalDate maturityDate;
+}
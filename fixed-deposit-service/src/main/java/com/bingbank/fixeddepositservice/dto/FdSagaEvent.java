@@ -0,0 +1,21 @@
+package com.bingbank.fixeddepositservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FdSagaEvent {
+    private Long fdId;
+    private String step; // see FdSagaOrchestrator
+    private Long customerId;
+    private String accountNumber;
+    private BigDecimal amount;
+    private String reason; // why a step failed, if it did
+    private LocalDateTime occurredAt;
+}
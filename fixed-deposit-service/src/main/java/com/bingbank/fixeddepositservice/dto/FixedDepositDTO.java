@@ -12,6 +12,7 @@ public class FixedDepositDTO {
     private String accountNumber;
     private BigDecimal principalAmount;
     private BigDecimal interestRate;
+    private String compoundingFrequency;
     private Integer tenureYears;
     private LocalDate startDate;
     private LocalDate maturityDate;
@@ -0,0 +1,27 @@
+package com.bingbank.fixeddepositservice.model;
+
+/**
+ * How often FD interest is compounded
+ */
+public enum CompoundingFrequency {
+    MONTHLY(12),
+    QUARTERLY(4),
+    YEARLY(1);
+
+    private final int periodsPerYear;
+
+    CompoundingFrequency(int periodsPerYear) {
+        this.periodsPerYear = periodsPerYear;
+    }
+
+    public int getPeriodsPerYear() {
+        return periodsPerYear;
+    }
+
+    /**
+     * Parse a stored value; FDs created before frequencies existed compound yearly
+     */
+    public static CompoundingFrequency of(String value) {
+        return value == null || value.isBlank() ? YEARLY : valueOf(value.trim().toUpperCase());
+    }
+}
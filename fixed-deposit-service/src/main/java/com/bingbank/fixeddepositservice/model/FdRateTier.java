@@ -0,0 +1,33 @@
+package com.bingbank.fixeddepositservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "fd_rate_tiers")
+public class FdRateTier {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "tier_id")
+    private Long tierId;
+    
+    @Column(name = "min_amount", nullable = false, precision = 15, scale = 2)
+    private BigDecimal minAmount;
+    
+    @Column(name = "min_tenure_years", nullable = false)
+    private Integer minTenureYears;
+    
+    @Column(name = "annual_rate", nullable = false, precision = 5, scale = 4)
+    private BigDecimal annualRate;
+    
+    @Column(name = "compounding_frequency", nullable = false, length = 10)
+    private String compoundingFrequency; // MONTHLY, QUARTERLY, YEARLY
+}
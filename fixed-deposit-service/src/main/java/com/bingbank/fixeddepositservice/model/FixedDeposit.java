@@ -14,7 +14,9 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "fixed_deposits")
+@Table(name = "fixed_deposits", indexes = {
+        @Index(name = "idx_fd_status_maturity", columnList = "status, maturity_date")
+})
 public class FixedDeposit {
     
     @Id
@@ -34,6 +36,9 @@ public class FixedDeposit {
     @Column(name = "interest_rate", nullable = false, precision = 5, scale = 4)
     private BigDecimal interestRate;
     
+    @Column(name = "compounding_frequency", length = 10)
+    private String compoundingFrequency; // MONTHLY, QUARTERLY, YEARLY (null on legacy rows = YEARLY)
+    
     @Column(name = "tenure_years", nullable = false)
     private Integer tenureYears;
     
@@ -49,8 +54,11 @@ public class FixedDeposit {
     @Column(name = "current_value", nullable = false, precision = 15, scale = 2)
     private BigDecimal currentValue;
     
+    @Column(name = "accrued_through")
+    private LocalDate accruedThrough; // date current_value was last accrued to
+    
     @Column(nullable = false, length = 20)
-    private String status; // ACTIVE, CLOSED
+    private String status; // PENDING, FAILED, ACTIVE, CLOSING, CLOSED, MATURING, MATURED, PAYOUT_FAILED
     
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
@@ -0,0 +1,9 @@
+package com.bingbank.fixeddepositservice.repository;
+
+import com.bingbank.fixeddepositservice.model.FdRateTier;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface FdRateTierRepository extends JpaRepository<FdRateTier, Long> {
+}
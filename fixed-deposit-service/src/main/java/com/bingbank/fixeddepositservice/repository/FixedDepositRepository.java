@@ -1,9 +1,18 @@
 package com.bingbank.fixeddepositservice.repository;
 
 import com.bingbank.fixeddepositservice.model.FixedDeposit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -14,4 +23,47 @@ public interface FixedDepositRepository extends JpaRepository<FixedDeposit, Long
     List<FixedDeposit> findByCustomerId(Long customerId);
     
     List<FixedDeposit> findByAccountNumberAndStatus(String accountNumber, String status);
+    
+    // Served by idx_fd_status_maturity
+    @Query("SELECT f FROM FixedDeposit f WHERE f.status = 'ACTIVE' AND f.maturityDate <= :date ORDER BY f.fdId")
+    List<FixedDeposit> findDueForMaturity(@Param("date") LocalDate date, Pageable pageable);
+    
+    List<FixedDeposit> findByStatusOrderByFdId(String status, Pageable pageable);
+    
+    // Saga recovery: FDs stuck in PENDING / CLOSING past the cutoff
+    List<FixedDeposit> findByStatusAndCreatedAtBefore(String status, LocalDateTime cutoff, Pageable pageable);
+    
+    List<FixedDeposit> findByStatusAndClosedAtBefore(String status, LocalDateTime cutoff, Pageable pageable);
+    
+    // Saga step: conditional on the current status, so a redelivered step is a no-op
+    @Modifying
+    @Transactional
+    @Query("UPDATE FixedDeposit f SET f.status = :to WHERE f.fdId = :fdId AND f.status = :from")
+    int transitionStatus(@Param("fdId") Long fdId, @Param("from") String from, @Param("to") String to);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE FixedDeposit f SET f.status = 'CLOSING', f.currentValue = :value, f.accruedThrough = :date, " +
+           "f.closedAt = :closedAt WHERE f.fdId = :fdId AND f.status = 'ACTIVE'")
+    int markClosing(@Param("fdId") Long fdId, @Param("value") BigDecimal value, @Param("date") LocalDate date,
+                    @Param("closedAt") LocalDateTime closedAt);
+    
+    // Compensation for a rejected close payout
+    @Modifying
+    @Transactional
+    @Query("UPDATE FixedDeposit f SET f.status = 'ACTIVE', f.closedAt = NULL WHERE f.fdId = :fdId AND f.status = 'CLOSING'")
+    int revertClosing(@Param("fdId") Long fdId);
+    
+    // Checkpoint before paying out: the FD is valued at maturity and no longer ACTIVE
+    @Modifying
+    @Transactional
+    @Query("UPDATE FixedDeposit f SET f.status = 'MATURING', f.currentValue = f.maturityAmount, " +
+           "f.accruedThrough = f.maturityDate WHERE f.fdId IN :fdIds AND f.status = 'ACTIVE'")
+    int markMaturing(@Param("fdIds") Collection<Long> fdIds);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE FixedDeposit f SET f.status = 'MATURED', f.closedAt = :closedAt " +
+           "WHERE f.fdId IN :fdIds AND f.status = 'MATURING'")
+    int markMatured(@Param("fdIds") Collection<Long> fdIds, @Param("closedAt") LocalDateTime closedAt);
 }
\ No newline at end of file
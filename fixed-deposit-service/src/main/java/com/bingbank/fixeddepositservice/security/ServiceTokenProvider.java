@@ -0,0 +1,38 @@
+package com.bingbank.fixeddepositservice.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.Key;
+import java.util.Date;
+
+/**
+ * Service-to-service JWTs for calls made outside a user request
+ * (maturity payouts, saga steps).
+ */
+@Component
+public class ServiceTokenProvider {
+
+    @Value("${app.jwt-secret}")
+    private String jwtSecret;
+
+    /**
+     * "Bearer ..." header value valid for one hour
+     */
+    public String generateServiceToken() {
+        Key key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+
+        Date now = new Date();
+        Date expiryDate = new Date(now.getTime() + 3600000); // 1 hour validity
+
+        String token = Jwts.builder()
+                .setSubject("fixed-deposit-service")
+                .setIssuedAt(now)
+                .setExpiration(expiryDate)
+                .signWith(key)
+                .compact();
+        return "Bearer " + token;
+    }
+}
@@ -0,0 +1,221 @@
+package com.bingbank.fixeddepositservice.service;
+
+import com.bingbank.fixeddepositservice.client.AccountServiceClient;
+import com.bingbank.fixeddepositservice.dto.FdSagaEvent;
+import com.bingbank.fixeddepositservice.model.FixedDeposit;
+import com.bingbank.fixeddepositservice.repository.FixedDepositRepository;
+import com.bingbank.fixeddepositservice.security.ServiceTokenProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Drives FD opening and closing as sagas over the fd-saga topic.
+ *
+ * Open:  OPEN_REQUESTED -> debit account -> FUNDS_RESERVED -> FD ACTIVE -> ACTIVATED
+ *        (debit rejected: FD FAILED, OPEN_FAILED)
+ * Close: CLOSE_REQUESTED -> credit account -> FUNDS_RELEASED -> FD CLOSED -> CLOSED
+ *        (credit rejected: FD back to ACTIVE, CLOSE_FAILED)
+ *
+ * Each step is a short status update or one account-service call; no database
+ * transaction spans a network call. Money moves through the batch postings
+ * endpoint with posting ids derived from the FD id, so a redelivered or
+ * republished step never debits or credits twice, and status transitions are
+ * conditional on the expected current status. A step that keeps failing on a
+ * transient error is picked up again by the recovery job.
+ */
+@Service
+public class FdSagaOrchestrator {
+
+    static final String OPEN_REQUESTED = "OPEN_REQUESTED";
+    static final String FUNDS_RESERVED = "FUNDS_RESERVED";
+    static final String ACTIVATED = "ACTIVATED";
+    static final String OPEN_FAILED = "OPEN_FAILED";
+    static final String OPEN_COMPENSATED = "OPEN_COMPENSATED";
+    static final String CLOSE_REQUESTED = "CLOSE_REQUESTED";
+    static final String FUNDS_RELEASED = "FUNDS_RELEASED";
+    static final String CLOSED = "CLOSED";
+    static final String CLOSE_FAILED = "CLOSE_FAILED";
+
+    private static final String OPEN_POSTING_PREFIX = "FD-OPEN-";
+    private static final String OPEN_REVERSAL_POSTING_PREFIX = "FD-OPEN-REVERSAL-";
+    private static final String CLOSE_POSTING_PREFIX = "FD-CLOSE-";
+
+    @Autowired
+    private KafkaTemplate<String, FdSagaEvent> kafkaTemplate;
+
+    @Autowired
+    private FixedDepositRepository fdRepository;
+
+    @Autowired
+    private AccountServiceClient accountServiceClient;
+
+    @Autowired
+    private ServiceTokenProvider serviceTokenProvider;
+
+    @Value("${app.kafka.topic.fd-saga}")
+    private String fdSagaTopic;
+
+    @Value("${app.fd.saga.stale-after-seconds:120}")
+    private long staleAfterSeconds;
+
+    @Value("${app.fd.saga.recovery-batch-size:100}")
+    private int recoveryBatchSize;
+
+    public void openRequested(FixedDeposit fd) {
+        publish(fd, OPEN_REQUESTED, null);
+    }
+
+    public void closeRequested(FixedDeposit fd) {
+        publish(fd, CLOSE_REQUESTED, null);
+    }
+
+    @KafkaListener(topics = "${app.kafka.topic.fd-saga}", groupId = "${spring.kafka.consumer.group-id}")
+    public void onSagaEvent(FdSagaEvent event) {
+        System.out.println("FdSagaOrchestrator: " + event.getStep() + " for FD#" + event.getFdId());
+
+        switch (event.getStep()) {
+            case OPEN_REQUESTED -> reserveFunds(event.getFdId());
+            case FUNDS_RESERVED -> activate(event.getFdId());
+            case CLOSE_REQUESTED -> releaseFunds(event.getFdId());
+            case FUNDS_RELEASED -> close(event.getFdId());
+            default -> {
+                // ACTIVATED, OPEN_FAILED, OPEN_COMPENSATED, CLOSED, CLOSE_FAILED end the saga
+                if (event.getReason() != null) {
+                    System.out.println("FdSagaOrchestrator: FD#" + event.getFdId() + " - " + event.getReason());
+                }
+            }
+        }
+    }
+
+    /**
+     * Republish the current step of sagas that have not progressed for a while
+     * (lost send, retries exhausted, restart mid-step)
+     */
+    @Scheduled(fixedDelayString = "${app.fd.saga.recovery-interval-millis:60000}")
+    public void resumeStalledSagas() {
+        LocalDateTime cutoff = LocalDateTime.now().minusSeconds(staleAfterSeconds);
+        PageRequest page = PageRequest.of(0, recoveryBatchSize);
+
+        List<FixedDeposit> pending = fdRepository.findByStatusAndCreatedAtBefore("PENDING", cutoff, page);
+        for (FixedDeposit fd : pending) {
+            publish(fd, OPEN_REQUESTED, null);
+        }
+        List<FixedDeposit> closing = fdRepository.findByStatusAndClosedAtBefore("CLOSING", cutoff, page);
+        for (FixedDeposit fd : closing) {
+            publish(fd, CLOSE_REQUESTED, null);
+        }
+
+        if (!pending.isEmpty() || !closing.isEmpty()) {
+            System.out.println("FdSagaOrchestrator: Resumed " + pending.size() + " open and "
+                    + closing.size() + " close sagas");
+        }
+    }
+
+    private void reserveFunds(Long fdId) {
+        FixedDeposit fd = findFD(fdId);
+        if (fd == null || !"PENDING".equals(fd.getStatus())) {
+            return; // already handled
+        }
+
+        try {
+            post(fd, OPEN_POSTING_PREFIX, "DEBIT", fd.getPrincipalAmount(), "FD Opening - FD#" + fdId);
+        } catch (HttpClientErrorException e) {
+            if (!AccountServiceClient.isRejection(e)) {
+                throw e; // not a final answer: redelivered, then picked up by the recovery job
+            }
+            // Rejected by account-service (e.g. insufficient balance): nothing was debited
+            if (fdRepository.transitionStatus(fdId, "PENDING", "FAILED") > 0) {
+                publish(fd, OPEN_FAILED, e.getResponseBodyAsString());
+            }
+            return;
+        }
+        publish(fd, FUNDS_RESERVED, null);
+    }
+
+    private void activate(Long fdId) {
+        if (fdRepository.transitionStatus(fdId, "PENDING", "ACTIVE") > 0) {
+            publish(findFD(fdId), ACTIVATED, null);
+            return;
+        }
+
+        FixedDeposit fd = findFD(fdId);
+        if (fd != null && "FAILED".equals(fd.getStatus())) {
+            // Funds arrived for an FD that was already failed - give them back
+            post(fd, OPEN_REVERSAL_POSTING_PREFIX, "CREDIT", fd.getPrincipalAmount(),
+                    "FD Opening Reversal - FD#" + fdId);
+            publish(fd, OPEN_COMPENSATED, "Opening debit reversed");
+        }
+    }
+
+    private void releaseFunds(Long fdId) {
+        FixedDeposit fd = findFD(fdId);
+        if (fd == null || !"CLOSING".equals(fd.getStatus())) {
+            return;
+        }
+
+        try {
+            post(fd, CLOSE_POSTING_PREFIX, "CREDIT", fd.getCurrentValue(), "FD Closing - FD#" + fdId);
+        } catch (HttpClientErrorException e) {
+            if (!AccountServiceClient.isRejection(e)) {
+                throw e;
+            }
+            // Payout rejected: the FD keeps running
+            if (fdRepository.revertClosing(fdId) > 0) {
+                publish(fd, CLOSE_FAILED, e.getResponseBodyAsString());
+            }
+            return;
+        }
+        publish(fd, FUNDS_RELEASED, null);
+    }
+
+    private void close(Long fdId) {
+        if (fdRepository.transitionStatus(fdId, "CLOSING", "CLOSED") > 0) {
+            publish(findFD(fdId), CLOSED, null);
+        }
+    }
+
+    private void post(FixedDeposit fd, String postingPrefix, String transactionType, BigDecimal amount,
+                      String description) {
+        Map<String, Object> posting = new HashMap<>();
+        posting.put("postingId", postingPrefix + fd.getFdId());
+        posting.put("accountNumber", fd.getAccountNumber());
+        posting.put("transactionType", transactionType);
+        posting.put("amount", amount);
+        posting.put("description", description);
+        posting.put("sourceAccountNumber", fd.getAccountNumber());
+        posting.put("targetAccountNumber", FixedDepositService.FD_COUNTERPARTY);
+
+        accountServiceClient.postBatch(List.of(posting), serviceTokenProvider.generateServiceToken());
+    }
+
+    private FixedDeposit findFD(Long fdId) {
+        return fdRepository.findById(fdId).orElse(null);
+    }
+
+    private void publish(FixedDeposit fd, String step, String reason) {
+        // Open steps move the principal, close steps the value paid out
+        boolean closeStep = step.startsWith("CLOSE") || FUNDS_RELEASED.equals(step);
+        FdSagaEvent event = new FdSagaEvent(fd.getFdId(), step, fd.getCustomerId(), fd.getAccountNumber(),
+                closeStep ? fd.getCurrentValue() : fd.getPrincipalAmount(), reason, LocalDateTime.now());
+
+        // A lost send leaves the FD in PENDING / CLOSING, where the recovery job finds it
+        kafkaTemplate.send(fdSagaTopic, fd.getFdId().toString(), event).whenComplete((result, e) -> {
+            if (e != null) {
+                System.err.println("FdSagaOrchestrator: Failed to publish " + step + " for FD#" + fd.getFdId()
+                        + " - " + e.getMessage());
+            }
+        });
+    }
+}
@@ -1,25 +1,20 @@
 package com.bingbank.fixeddepositservice.service;
 
+import com.bingbank.fixeddepositservice.client.AccountServiceClient;
 import com.bingbank.fixeddepositservice.dto.*;
+import com.bingbank.fixeddepositservice.model.CompoundingFrequency;
 import com.bingbank.fixeddepositservice.model.FixedDeposit;
 import com.bingbank.fixeddepositservice.repository.FixedDepositRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.client.HttpClientErrorException;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -27,14 +22,22 @@ import java.util.stream.Collectors;
 @Service
 public class FixedDepositService {
 
+    static final String FD_COUNTERPARTY = "FIXED_DEPOSIT";
+
     @Autowired
     private FixedDepositRepository fdRepository;
 
     @Autowired
-    private RestTemplate restTemplate;
+    private AccountServiceClient accountServiceClient;
+
+    @Autowired
+    private InterestCalculator interestCalculator;
+
+    @Autowired
+    private RateTableService rateTableService;
 
-    @Value("${app.fd.interest-rate}")
-    private Double interestRate;
+    @Autowired
+    private FdSagaOrchestrator sagaOrchestrator;
 
     /**
      * Get all active FDs for a customer
@@ -61,9 +64,9 @@ public class FixedDepositService {
     }
 
     /**
-     * Create a new FD
+     * Request a new FD. The FD is saved as PENDING and becomes ACTIVE once
+     * FdSagaOrchestrator has debited the account.
      */
-    @Transactional
     public FixedDepositDTO createFD(CreateFDRequest request, String authHeader) {
         System.out.println("FDService: Creating FD for customer: " + request.getCustomerId());
         
@@ -72,49 +75,44 @@ public class FixedDepositService {
             throw new RuntimeException("Minimum FD amount is $100");
         }
         
-        // Verify account balance
+        // Fail fast on balance; the debit itself re-checks it
         if (!verifyAccountBalance(request.getAccountNumber(), request.getPrincipalAmount(), authHeader)) {
             throw new RuntimeException("Insufficient balance in account");
         }
         
-        // Calculate maturity details
+        // Price from the rate tier matching amount and tenure
+        RateTable.Tier tier = rateTableService.lookup(request.getPrincipalAmount(), request.getTenureYears());
         LocalDate startDate = LocalDate.now();
         LocalDate maturityDate = startDate.plusYears(request.getTenureYears());
-        BigDecimal maturityAmount = calculateMaturityAmount(
-                request.getPrincipalAmount(), 
-                request.getTenureYears()
-        );
+        BigDecimal maturityAmount = tier.maturityAmount(request.getPrincipalAmount(), request.getTenureYears());
         
         // Create FD
         FixedDeposit fd = new FixedDeposit();
         fd.setCustomerId(request.getCustomerId());
         fd.setAccountNumber(request.getAccountNumber());
         fd.setPrincipalAmount(request.getPrincipalAmount());
-        fd.setInterestRate(BigDecimal.valueOf(interestRate));
+        fd.setInterestRate(tier.getAnnualRate());
+        fd.setCompoundingFrequency(tier.getFrequency().name());
         fd.setTenureYears(request.getTenureYears());
         fd.setStartDate(startDate);
         fd.setMaturityDate(maturityDate);
         fd.setMaturityAmount(maturityAmount);
         fd.setCurrentValue(request.getPrincipalAmount());
-        fd.setStatus("ACTIVE");
+        fd.setAccruedThrough(startDate);
+        fd.setStatus("PENDING");
         
         FixedDeposit savedFD = fdRepository.save(fd);
-        System.out.println("FDService: FD created with ID: " + savedFD.getFdId());
+        System.out.println("FDService: FD requested with ID: " + savedFD.getFdId());
         
-        // Debit from account
-        debitFromAccount(request.getAccountNumber(), request.getPrincipalAmount(), savedFD.getFdId(), authHeader);
-        
-        // Create transaction entry
-        createTransaction(request.getAccountNumber(), request.getPrincipalAmount(), "DEBIT", 
-                "FD Opening - FD#" + savedFD.getFdId(), authHeader);
+        sagaOrchestrator.openRequested(savedFD);
         
         return mapToDTO(savedFD);
     }
 
     /**
-     * Close an existing FD
+     * Request closing an FD. It is valued as of today and moves to CLOSING;
+     * FdSagaOrchestrator credits the account and marks it CLOSED.
      */
-    @Transactional
     public FixedDepositDTO closeFD(CloseFDRequest request, String authHeader) {
         System.out.println("FDService: Closing FD: " + request.getFdId());
         
@@ -126,28 +124,27 @@ public class FixedDepositService {
         }
         
         if (!"ACTIVE".equals(fd.getStatus())) {
-            throw new RuntimeException("FD is already closed");
+            throw new RuntimeException("FD is not active");
         }
         
-        // Calculate current value
-        BigDecimal currentValue = calculateCurrentValue(fd);
+        // Value as of today, not the last nightly accrual
+        LocalDate today = LocalDate.now();
+        BigDecimal currentValue = calculateValueAtDate(fd, today);
+        LocalDateTime closedAt = LocalDateTime.now();
         
-        // Update FD status
-        fd.setStatus("CLOSED");
+        // Conditional on ACTIVE, so two concurrent close requests cannot both pay out
+        if (fdRepository.markClosing(fd.getFdId(), currentValue, today, closedAt) == 0) {
+            throw new RuntimeException("FD is not active");
+        }
+        fd.setStatus("CLOSING");
         fd.setCurrentValue(currentValue);
-        fd.setClosedAt(LocalDateTime.now());
+        fd.setAccruedThrough(today);
+        fd.setClosedAt(closedAt);
+        System.out.println("FDService: FD closing with current value: " + currentValue);
         
-        FixedDeposit closedFD = fdRepository.save(fd);
-        System.out.println("FDService: FD closed with current value: " + currentValue);
+        sagaOrchestrator.closeRequested(fd);
         
-        // Credit to account
-        creditToAccount(fd.getAccountNumber(), currentValue, fd.getFdId(), authHeader);
-        
-        // Create transaction entry
-        createTransaction(fd.getAccountNumber(), currentValue, "CREDIT", 
-                "FD Closing - FD#" + fd.getFdId(), authHeader);
-        
-        return mapToDTO(closedFD);
+        return mapToDTO(fd);
     }
 
     /**
@@ -188,6 +185,10 @@ public class FixedDepositService {
             monthsInterval = 24; // Every 2 years for 6+ years
         }
         
+        // Point values are table lookups against the rate's precomputed growth factors
+        long totalDays = ChronoUnit.DAYS.between(fd.getStartDate(), fd.getMaturityDate());
+        CompoundingFrequency frequency = CompoundingFrequency.of(fd.getCompoundingFrequency());
+        
         // Add start point
         growthPoints.add(new GrowthDataDTO.DataPoint(
                 fd.getStartDate(),
@@ -205,7 +206,8 @@ public class FixedDepositService {
             }
             
             long daysFromStart = ChronoUnit.DAYS.between(fd.getStartDate(), currentDate);
-            BigDecimal value = calculateValueAtDate(fd, currentDate);
+            BigDecimal value = interestCalculator.valueAfterDays(fd.getPrincipalAmount(), fd.getInterestRate(),
+                    frequency, daysFromStart, totalDays, fd.getMaturityAmount());
             
             growthPoints.add(new GrowthDataDTO.DataPoint(
                     currentDate,
@@ -228,11 +230,10 @@ public class FixedDepositService {
         }
         
         // Add maturity point
-        long daysFromStart = ChronoUnit.DAYS.between(fd.getStartDate(), fd.getMaturityDate());
         growthPoints.add(new GrowthDataDTO.DataPoint(
                 fd.getMaturityDate(),
                 fd.getMaturityAmount(),
-                (int) daysFromStart
+                (int) totalDays
         ));
         
         growthData.setGrowthPoints(growthPoints);
@@ -241,152 +242,63 @@ public class FixedDepositService {
     }
 
     /**
-     * Calculate maturity amount using compound interest
-     * A = P(1 + r)^t
+     * Quote a prospective FD from the current rate table
      */
-    private BigDecimal calculateMaturityAmount(BigDecimal principal, Integer years) {
-        double p = principal.doubleValue();
-        double r = interestRate;
-        int t = years;
-        
-        double amount = p * Math.pow(1 + r, t);
-        
-        return BigDecimal.valueOf(amount).setScale(2, RoundingMode.HALF_UP);
+    public FDQuoteDTO quote(BigDecimal amount, Integer tenureYears) {
+        if (amount == null || amount.compareTo(BigDecimal.valueOf(100)) < 0) {
+            throw new RuntimeException("Minimum FD amount is $100");
+        }
+        if (tenureYears == null || tenureYears < 1) {
+            throw new RuntimeException("Tenure must be at least 1 year");
+        }
+
+        RateTable.Tier tier = rateTableService.lookup(amount, tenureYears);
+
+        FDQuoteDTO quote = new FDQuoteDTO();
+        quote.setPrincipalAmount(amount);
+        quote.setTenureYears(tenureYears);
+        quote.setInterestRate(tier.getAnnualRate());
+        quote.setCompoundingFrequency(tier.getFrequency().name());
+        quote.setEffectiveAnnualRate(tier.effectiveAnnualRate());
+        quote.setMaturityAmount(tier.maturityAmount(amount, tenureYears));
+        quote.setMaturityDate(LocalDate.now().plusYears(tenureYears));
+        return quote;
     }
 
     /**
-     * Calculate current value of FD
+     * Current value of FD, as maintained by the daily InterestAccrualService
      */
     private BigDecimal calculateCurrentValue(FixedDeposit fd) {
-        if ("CLOSED".equals(fd.getStatus())) {
-            return fd.getCurrentValue();
-        }
-        
-        return calculateValueAtDate(fd, LocalDate.now());
+        return fd.getCurrentValue();
     }
 
     /**
      * Calculate value at a specific date
      */
     private BigDecimal calculateValueAtDate(FixedDeposit fd, LocalDate date) {
-        long totalDays = ChronoUnit.DAYS.between(fd.getStartDate(), fd.getMaturityDate());
-        long elapsedDays = ChronoUnit.DAYS.between(fd.getStartDate(), date);
-        
-        if (elapsedDays <= 0) {
-            return fd.getPrincipalAmount();
-        }
-        
-        if (elapsedDays >= totalDays) {
-            return fd.getMaturityAmount();
-        }
-        
-        // Calculate proportional compound interest
-        double yearsElapsed = elapsedDays / 365.0;
-        double p = fd.getPrincipalAmount().doubleValue();
-        double r = fd.getInterestRate().doubleValue();
-        
-        double currentValue = p * Math.pow(1 + r, yearsElapsed);
-        
-        return BigDecimal.valueOf(currentValue).setScale(2, RoundingMode.HALF_UP);
+        return interestCalculator.valueAt(fd.getPrincipalAmount(), fd.getInterestRate(),
+                CompoundingFrequency.of(fd.getCompoundingFrequency()), fd.getStartDate(),
+                fd.getMaturityDate(), fd.getMaturityAmount(), date);
     }
 
     /**
      * Verify if account has sufficient balance
      */
     private boolean verifyAccountBalance(String accountNumber, BigDecimal amount, String authHeader) {
+        Map<String, Object> account;
         try {
-            String url = "http://localhost:8082/api/accounts/" + accountNumber;
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("Authorization", authHeader);
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-            
-            ResponseEntity<Map> response = restTemplate.exchange(url, HttpMethod.GET, entity, Map.class);
-            
-            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                Object balanceObj = response.getBody().get("balance");
-                BigDecimal balance = new BigDecimal(balanceObj.toString());
-                return balance.compareTo(amount) >= 0;
-            }
-        } catch (Exception e) {
+            account = accountServiceClient.getAccount(accountNumber, authHeader);
+        } catch (HttpClientErrorException e) {
             System.err.println("Error verifying account balance: " + e.getMessage());
+            return false;
         }
-        return false;
-    }
-
-    /**
-     * Debit amount from account
-     */
-    private void debitFromAccount(String accountNumber, BigDecimal amount, Long fdId, String authHeader) {
-        try {
-            String url = "http://localhost:8082/api/accounts/" + accountNumber + "/debit";
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("Authorization", authHeader);
-            headers.set("Content-Type", "application/json");
-            
-            Map<String, Object> request = new HashMap<>();
-            request.put("amount", amount);
-            request.put("description", "FD Opening - FD#" + fdId);
-            
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(request, headers);
-            restTemplate.exchange(url, HttpMethod.POST, entity, Map.class);
-            
-            System.out.println("Debited " + amount + " from account: " + accountNumber);
-        } catch (Exception e) {
-            System.err.println("Error debiting from account: " + e.getMessage());
-            throw new RuntimeException("Failed to debit from account");
-        }
-    }
-
-    /**
-     * Credit amount to account
-     */
-    private void creditToAccount(String accountNumber, BigDecimal amount, Long fdId, String authHeader) {
-        try {
-            String url = "http://localhost:8082/api/accounts/" + accountNumber + "/credit";
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("Authorization", authHeader);
-            headers.set("Content-Type", "application/json");
-            
-            Map<String, Object> request = new HashMap<>();
-            request.put("amount", amount);
-            request.put("description", "FD Closing - FD#" + fdId);
-            
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(request, headers);
-            restTemplate.exchange(url, HttpMethod.POST, entity, Map.class);
-            
-            System.out.println("Credited " + amount + " to account: " + accountNumber);
-        } catch (Exception e) {
-            System.err.println("Error crediting to account: " + e.getMessage());
-            throw new RuntimeException("Failed to credit to account");
-        }
-    }
 
-    /**
-     * Create transaction entry
-     */
-    private void createTransaction(String accountNumber, BigDecimal amount, String type, String description, String authHeader) {
-        try {
-            String url = "http://localhost:8083/api/transactions/create";
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("Authorization", authHeader);
-            headers.set("Content-Type", "application/json");
-            
-            Map<String, Object> request = new HashMap<>();
-            request.put("accountNumber", accountNumber);
-            request.put("amount", amount);
-            request.put("transactionType", type);
-            request.put("sourceAccountNumber", accountNumber);
-            request.put("targetAccountNumber", "FIXED_DEPOSIT");
-            request.put("description", description);
-            
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(request, headers);
-            restTemplate.exchange(url, HttpMethod.POST, entity, Map.class);
-            
-            System.out.println("Created " + type + " transaction for account: " + accountNumber);
-        } catch (Exception e) {
-            System.err.println("Error creating transaction: " + e.getMessage());
-            // Don't throw exception as transaction is secondary
+        Object balanceObj = account.get("balance");
+        if (balanceObj == null) {
+            return false;
         }
+        BigDecimal balance = new BigDecimal(balanceObj.toString());
+        return balance.compareTo(amount) >= 0;
     }
 
     /**
@@ -399,6 +311,7 @@ public class FixedDepositService {
         dto.setAccountNumber(fd.getAccountNumber());
         dto.setPrincipalAmount(fd.getPrincipalAmount());
         dto.setInterestRate(fd.getInterestRate());
+        dto.setCompoundingFrequency(CompoundingFrequency.of(fd.getCompoundingFrequency()).name());
         dto.setTenureYears(fd.getTenureYears());
         dto.setStartDate(fd.getStartDate());
         dto.setMaturityDate(fd.getMaturityDate());
@@ -408,10 +321,12 @@ public class FixedDepositService {
         dto.setCreatedAt(fd.getCreatedAt());
         dto.setClosedAt(fd.getClosedAt());
         
-        // Calculate progress
+        // Calculate progress (FDs still in an open/close saga count up to today)
+        boolean running = "ACTIVE".equals(fd.getStatus()) || "PENDING".equals(fd.getStatus())
+                || "CLOSING".equals(fd.getStatus());
         long totalDays = ChronoUnit.DAYS.between(fd.getStartDate(), fd.getMaturityDate());
         long elapsedDays = ChronoUnit.DAYS.between(fd.getStartDate(), 
-                "ACTIVE".equals(fd.getStatus()) ? LocalDate.now() : fd.getMaturityDate());
+                running ? LocalDate.now() : fd.getMaturityDate());
         
         dto.setDaysElapsed((int) Math.max(0, elapsedDays));
         dto.setTotalDays((int) totalDays);
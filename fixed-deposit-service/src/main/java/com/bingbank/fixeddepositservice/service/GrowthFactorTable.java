@@ -0,0 +1,40 @@
+package com.bingbank.fixeddepositservice.service;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+/**
+ * Immutable table of growth factors for one daily factor: factors[d] = dailyFactor^d.
+ * Built once by cumulative multiplication, so valuing an FD on any day inside
+ * the table is a single multiply. Days beyond the table fall back to pow().
+ */
+public class GrowthFactorTable {
+
+    private final BigDecimal dailyFactor;
+    private final BigDecimal[] factors;
+    private final MathContext mathContext;
+
+    public GrowthFactorTable(BigDecimal dailyFactor, int maxDays, MathContext mathContext) {
+        this.dailyFactor = dailyFactor;
+        this.mathContext = mathContext;
+        this.factors = new BigDecimal[maxDays + 1];
+        factors[0] = BigDecimal.ONE;
+        for (int day = 1; day <= maxDays; day++) {
+            factors[day] = factors[day - 1].multiply(dailyFactor, mathContext);
+        }
+    }
+
+    /**
+     * dailyFactor^days
+     */
+    public BigDecimal factor(int days) {
+        if (days < factors.length) {
+            return factors[days];
+        }
+        return dailyFactor.pow(days, mathContext);
+    }
+
+    public int getMaxDays() {
+        return factors.length - 1;
+    }
+}
@@ -0,0 +1,188 @@
+package com.bingbank.fixeddepositservice.service;
+
+import com.bingbank.fixeddepositservice.model.CompoundingFrequency;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Daily interest accrual for active FDs.
+ *
+ * Once a day current_value of every ACTIVE FD is advanced to today (or its
+ * maturity date) and accrued_through records how far it got, so reads are a
+ * plain column load. FDs are walked in fd_id order in chunks; each chunk is
+ * valued and written with one JDBC batch update on a small worker pool.
+ * A run only touches rows not yet accrued to the target date, so an
+ * interrupted run simply resumes where it stopped.
+ */
+@Service
+public class InterestAccrualService {
+
+    private static final String SELECT_CHUNK =
+            "SELECT fd_id, principal_amount, interest_rate, compounding_frequency, start_date, maturity_date, maturity_amount " +
+            "FROM fixed_deposits WHERE status = 'ACTIVE' AND fd_id > ? " +
+            "AND (accrued_through IS NULL OR accrued_through < LEAST(?, maturity_date)) " +
+            "ORDER BY fd_id LIMIT ?";
+
+    private static final String UPDATE_VALUE =
+            "UPDATE fixed_deposits SET current_value = ?, accrued_through = ? " +
+            "WHERE fd_id = ? AND status = 'ACTIVE'";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private InterestCalculator interestCalculator;
+
+    @Value("${app.fd.accrual.chunk-size:1000}")
+    private int chunkSize;
+
+    private final ExecutorService workers;
+    private final int threads;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    public InterestAccrualService(@Value("${app.fd.accrual.threads:4}") int threads) {
+        this.threads = threads;
+        this.workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "fd-accrual");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Catch up on startup in case the service was down at the scheduled time
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void accrueOnStartup() {
+        accrueDaily();
+    }
+
+    @Scheduled(cron = "${app.fd.accrual.cron:0 5 0 * * *}")
+    public void accrueDaily() {
+        if (!running.compareAndSet(false, true)) {
+            System.out.println("InterestAccrualService: Accrual already running, skipping");
+            return;
+        }
+        try {
+            accrueThrough(LocalDate.now());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Advance every active FD to the given date. Returns the number of FDs updated.
+     */
+    public int accrueThrough(LocalDate date) {
+        long start = System.currentTimeMillis();
+        Date target = Date.valueOf(date);
+        List<Future<Integer>> pending = new ArrayList<>();
+        int updated = 0;
+        long lastFdId = 0;
+
+        while (true) {
+            List<AccrualRow> chunk = jdbcTemplate.query(SELECT_CHUNK, (rs, rowNum) -> new AccrualRow(
+                    rs.getLong("fd_id"),
+                    rs.getBigDecimal("principal_amount"),
+                    rs.getBigDecimal("interest_rate"),
+                    CompoundingFrequency.of(rs.getString("compounding_frequency")),
+                    rs.getDate("start_date").toLocalDate(),
+                    rs.getDate("maturity_date").toLocalDate(),
+                    rs.getBigDecimal("maturity_amount")), lastFdId, target, chunkSize);
+            if (chunk.isEmpty()) {
+                break;
+            }
+            lastFdId = chunk.get(chunk.size() - 1).fdId;
+            pending.add(workers.submit(() -> accrueChunk(chunk, date)));
+
+            // Keep at most one chunk queued per worker
+            if (pending.size() >= threads * 2) {
+                updated += await(pending.remove(0));
+            }
+            if (chunk.size() < chunkSize) {
+                break;
+            }
+        }
+        for (Future<Integer> future : pending) {
+            updated += await(future);
+        }
+
+        long elapsed = Math.max(System.currentTimeMillis() - start, 1);
+        if (updated > 0) {
+            System.out.println("InterestAccrualService: Accrued " + updated + " FDs through " + date + " in "
+                    + elapsed + " ms (" + (updated * 1000L / elapsed) + " FDs/sec)");
+        }
+        return updated;
+    }
+
+    private int accrueChunk(List<AccrualRow> chunk, LocalDate date) {
+        List<Object[]> updates = new ArrayList<>(chunk.size());
+        for (AccrualRow row : chunk) {
+            LocalDate accruedThrough = date.isBefore(row.maturityDate) ? date : row.maturityDate;
+            BigDecimal value = interestCalculator.valueAt(row.principal, row.rate, row.frequency, row.startDate,
+                    row.maturityDate, row.maturityAmount, accruedThrough);
+            updates.add(new Object[] { value, Date.valueOf(accruedThrough), row.fdId });
+        }
+        int[] counts = jdbcTemplate.batchUpdate(UPDATE_VALUE, updates);
+        int updated = 0;
+        for (int count : counts) {
+            updated += Math.max(count, 0);
+        }
+        return updated;
+    }
+
+    private int await(Future<Integer> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted during interest accrual");
+        } catch (Exception e) {
+            // The failed chunk stays behind accrued_through and is retried on the next run
+            System.err.println("InterestAccrualService: Chunk failed - " + e.getMessage());
+            return 0;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    private static class AccrualRow {
+        final long fdId;
+        final BigDecimal principal;
+        final BigDecimal rate;
+        final CompoundingFrequency frequency;
+        final LocalDate startDate;
+        final LocalDate maturityDate;
+        final BigDecimal maturityAmount;
+
+        AccrualRow(long fdId, BigDecimal principal, BigDecimal rate, CompoundingFrequency frequency,
+                   LocalDate startDate, LocalDate maturityDate, BigDecimal maturityAmount) {
+            this.fdId = fdId;
+            this.principal = principal;
+            this.rate = rate;
+            this.frequency = frequency;
+            this.startDate = startDate;
+            this.maturityDate = maturityDate;
+            this.maturityAmount = maturityAmount;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.bingbank.fixeddepositservice.service;
+
+import com.bingbank.fixeddepositservice.model.CompoundingFrequency;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Exact FD valuation: value = principal * (1 + effectiveRate)^(days / 365),
+ * where effectiveRate = (1 + rate/n)^n - 1 for the FD's compounding frequency.
+ *
+ * The daily growth factor (1 + effectiveRate)^(1/365) is solved once per rate
+ * to 34 significant digits (Newton iteration on x^365 = 1 + effectiveRate), so
+ * a value on any day is principal * factor^days in BigDecimal with a single
+ * rounding to cents at the end. Values never drift, however many days are accrued.
+ *
+ * factor^days comes from a GrowthFactorTable per rate and frequency (built when
+ * the rate table is loaded, on first use for any other), so growth curves and
+ * accrual are one multiply per value.
+ */
+@Component
+public class InterestCalculator {
+
+    private static final MathContext MC = MathContext.DECIMAL128;
+    private static final int DAYS_PER_YEAR = 365;
+
+    private final Map<CompoundingFrequency, Map<BigDecimal, GrowthFactorTable>> growthTables =
+            new EnumMap<>(CompoundingFrequency.class);
+
+    @Value("${app.fd.growth-table.max-days:3700}")
+    private int growthTableMaxDays;
+
+    public InterestCalculator() {
+        for (CompoundingFrequency frequency : CompoundingFrequency.values()) {
+            growthTables.put(frequency, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Value of an FD on the given date, capped at the maturity amount
+     */
+    public BigDecimal valueAt(BigDecimal principal, BigDecimal annualRate, CompoundingFrequency frequency,
+                              LocalDate startDate, LocalDate maturityDate, BigDecimal maturityAmount, LocalDate date) {
+        return valueAfterDays(principal, annualRate, frequency, ChronoUnit.DAYS.between(startDate, date),
+                ChronoUnit.DAYS.between(startDate, maturityDate), maturityAmount);
+    }
+
+    /**
+     * Value of an FD after elapsedDays of totalDays, capped at the maturity amount
+     */
+    public BigDecimal valueAfterDays(BigDecimal principal, BigDecimal annualRate, CompoundingFrequency frequency,
+                                     long elapsedDays, long totalDays, BigDecimal maturityAmount) {
+        if (elapsedDays >= totalDays) {
+            return maturityAmount;
+        }
+        if (elapsedDays <= 0) {
+            return principal;
+        }
+        return principal.multiply(growthTable(annualRate, frequency).factor((int) elapsedDays), MC)
+                .setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Growth factors by elapsed day for a nominal rate and compounding frequency
+     */
+    public GrowthFactorTable growthTable(BigDecimal annualRate, CompoundingFrequency frequency) {
+        return growthTables.get(frequency).computeIfAbsent(annualRate.stripTrailingZeros(), rate -> {
+            long start = System.currentTimeMillis();
+            GrowthFactorTable table = new GrowthFactorTable(
+                    solveDailyFactor(effectiveAnnualRate(rate, frequency)), growthTableMaxDays, MC);
+            System.out.println("InterestCalculator: Growth table for " + rate + " " + frequency + " ("
+                    + growthTableMaxDays + " days) built in " + (System.currentTimeMillis() - start) + " ms");
+            return table;
+        });
+    }
+
+    /**
+     * (1 + rate/n)^n - 1
+     */
+    private static BigDecimal effectiveAnnualRate(BigDecimal annualRate, CompoundingFrequency frequency) {
+        int n = frequency.getPeriodsPerYear();
+        return BigDecimal.ONE.add(annualRate.divide(BigDecimal.valueOf(n), MC), MC)
+                .pow(n, MC).subtract(BigDecimal.ONE, MC);
+    }
+
+    /**
+     * (1 + rate)^(1/365) to 34 significant digits
+     */
+    private static BigDecimal solveDailyFactor(BigDecimal annualRate) {
+        BigDecimal target = BigDecimal.ONE.add(annualRate);
+        BigDecimal n = BigDecimal.valueOf(DAYS_PER_YEAR);
+        BigDecimal x = new BigDecimal(Math.pow(target.doubleValue(), 1.0 / DAYS_PER_YEAR), MC);
+
+        // Newton: x <- x - (x^n - target) / (n * x^(n-1)); the double seed converges in a few steps
+        for (int i = 0; i < 20; i++) {
+            BigDecimal xPowNMinus1 = x.pow(DAYS_PER_YEAR - 1, MC);
+            BigDecimal delta = x.multiply(xPowNMinus1, MC).subtract(target, MC)
+                    .divide(n.multiply(xPowNMinus1, MC), MC);
+            x = x.subtract(delta, MC);
+            if (delta.signum() == 0 || delta.abs().compareTo(BigDecimal.ONE.movePointLeft(MC.getPrecision())) < 0) {
+                break;
+            }
+        }
+        return x;
+    }
+}
@@ -0,0 +1,163 @@
+package com.bingbank.fixeddepositservice.service;
+
+import com.bingbank.fixeddepositservice.client.AccountServiceClient;
+import com.bingbank.fixeddepositservice.model.FixedDeposit;
+import com.bingbank.fixeddepositservice.repository.FixedDepositRepository;
+import com.bingbank.fixeddepositservice.security.ServiceTokenProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Pays out matured FDs automatically.
+ *
+ * Due FDs are found through idx_fd_status_maturity and handled in chunks:
+ * a chunk is first checkpointed as MATURING (valued at its maturity amount),
+ * then credited with one batch call to account-service, then marked MATURED.
+ * Posting ids are derived from the FD id, so after a crash the MATURING
+ * chunk is simply posted again and account-service skips what it already
+ * applied. If account-service rejects a chunk, its FDs are paid one by one
+ * and only the rejected ones are set aside as PAYOUT_FAILED, so one bad FD
+ * does not hold up the others. Any other failure (account-service down)
+ * stops the run; the next run resumes from the MATURING rows.
+ */
+@Service
+public class MaturityProcessingService {
+
+    private static final String POSTING_PREFIX = "FD-MATURITY-";
+
+    @Autowired
+    private FixedDepositRepository fdRepository;
+
+    @Autowired
+    private AccountServiceClient accountServiceClient;
+
+    @Autowired
+    private ServiceTokenProvider serviceTokenProvider;
+
+    @Value("${app.fd.maturity.chunk-size:200}")
+    private int chunkSize;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    /**
+     * Finish any payout interrupted by a restart
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void processOnStartup() {
+        processMaturities();
+    }
+
+    @Scheduled(cron = "${app.fd.maturity.cron:0 30 0 * * *}")
+    public void processMaturities() {
+        if (!running.compareAndSet(false, true)) {
+            System.out.println("MaturityProcessingService: Maturity run already in progress, skipping");
+            return;
+        }
+        try {
+            processMaturitiesThrough(LocalDate.now());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Pay out every FD maturing on or before the given date. Returns the number paid out.
+     */
+    public int processMaturitiesThrough(LocalDate date) {
+        long start = System.currentTimeMillis();
+        String authHeader = serviceTokenProvider.generateServiceToken();
+        int paidOut = 0;
+
+        while (true) {
+            // Resume checkpointed chunks first
+            List<FixedDeposit> maturing = fdRepository.findByStatusOrderByFdId("MATURING", PageRequest.of(0, chunkSize));
+            if (!maturing.isEmpty()) {
+                try {
+                    paidOut += payOut(maturing, authHeader);
+                } catch (Exception e) {
+                    System.err.println("MaturityProcessingService: Payout failed, will resume on next run - "
+                            + e.getMessage());
+                    break;
+                }
+                continue;
+            }
+
+            List<FixedDeposit> due = fdRepository.findDueForMaturity(date, PageRequest.of(0, chunkSize));
+            if (due.isEmpty()) {
+                break;
+            }
+            fdRepository.markMaturing(due.stream().map(FixedDeposit::getFdId).collect(Collectors.toList()));
+        }
+
+        if (paidOut > 0) {
+            System.out.println("MaturityProcessingService: Paid out " + paidOut + " matured FDs in "
+                    + (System.currentTimeMillis() - start) + " ms");
+        }
+        return paidOut;
+    }
+
+    private int payOut(List<FixedDeposit> fds, String authHeader) {
+        List<Map<String, Object>> postings = new ArrayList<>(fds.size());
+        for (FixedDeposit fd : fds) {
+            postings.add(posting(fd));
+        }
+
+        try {
+            accountServiceClient.postBatch(postings, authHeader);
+        } catch (HttpClientErrorException e) {
+            if (!AccountServiceClient.isRejection(e)) {
+                throw e;
+            }
+            // The whole batch was rolled back because of some of its FDs: find them
+            return payOutOneByOne(fds, authHeader);
+        }
+        return fdRepository.markMatured(fds.stream().map(FixedDeposit::getFdId).collect(Collectors.toList()),
+                LocalDateTime.now());
+    }
+
+    private int payOutOneByOne(List<FixedDeposit> fds, String authHeader) {
+        int paidOut = 0;
+        for (FixedDeposit fd : fds) {
+            try {
+                accountServiceClient.postBatch(List.of(posting(fd)), authHeader);
+            } catch (HttpClientErrorException e) {
+                if (!AccountServiceClient.isRejection(e)) {
+                    throw e;
+                }
+                System.err.println("MaturityProcessingService: Payout of FD#" + fd.getFdId()
+                        + " rejected, marked PAYOUT_FAILED - " + e.getResponseBodyAsString());
+                fdRepository.transitionStatus(fd.getFdId(), "MATURING", "PAYOUT_FAILED");
+                continue;
+            }
+            paidOut += fdRepository.markMatured(List.of(fd.getFdId()), LocalDateTime.now());
+        }
+        return paidOut;
+    }
+
+    private Map<String, Object> posting(FixedDeposit fd) {
+        Map<String, Object> posting = new HashMap<>();
+        posting.put("postingId", POSTING_PREFIX + fd.getFdId());
+        posting.put("accountNumber", fd.getAccountNumber());
+        posting.put("transactionType", "CREDIT");
+        posting.put("amount", fd.getCurrentValue());
+        posting.put("description", "FD Maturity - FD#" + fd.getFdId());
+        posting.put("sourceAccountNumber", fd.getAccountNumber());
+        posting.put("targetAccountNumber", FixedDepositService.FD_COUNTERPARTY);
+        return posting;
+    }
+}
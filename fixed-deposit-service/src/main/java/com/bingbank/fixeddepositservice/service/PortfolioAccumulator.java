@@ -0,0 +1,86 @@
+package com.bingbank.fixeddepositservice.service;
+
+import com.bingbank.fixeddepositservice.dto.FDPortfolioDTO;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Mutable container for reducing FDs into portfolio totals and a monthly
+ * maturity ladder. add() and merge() make it usable as a Stream collector,
+ * so a parallel stream reduces disjoint slices and merges the partial results.
+ * Not thread-safe; each fork-join leaf gets its own instance.
+ */
+class PortfolioAccumulator {
+
+    private long fdCount;
+    private BigDecimal principal = BigDecimal.ZERO;
+    private BigDecimal currentValue = BigDecimal.ZERO;
+    private BigDecimal maturityAmount = BigDecimal.ZERO;
+    private BigDecimal rateWeightedPrincipal = BigDecimal.ZERO;
+    private final TreeMap<YearMonth, Bucket> ladder = new TreeMap<>();
+
+    void add(BigDecimal principal, BigDecimal currentValue, BigDecimal maturityAmount,
+             BigDecimal interestRate, LocalDate maturityDate) {
+        fdCount++;
+        this.principal = this.principal.add(principal);
+        this.currentValue = this.currentValue.add(currentValue);
+        this.maturityAmount = this.maturityAmount.add(maturityAmount);
+        this.rateWeightedPrincipal = this.rateWeightedPrincipal.add(principal.multiply(interestRate));
+
+        Bucket bucket = ladder.computeIfAbsent(YearMonth.from(maturityDate), month -> new Bucket());
+        bucket.fdCount++;
+        bucket.principal = bucket.principal.add(principal);
+        bucket.maturityAmount = bucket.maturityAmount.add(maturityAmount);
+    }
+
+    void merge(PortfolioAccumulator other) {
+        fdCount += other.fdCount;
+        principal = principal.add(other.principal);
+        currentValue = currentValue.add(other.currentValue);
+        maturityAmount = maturityAmount.add(other.maturityAmount);
+        rateWeightedPrincipal = rateWeightedPrincipal.add(other.rateWeightedPrincipal);
+
+        for (Map.Entry<YearMonth, Bucket> entry : other.ladder.entrySet()) {
+            Bucket bucket = ladder.computeIfAbsent(entry.getKey(), month -> new Bucket());
+            bucket.fdCount += entry.getValue().fdCount;
+            bucket.principal = bucket.principal.add(entry.getValue().principal);
+            bucket.maturityAmount = bucket.maturityAmount.add(entry.getValue().maturityAmount);
+        }
+    }
+
+    FDPortfolioDTO toDTO(Long customerId) {
+        FDPortfolioDTO dto = new FDPortfolioDTO();
+        dto.setCustomerId(customerId);
+        dto.setFdCount(fdCount);
+        dto.setTotalPrincipal(principal);
+        dto.setTotalCurrentValue(currentValue);
+        dto.setTotalMaturityAmount(maturityAmount);
+        dto.setAccruedInterest(currentValue.subtract(principal));
+        dto.setProjectedInterest(maturityAmount.subtract(principal));
+        dto.setWeightedAverageRate(principal.signum() == 0 ? BigDecimal.ZERO
+                : rateWeightedPrincipal.divide(principal, MathContext.DECIMAL64).setScale(6, RoundingMode.HALF_UP));
+
+        List<FDPortfolioDTO.MaturityBucket> buckets = new ArrayList<>(ladder.size());
+        for (Map.Entry<YearMonth, Bucket> entry : ladder.entrySet()) {
+            Bucket bucket = entry.getValue();
+            buckets.add(new FDPortfolioDTO.MaturityBucket(entry.getKey().toString(), bucket.fdCount,
+                    bucket.principal, bucket.maturityAmount));
+        }
+        dto.setMaturityLadder(buckets);
+        return dto;
+    }
+
+    private static class Bucket {
+        long fdCount;
+        BigDecimal principal = BigDecimal.ZERO;
+        BigDecimal maturityAmount = BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,111 @@
+package com.bingbank.fixeddepositservice.service;
+
+import com.bingbank.fixeddepositservice.dto.FDPortfolioDTO;
+import com.bingbank.fixeddepositservice.model.FixedDeposit;
+import com.bingbank.fixeddepositservice.repository.FixedDepositRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Aggregate projections over active FDs: totals, accrued and projected
+ * interest, principal-weighted rate and a monthly maturity ladder.
+ *
+ * Values come from the columns kept current by InterestAccrualService, so a
+ * projection is a pure reduction with no interest math per FD. The bank-wide
+ * ladder walks fixed_deposits in fd_id order in chunks with plain JDBC rows
+ * (no entities) and reduces each chunk on the common fork-join pool.
+ */
+@Service
+public class PortfolioService {
+
+    private static final String SELECT_CHUNK =
+            "SELECT fd_id, principal_amount, current_value, maturity_amount, interest_rate, maturity_date " +
+            "FROM fixed_deposits WHERE status = 'ACTIVE' AND fd_id > ? ORDER BY fd_id LIMIT ?";
+
+    @Autowired
+    private FixedDepositRepository fdRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.fd.portfolio.chunk-size:20000}")
+    private int chunkSize;
+
+    /**
+     * Portfolio of one customer's active FDs
+     */
+    public FDPortfolioDTO getCustomerPortfolio(Long customerId) {
+        System.out.println("PortfolioService: Building portfolio for customer: " + customerId);
+        List<FixedDeposit> fds = fdRepository.findByCustomerIdAndStatus(customerId, "ACTIVE");
+
+        // A customer holds a handful of FDs; splitting them across threads would cost more than it saves
+        PortfolioAccumulator accumulator = new PortfolioAccumulator();
+        for (FixedDeposit fd : fds) {
+            accumulator.add(fd.getPrincipalAmount(), fd.getCurrentValue(), fd.getMaturityAmount(),
+                    fd.getInterestRate(), fd.getMaturityDate());
+        }
+        return accumulator.toDTO(customerId);
+    }
+
+    /**
+     * Bank-wide maturity liability ladder over all active FDs
+     */
+    public FDPortfolioDTO getMaturityLadder() {
+        long start = System.currentTimeMillis();
+        PortfolioAccumulator total = new PortfolioAccumulator();
+        long lastFdId = 0;
+
+        while (true) {
+            List<LadderRow> chunk = jdbcTemplate.query(SELECT_CHUNK, (rs, rowNum) -> new LadderRow(
+                    rs.getLong("fd_id"),
+                    rs.getBigDecimal("principal_amount"),
+                    rs.getBigDecimal("current_value"),
+                    rs.getBigDecimal("maturity_amount"),
+                    rs.getBigDecimal("interest_rate"),
+                    rs.getDate("maturity_date").toLocalDate()), lastFdId, chunkSize);
+            if (chunk.isEmpty()) {
+                break;
+            }
+            lastFdId = chunk.get(chunk.size() - 1).fdId;
+
+            total.merge(chunk.parallelStream().collect(PortfolioAccumulator::new,
+                    (acc, row) -> acc.add(row.principal, row.currentValue, row.maturityAmount,
+                            row.rate, row.maturityDate),
+                    PortfolioAccumulator::merge));
+
+            if (chunk.size() < chunkSize) {
+                break;
+            }
+        }
+
+        FDPortfolioDTO ladder = total.toDTO(null);
+        System.out.println("PortfolioService: Maturity ladder over " + ladder.getFdCount() + " FDs built in "
+                + (System.currentTimeMillis() - start) + " ms");
+        return ladder;
+    }
+
+    private static class LadderRow {
+        final long fdId;
+        final BigDecimal principal;
+        final BigDecimal currentValue;
+        final BigDecimal maturityAmount;
+        final BigDecimal rate;
+        final LocalDate maturityDate;
+
+        LadderRow(long fdId, BigDecimal principal, BigDecimal currentValue, BigDecimal maturityAmount,
+                  BigDecimal rate, LocalDate maturityDate) {
+            this.fdId = fdId;
+            this.principal = principal;
+            this.currentValue = currentValue;
+            this.maturityAmount = maturityAmount;
+            this.rate = rate;
+            this.maturityDate = maturityDate;
+        }
+    }
+}
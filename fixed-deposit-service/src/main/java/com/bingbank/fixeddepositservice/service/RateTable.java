@@ -0,0 +1,109 @@
+package com.bingbank.fixeddepositservice.service;
+
+import com.bingbank.fixeddepositservice.model.CompoundingFrequency;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable snapshot of the FD rate tiers.
+ *
+ * A tier applies when the tenure and the amount reach its minimums. Tiers are
+ * ordered by minimum tenure, then minimum amount (both descending), so the
+ * first match is the most specific tier. Every tier keeps its growth factor
+ * (1 + r/n)^(n*years) per whole year of tenure, so quoting a maturity amount
+ * is one lookup and one multiply with no allocation beyond the result.
+ */
+public class RateTable {
+
+    private static final MathContext MC = MathContext.DECIMAL128;
+
+    private final Tier[] tiers;
+
+    public RateTable(List<Tier> tiers) {
+        this.tiers = tiers.toArray(new Tier[0]);
+        Arrays.sort(this.tiers, Comparator.comparingInt(Tier::getMinTenureYears)
+                .thenComparing(Tier::getMinAmount).reversed());
+    }
+
+    /**
+     * Tier for a deposit, or null if no tier covers it
+     */
+    public Tier lookup(BigDecimal amount, int tenureYears) {
+        for (Tier tier : tiers) {
+            if (tenureYears >= tier.minTenureYears && amount.compareTo(tier.minAmount) >= 0) {
+                return tier;
+            }
+        }
+        return null;
+    }
+
+    public List<Tier> getTiers() {
+        return List.of(tiers);
+    }
+
+    public static class Tier {
+        private final BigDecimal minAmount;
+        private final int minTenureYears;
+        private final BigDecimal annualRate;
+        private final CompoundingFrequency frequency;
+        private final BigDecimal periodFactor;
+        private final BigDecimal[] yearFactors;
+
+        public Tier(BigDecimal minAmount, int minTenureYears, BigDecimal annualRate,
+                    CompoundingFrequency frequency, int precomputedYears) {
+            this.minAmount = minAmount;
+            this.minTenureYears = minTenureYears;
+            this.annualRate = annualRate;
+            this.frequency = frequency;
+            this.periodFactor = BigDecimal.ONE.add(
+                    annualRate.divide(BigDecimal.valueOf(frequency.getPeriodsPerYear()), MC), MC);
+
+            BigDecimal oneYear = periodFactor.pow(frequency.getPeriodsPerYear(), MC);
+            this.yearFactors = new BigDecimal[precomputedYears + 1];
+            yearFactors[0] = BigDecimal.ONE;
+            for (int year = 1; year <= precomputedYears; year++) {
+                yearFactors[year] = yearFactors[year - 1].multiply(oneYear, MC);
+            }
+        }
+
+        /**
+         * P * (1 + r/n)^(n * years), rounded to cents
+         */
+        public BigDecimal maturityAmount(BigDecimal principal, int years) {
+            BigDecimal factor = years < yearFactors.length
+                    ? yearFactors[years]
+                    : periodFactor.pow(frequency.getPeriodsPerYear() * years, MC);
+            return principal.multiply(factor, MC).setScale(2, RoundingMode.HALF_UP);
+        }
+
+        /**
+         * (1 + r/n)^n - 1
+         */
+        public BigDecimal effectiveAnnualRate() {
+            return yearFactors.length > 1
+                    ? yearFactors[1].subtract(BigDecimal.ONE)
+                    : periodFactor.pow(frequency.getPeriodsPerYear(), MC).subtract(BigDecimal.ONE);
+        }
+
+        public BigDecimal getMinAmount() {
+            return minAmount;
+        }
+
+        public int getMinTenureYears() {
+            return minTenureYears;
+        }
+
+        public BigDecimal getAnnualRate() {
+            return annualRate;
+        }
+
+        public CompoundingFrequency getFrequency() {
+            return frequency;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.bingbank.fixeddepositservice.service;
+
+import com.bingbank.fixeddepositservice.model.CompoundingFrequency;
+import com.bingbank.fixeddepositservice.model.FdRateTier;
+import com.bingbank.fixeddepositservice.repository.FdRateTierRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Holds the current RateTable built from the fd_rate_tiers table.
+ *
+ * The table is re-read periodically and a new immutable snapshot is swapped in
+ * only when the tiers changed, so rate updates take effect without a restart
+ * and pricing never sees a half-updated table. An empty tier table is seeded
+ * from app.fd.interest-rate / app.fd.compounding-frequency.
+ */
+@Service
+public class RateTableService {
+
+    @Autowired
+    private FdRateTierRepository rateTierRepository;
+
+    @Autowired
+    private InterestCalculator interestCalculator;
+
+    @Value("${app.fd.interest-rate}")
+    private BigDecimal defaultRate;
+
+    @Value("${app.fd.compounding-frequency:YEARLY}")
+    private String defaultFrequency;
+
+    @Value("${app.fd.rates.precomputed-tenure-years:30}")
+    private int precomputedTenureYears;
+
+    private volatile RateTable rateTable;
+    private volatile List<FdRateTier> loadedTiers;
+
+    @PostConstruct
+    public void initialize() {
+        if (rateTierRepository.count() == 0) {
+            rateTierRepository.save(new FdRateTier(null, BigDecimal.ZERO, 1, defaultRate,
+                    CompoundingFrequency.of(defaultFrequency).name()));
+            System.out.println("RateTableService: Seeded default rate tier " + defaultRate + " " + defaultFrequency);
+        }
+        reload();
+    }
+
+    /**
+     * Rebuild the rate table if the stored tiers changed
+     */
+    @Scheduled(fixedDelayString = "${app.fd.rates.refresh-interval-millis:60000}")
+    public void reload() {
+        List<FdRateTier> tiers = rateTierRepository.findAll();
+        if (tiers.equals(loadedTiers)) {
+            return;
+        }
+        if (tiers.isEmpty()) {
+            System.err.println("RateTableService: No rate tiers configured, keeping current table");
+            return;
+        }
+
+        List<RateTable.Tier> built = new ArrayList<>(tiers.size());
+        for (FdRateTier tier : tiers) {
+            CompoundingFrequency frequency = CompoundingFrequency.of(tier.getCompoundingFrequency());
+            built.add(new RateTable.Tier(tier.getMinAmount(), tier.getMinTenureYears(), tier.getAnnualRate(),
+                    frequency, precomputedTenureYears));
+            // Warm the daily growth table used for valuing FDs at this rate
+            interestCalculator.growthTable(tier.getAnnualRate(), frequency);
+        }
+
+        rateTable = new RateTable(built);
+        loadedTiers = tiers;
+        System.out.println("RateTableService: Loaded " + tiers.size() + " rate tiers");
+    }
+
+    public RateTable current() {
+        return rateTable;
+    }
+
+    /**
+     * Tier that prices a deposit of this amount and tenure
+     */
+    public RateTable.Tier lookup(BigDecimal amount, int tenureYears) {
+        RateTable.Tier tier = rateTable.lookup(amount, tenureYears);
+        if (tier == null) {
+            throw new RuntimeException("No FD rate available for this amount and tenure");
+        }
+        return tier;
+    }
+}
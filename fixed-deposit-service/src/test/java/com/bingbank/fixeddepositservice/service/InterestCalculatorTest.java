@@ -0,0 +1,78 @@
+package com.bingbank.fixeddepositservice.service;
+
+import com.bingbank.fixeddepositservice.model.CompoundingFrequency;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class InterestCalculatorTest {
+
+	private static final BigDecimal PRINCIPAL = new BigDecimal("1000");
+
+	@Test
+	void oneYearMatchesAnnualCompounding() {
+		InterestCalculator calculator = calculator(3700);
+
+		assertEquals(new BigDecimal("1100.00"), calculator.valueAfterDays(PRINCIPAL, new BigDecimal("0.10"),
+				CompoundingFrequency.YEARLY, 365, 730, new BigDecimal("1210.00")));
+		assertEquals(new BigDecimal("1126.83"), calculator.valueAfterDays(PRINCIPAL, new BigDecimal("0.12"),
+				CompoundingFrequency.MONTHLY, 365, 730, new BigDecimal("1269.73")));
+	}
+
+	@Test
+	void partialYearGrowsDaily() {
+		InterestCalculator calculator = calculator(3700);
+
+		assertEquals(new BigDecimal("1026.46"), calculator.valueAfterDays(PRINCIPAL, new BigDecimal("0.10"),
+				CompoundingFrequency.YEARLY, 100, 365, new BigDecimal("1100.00")));
+	}
+
+	@Test
+	void principalBeforeStartAndMaturityAmountAfterEnd() {
+		InterestCalculator calculator = calculator(3700);
+		BigDecimal maturityAmount = new BigDecimal("1331.00");
+		LocalDate start = LocalDate.of(2026, 1, 1);
+		LocalDate maturity = start.plusYears(3);
+
+		assertEquals(PRINCIPAL, calculator.valueAt(PRINCIPAL, new BigDecimal("0.10"), CompoundingFrequency.YEARLY,
+				start, maturity, maturityAmount, start));
+		assertEquals(maturityAmount, calculator.valueAt(PRINCIPAL, new BigDecimal("0.10"),
+				CompoundingFrequency.YEARLY, start, maturity, maturityAmount, maturity.plusDays(10)));
+	}
+
+	@Test
+	void tableAndPowAgreeToTheCent() {
+		InterestCalculator withTable = calculator(3700);
+		InterestCalculator withoutTable = calculator(0);
+		BigDecimal principal = new BigDecimal("250000");
+		BigDecimal rate = new BigDecimal("0.0725");
+
+		for (int days : new int[] { 1, 100, 365, 1000, 1826, 3650 }) {
+			assertEquals(
+					withoutTable.valueAfterDays(principal, rate, CompoundingFrequency.QUARTERLY, days, 4000, null),
+					withTable.valueAfterDays(principal, rate, CompoundingFrequency.QUARTERLY, days, 4000, null),
+					"day " + days);
+		}
+		assertEquals(new BigDecimal("268623.75"), withTable.valueAfterDays(principal, rate,
+				CompoundingFrequency.QUARTERLY, 365, 4000, null));
+	}
+
+	@Test
+	void growthTableIsSharedAcrossRateScales() {
+		InterestCalculator calculator = calculator(10);
+
+		assertSame(calculator.growthTable(new BigDecimal("0.10"), CompoundingFrequency.YEARLY),
+				calculator.growthTable(new BigDecimal("0.100"), CompoundingFrequency.YEARLY));
+	}
+
+	private static InterestCalculator calculator(int growthTableMaxDays) {
+		InterestCalculator calculator = new InterestCalculator();
+		ReflectionTestUtils.setField(calculator, "growthTableMaxDays", growthTableMaxDays);
+		return calculator;
+	}
+}
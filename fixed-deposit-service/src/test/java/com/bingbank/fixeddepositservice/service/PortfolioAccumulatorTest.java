@@ -0,0 +1,92 @@
+package com.bingbank.fixeddepositservice.service;
+
+import com.bingbank.fixeddepositservice.dto.FDPortfolioDTO;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PortfolioAccumulatorTest {
+
+	@Test
+	void totalsAndLadder() {
+		PortfolioAccumulator accumulator = new PortfolioAccumulator();
+		accumulator.add(amount("10000"), amount("10500"), amount("11000"), new BigDecimal("0.06"),
+				LocalDate.of(2027, 3, 15));
+		accumulator.add(amount("30000"), amount("30600"), amount("33000"), new BigDecimal("0.07"),
+				LocalDate.of(2026, 12, 1));
+		accumulator.add(amount("20000"), amount("20400"), amount("21000"), new BigDecimal("0.05"),
+				LocalDate.of(2027, 3, 31));
+
+		FDPortfolioDTO dto = accumulator.toDTO(7L);
+
+		assertEquals(7L, dto.getCustomerId());
+		assertEquals(3L, dto.getFdCount());
+		assertEquals(amount("60000"), dto.getTotalPrincipal());
+		assertEquals(amount("61500"), dto.getTotalCurrentValue());
+		assertEquals(amount("65000"), dto.getTotalMaturityAmount());
+		assertEquals(amount("1500"), dto.getAccruedInterest());
+		assertEquals(amount("5000"), dto.getProjectedInterest());
+		// (10000 * 0.06 + 30000 * 0.07 + 20000 * 0.05) / 60000
+		assertEquals(new BigDecimal("0.061667"), dto.getWeightedAverageRate());
+
+		List<FDPortfolioDTO.MaturityBucket> ladder = dto.getMaturityLadder();
+		assertEquals(2, ladder.size());
+		assertEquals(new FDPortfolioDTO.MaturityBucket("2026-12", 1L, amount("30000"), amount("33000")), ladder.get(0));
+		assertEquals(new FDPortfolioDTO.MaturityBucket("2027-03", 2L, amount("30000"), amount("32000")), ladder.get(1));
+	}
+
+	@Test
+	void mergeMatchesAddingEverythingToOne() {
+		PortfolioAccumulator all = new PortfolioAccumulator();
+		PortfolioAccumulator left = new PortfolioAccumulator();
+		PortfolioAccumulator right = new PortfolioAccumulator();
+		for (int i = 0; i < 10; i++) {
+			PortfolioAccumulator half = i % 2 == 0 ? left : right;
+			addSample(all, i);
+			addSample(half, i);
+		}
+
+		left.merge(right);
+
+		assertEquals(all.toDTO(1L), left.toDTO(1L));
+	}
+
+	@Test
+	void parallelCollectMatchesSequential() {
+		PortfolioAccumulator sequential = new PortfolioAccumulator();
+		for (int i = 0; i < 1000; i++) {
+			addSample(sequential, i);
+		}
+
+		PortfolioAccumulator parallel = IntStream.range(0, 1000).parallel().collect(
+				PortfolioAccumulator::new, PortfolioAccumulatorTest::addSample, PortfolioAccumulator::merge);
+
+		assertEquals(sequential.toDTO(null), parallel.toDTO(null));
+	}
+
+	@Test
+	void emptyPortfolio() {
+		FDPortfolioDTO dto = new PortfolioAccumulator().toDTO(7L);
+
+		assertEquals(0L, dto.getFdCount());
+		assertEquals(BigDecimal.ZERO, dto.getTotalPrincipal());
+		assertEquals(BigDecimal.ZERO, dto.getWeightedAverageRate());
+		assertTrue(dto.getMaturityLadder().isEmpty());
+	}
+
+	private static void addSample(PortfolioAccumulator accumulator, int i) {
+		BigDecimal principal = BigDecimal.valueOf(1000L + i * 10L);
+		accumulator.add(principal, principal.add(BigDecimal.TEN), principal.add(BigDecimal.valueOf(100)),
+				new BigDecimal("0.0" + (5 + i % 3)), LocalDate.of(2027, 1 + i % 12, 1));
+	}
+
+	private static BigDecimal amount(String value) {
+		return new BigDecimal(value);
+	}
+}
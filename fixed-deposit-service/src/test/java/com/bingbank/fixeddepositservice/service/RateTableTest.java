@@ -0,0 +1,69 @@
+package com.bingbank.fixeddepositservice.service;
+
+import com.bingbank.fixeddepositservice.model.CompoundingFrequency;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class RateTableTest {
+
+	private final RateTable.Tier base = tier("0", 1, "0.050", CompoundingFrequency.YEARLY);
+	private final RateTable.Tier large = tier("100000", 1, "0.055", CompoundingFrequency.YEARLY);
+	private final RateTable.Tier longTerm = tier("0", 3, "0.060", CompoundingFrequency.YEARLY);
+
+	private final RateTable table = new RateTable(List.of(base, large, longTerm));
+
+	@Test
+	void picksMostSpecificTier() {
+		assertSame(base, table.lookup(new BigDecimal("50000"), 2));
+		assertSame(large, table.lookup(new BigDecimal("100000"), 2));
+		assertSame(longTerm, table.lookup(new BigDecimal("50000"), 5));
+	}
+
+	@Test
+	void longerTenureWinsOverLargerAmount() {
+		assertSame(longTerm, table.lookup(new BigDecimal("200000"), 3));
+	}
+
+	@Test
+	void noTierBelowMinimumTenure() {
+		assertNull(table.lookup(new BigDecimal("50000"), 0));
+	}
+
+	@Test
+	void maturityAmountCompoundsPerPeriod() {
+		RateTable.Tier yearly = tier("0", 1, "0.10", CompoundingFrequency.YEARLY);
+		RateTable.Tier monthly = tier("0", 1, "0.12", CompoundingFrequency.MONTHLY);
+
+		assertEquals(new BigDecimal("1331.00"), yearly.maturityAmount(new BigDecimal("1000"), 3));
+		assertEquals(new BigDecimal("1126.83"), monthly.maturityAmount(new BigDecimal("1000"), 1));
+	}
+
+	@Test
+	void tenureBeyondPrecomputedYearsMatches() {
+		RateTable.Tier precomputed = new RateTable.Tier(BigDecimal.ZERO, 1, new BigDecimal("0.12"),
+				CompoundingFrequency.MONTHLY, 10);
+		RateTable.Tier shortTable = new RateTable.Tier(BigDecimal.ZERO, 1, new BigDecimal("0.12"),
+				CompoundingFrequency.MONTHLY, 2);
+
+		assertEquals(new BigDecimal("18166.97"), precomputed.maturityAmount(new BigDecimal("10000"), 5));
+		assertEquals(new BigDecimal("18166.97"), shortTable.maturityAmount(new BigDecimal("10000"), 5));
+	}
+
+	@Test
+	void effectiveAnnualRate() {
+		RateTable.Tier quarterly = tier("0", 1, "0.08", CompoundingFrequency.QUARTERLY);
+
+		assertEquals(0, new BigDecimal("0.08243216").compareTo(quarterly.effectiveAnnualRate()));
+	}
+
+	private static RateTable.Tier tier(String minAmount, int minTenureYears, String rate,
+									   CompoundingFrequency frequency) {
+		return new RateTable.Tier(new BigDecimal(minAmount), minTenureYears, new BigDecimal(rate), frequency, 10);
+	}
+}
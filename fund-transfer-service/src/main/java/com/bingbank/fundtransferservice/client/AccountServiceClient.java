@@ -0,0 +1,146 @@
+package com.bingbank.fundtransferservice.client;
+
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Client for account-service.
+ *
+ * Every call goes through the "accountService" circuit breaker and bulkhead
+ * (see resilience4j.* in application.properties), on top of the RestTemplate
+ * connect/read timeouts. When the breaker is open or the bulkhead is full,
+ * the fallbacks fail fast with an "unavailable" error instead of queueing
+ * more threads behind a degraded account-service.
+ */
+@Component
+public class AccountServiceClient {
+
+    private static final String ACCOUNT_SERVICE = "accountService";
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Value("${app.services.account-service.url}")
+    private String accountServiceUrl;
+
+    /**
+     * Check whether an account exists
+     */
+    @CircuitBreaker(name = ACCOUNT_SERVICE, fallbackMethod = "accountExistsFallback")
+    @Bulkhead(name = ACCOUNT_SERVICE)
+    public boolean accountExists(String accountNumber, String authHeader) {
+        String url = accountServiceUrl + "/api/accounts/exists/" + accountNumber;
+        ResponseEntity<Map> response = restTemplate.exchange(url, HttpMethod.GET,
+                new HttpEntity<>(headers(authHeader)), Map.class);
+        return response.getBody() != null && Boolean.TRUE.equals(response.getBody().get("exists"));
+    }
+
+    /**
+     * Fetch account details (customerId, balance, accountType, branch ...)
+     */
+    @CircuitBreaker(name = ACCOUNT_SERVICE, fallbackMethod = "getAccountFallback")
+    @Bulkhead(name = ACCOUNT_SERVICE)
+    public Map<String, Object> getAccount(String accountNumber, String authHeader) {
+        String url = accountServiceUrl + "/api/accounts/" + accountNumber;
+        ResponseEntity<Map> response = restTemplate.exchange(url, HttpMethod.GET,
+                new HttpEntity<>(headers(authHeader)), Map.class);
+        if (response.getBody() == null) {
+            throw new RuntimeException("Empty response from account service for account " + accountNumber);
+        }
+        return response.getBody();
+    }
+
+    /**
+     * Debit an account
+     */
+    @CircuitBreaker(name = ACCOUNT_SERVICE, fallbackMethod = "debitFallback")
+    @Bulkhead(name = ACCOUNT_SERVICE)
+    public Map<String, Object> debit(String accountNumber, BigDecimal amount, String description,
+                                     String sourceAccountNumber, String targetAccountNumber, String authHeader) {
+        return post(accountNumber, "/debit", amount, description, sourceAccountNumber, targetAccountNumber, authHeader);
+    }
+
+    /**
+     * Credit an account
+     */
+    @CircuitBreaker(name = ACCOUNT_SERVICE, fallbackMethod = "creditFallback")
+    @Bulkhead(name = ACCOUNT_SERVICE)
+    public Map<String, Object> credit(String accountNumber, BigDecimal amount, String description,
+                                      String sourceAccountNumber, String targetAccountNumber, String authHeader) {
+        return post(accountNumber, "/credit", amount, description, sourceAccountNumber, targetAccountNumber, authHeader);
+    }
+
+    private Map<String, Object> post(String accountNumber, String operation, BigDecimal amount, String description,
+                                     String sourceAccountNumber, String targetAccountNumber, String authHeader) {
+        String url = accountServiceUrl + "/api/accounts/" + accountNumber + operation;
+
+        Map<String, Object> request = new HashMap<>();
+        request.put("amount", amount);
+        request.put("description", description);
+        request.put("sourceAccountNumber", sourceAccountNumber);
+        request.put("targetAccountNumber", targetAccountNumber);
+
+        ResponseEntity<Map> response = restTemplate.exchange(url, HttpMethod.POST,
+                new HttpEntity<>(request, headers(authHeader)), Map.class);
+        return response.getBody();
+    }
+
+    private HttpHeaders headers(String authHeader) {
+        HttpHeaders headers = new HttpHeaders();
+        if (authHeader != null) {
+            headers.set("Authorization", authHeader);
+        }
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return headers;
+    }
+
+    private boolean accountExistsFallback(String accountNumber, String authHeader, Throwable t) {
+        throw unavailable("accountExists", t);
+    }
+
+    private Map<String, Object> getAccountFallback(String accountNumber, String authHeader, Throwable t) {
+        throw unavailable("getAccount", t);
+    }
+
+    private Map<String, Object> debitFallback(String accountNumber, BigDecimal amount, String description,
+                                              String sourceAccountNumber, String targetAccountNumber,
+                                              String authHeader, Throwable t) {
+        throw unavailable("debit", t);
+    }
+
+    private Map<String, Object> creditFallback(String accountNumber, BigDecimal amount, String description,
+                                               String sourceAccountNumber, String targetAccountNumber,
+                                               String authHeader, Throwable t) {
+        throw unavailable("credit", t);
+    }
+
+    /**
+     * Fallback hook: breaker/bulkhead rejections become a clear "unavailable" error,
+     * anything else (4xx, timeouts) is passed through unchanged.
+     */
+    private RuntimeException unavailable(String operation, Throwable t) {
+        if (t instanceof CallNotPermittedException || t instanceof BulkheadFullException) {
+            System.err.println("AccountServiceClient: " + operation + " rejected - " + t.getMessage());
+            return new RuntimeException("Account service is temporarily unavailable. Please try again later.");
+        }
+        if (t instanceof RuntimeException) {
+            return (RuntimeException) t;
+        }
+        return new RuntimeException(t.getMessage(), t);
+    }
+}
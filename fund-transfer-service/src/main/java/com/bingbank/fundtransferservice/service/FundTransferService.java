@@ -1,5 +1,6 @@
 package com.bingbank.fundtransferservice.service;
 
+import com.bingbank.fundtransferservice.client.AccountServiceClient;
 import com.bingbank.fundtransferservice.dto.TransferEvent;
 import com.bingbank.fundtransferservice.dto.TransferRequest;
 import com.bingbank.fundtransferservice.dto.TransferResponse;
@@ -7,14 +8,10 @@ import com.bingbank.fundtransferservice.model.FundTransfer;
 import com.bingbank.fundtransferservice.repository.FundTransferRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.client.HttpClientErrorException;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -32,7 +29,7 @@ public class FundTransferService {
     private KafkaTemplate<String, TransferEvent> kafkaTemplate;
 
     @Autowired
-    private RestTemplate restTemplate;
+    private AccountServiceClient accountServiceClient;
 
     @Value("${app.kafka.topic.fund-transfer}")
     private String fundTransferTopic;
@@ -50,13 +47,13 @@ public class FundTransferService {
             throw new RuntimeException("Target account does not exist");
         }
         
-        // Validate source account belongs to customer
-        if (!validateAccountOwnership(request.getSourceAccountNumber(), request.getCustomerId(), authHeader)) {
+        // Validate source account belongs to customer and has sufficient balance (single lookup)
+        Map<String, Object> sourceAccount = fetchAccount(request.getSourceAccountNumber(), authHeader);
+        if (!isOwnedBy(sourceAccount, request.getCustomerId())) {
             throw new RuntimeException("You are not authorized to transfer from this account");
         }
         
-        // Validate sufficient balance
-        if (!validateSufficientBalance(request.getSourceAccountNumber(), request.getAmount(), authHeader)) {
+        if (!hasSufficientBalance(sourceAccount, request.getAmount())) {
             throw new RuntimeException("Insufficient balance in source account");
         }
         
@@ -136,67 +133,48 @@ public class FundTransferService {
      */
     private boolean validateAccountExists(String accountNumber, String authHeader) {
         try {
-            String url = "http://localhost:8082/api/accounts/exists/" + accountNumber;
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("Authorization", authHeader);
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-            
-            ResponseEntity<Map> response = restTemplate.exchange(url, HttpMethod.GET, entity, Map.class);
-            
-            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                return (Boolean) response.getBody().get("exists");
-            }
+            return accountServiceClient.accountExists(accountNumber, authHeader);
         } catch (Exception e) {
             System.err.println("Error validating account existence: " + e.getMessage());
+            throw new RuntimeException("Unable to validate target account: " + e.getMessage());
         }
-        return false;
     }
 
     /**
-     * Validate account ownership
+     * Fetch account details, or null if account-service rejects the lookup
      */
-    private boolean validateAccountOwnership(String accountNumber, Long customerId, String authHeader) {
+    private Map<String, Object> fetchAccount(String accountNumber, String authHeader) {
         try {
-            String url = "http://localhost:8082/api/accounts/" + accountNumber;
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("Authorization", authHeader);
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-            
-            ResponseEntity<Map> response = restTemplate.exchange(url, HttpMethod.GET, entity, Map.class);
-            
-            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                Object customerIdObj = response.getBody().get("customerId");
-                Long accountCustomerId = customerIdObj instanceof Integer ? 
-                        ((Integer) customerIdObj).longValue() : (Long) customerIdObj;
-                return accountCustomerId.equals(customerId);
-            }
+            return accountServiceClient.getAccount(accountNumber, authHeader);
+        } catch (HttpClientErrorException e) {
+            System.err.println("Error fetching account " + accountNumber + ": " + e.getMessage());
+            return null;
         } catch (Exception e) {
-            System.err.println("Error validating account ownership: " + e.getMessage());
+            System.err.println("Error fetching account " + accountNumber + ": " + e.getMessage());
+            throw new RuntimeException("Unable to validate source account: " + e.getMessage());
         }
-        return false;
+    }
+
+    /**
+     * Validate account ownership
+     */
+    private boolean isOwnedBy(Map<String, Object> account, Long customerId) {
+        if (account == null || account.get("customerId") == null) {
+            return false;
+        }
+        Long accountCustomerId = ((Number) account.get("customerId")).longValue();
+        return accountCustomerId.equals(customerId);
     }
 
     /**
      * Validate sufficient balance
      */
-    private boolean validateSufficientBalance(String accountNumber, BigDecimal amount, String authHeader) {
-        try {
-            String url = "http://localhost:8082/api/accounts/" + accountNumber;
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("Authorization", authHeader);
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-            
-            ResponseEntity<Map> response = restTemplate.exchange(url, HttpMethod.GET, entity, Map.class);
-            
-            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                Object balanceObj = response.getBody().get("balance");
-                BigDecimal balance = new BigDecimal(balanceObj.toString());
-                return balance.compareTo(amount) >= 0;
-            }
-        } catch (Exception e) {
-            System.err.println("Error validating balance: " + e.getMessage());
+    private boolean hasSufficientBalance(Map<String, Object> account, BigDecimal amount) {
+        if (account == null || account.get("balance") == null) {
+            return false;
         }
-        return false;
+        BigDecimal balance = new BigDecimal(account.get("balance").toString());
+        return balance.compareTo(amount) >= 0;
     }
 
     /**
@@ -1,22 +1,17 @@
 package com.bingbank.fundtransferservice.service;
 
+import com.bingbank.fundtransferservice.client.AccountServiceClient;
 import com.bingbank.fundtransferservice.dto.TransferEvent;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
+import java.math.BigDecimal;
 import java.security.Key;
 import java.util.Date;
-import java.util.HashMap;
-import java.util.Map;
 
 @Service
 public class TransferEventConsumer {
@@ -25,7 +20,7 @@ public class TransferEventConsumer {
     private FundTransferService fundTransferService;
 
     @Autowired
-    private RestTemplate restTemplate;
+    private AccountServiceClient accountServiceClient;
 
     @Value("${app.jwt-secret}")
     private String jwtSecret;
@@ -98,24 +93,15 @@ public class TransferEventConsumer {
         
         try {
             // Step 1: Debit from source account
+            // (account-service records the transaction entry for each leg)
             debitFromAccount(event.getSourceAccountNumber(), event.getAmount(), 
                     "Transfer to " + event.getTargetAccountNumber() + " - Transfer#" + event.getTransferId(),
-                    authToken);
+                    event, authToken);
             
             // Step 2: Credit to target account
             creditToAccount(event.getTargetAccountNumber(), event.getAmount(), 
                     "Transfer from " + event.getSourceAccountNumber() + " - Transfer#" + event.getTransferId(),
-                    authToken);
-            
-            // Step 3: Create debit transaction for source account
-            createTransaction(event.getSourceAccountNumber(), event.getAmount(), "DEBIT",
-                    event.getSourceAccountNumber(), event.getTargetAccountNumber(),
-                    "Fund Transfer - Transfer#" + event.getTransferId(), authToken);
-            
-            // Step 4: Create credit transaction for target account
-            createTransaction(event.getTargetAccountNumber(), event.getAmount(), "CREDIT",
-                    event.getSourceAccountNumber(), event.getTargetAccountNumber(),
-                    "Fund Transfer - Transfer#" + event.getTransferId(), authToken);
+                    event, authToken);
             
             System.out.println("Consumer: Transfer processing completed successfully");
             
@@ -128,24 +114,11 @@ public class TransferEventConsumer {
     /**
      * Debit from account
      */
-    private void debitFromAccount(String accountNumber, Object amount, String description, String authToken) {
+    private void debitFromAccount(String accountNumber, BigDecimal amount, String description,
+                                  TransferEvent event, String authToken) {
         try {
-            String url = "http://localhost:8082/api/accounts/" + accountNumber + "/debit";
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("Authorization", authToken);
-            headers.set("Content-Type", "application/json");
-            
-            Map<String, Object> request = new HashMap<>();
-            request.put("amount", amount);
-            request.put("description", description);
-            
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(request, headers);
-            ResponseEntity<Map> response = restTemplate.exchange(url, HttpMethod.POST, entity, Map.class);
-            
-            if (!response.getStatusCode().is2xxSuccessful()) {
-                throw new RuntimeException("Failed to debit from account");
-            }
-            
+            accountServiceClient.debit(accountNumber, amount, description,
+                    event.getSourceAccountNumber(), event.getTargetAccountNumber(), authToken);
             System.out.println("Consumer: Debited $" + amount + " from account " + accountNumber);
         } catch (Exception e) {
             System.err.println("Consumer: Error debiting from account: " + e.getMessage());
@@ -156,58 +129,15 @@ public class TransferEventConsumer {
     /**
      * Credit to account
      */
-    private void creditToAccount(String accountNumber, Object amount, String description, String authToken) {
+    private void creditToAccount(String accountNumber, BigDecimal amount, String description,
+                                 TransferEvent event, String authToken) {
         try {
-            String url = "http://localhost:8082/api/accounts/" + accountNumber + "/credit";
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("Authorization", authToken);
-            headers.set("Content-Type", "application/json");
-            
-            Map<String, Object> request = new HashMap<>();
-            request.put("amount", amount);
-            request.put("description", description);
-            
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(request, headers);
-            ResponseEntity<Map> response = restTemplate.exchange(url, HttpMethod.POST, entity, Map.class);
-            
-            if (!response.getStatusCode().is2xxSuccessful()) {
-                throw new RuntimeException("Failed to credit to account");
-            }
-            
+            accountServiceClient.credit(accountNumber, amount, description,
+                    event.getSourceAccountNumber(), event.getTargetAccountNumber(), authToken);
             System.out.println("Consumer: Credited $" + amount + " to account " + accountNumber);
         } catch (Exception e) {
             System.err.println("Consumer: Error crediting to account: " + e.getMessage());
             throw new RuntimeException("Credit failed: " + e.getMessage());
         }
     }
-
-    /**
-     * Create transaction record
-     */
-    private void createTransaction(String accountNumber, Object amount, String type,
-                                   String sourceAccount, String targetAccount, 
-                                   String description, String authToken) {
-        try {
-            String url = "http://localhost:8083/api/transactions/create";
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("Authorization", authToken);
-            headers.set("Content-Type", "application/json");
-            
-            Map<String, Object> request = new HashMap<>();
-            request.put("accountNumber", accountNumber);
-            request.put("amount", amount);
-            request.put("transactionType", type);
-            request.put("sourceAccountNumber", sourceAccount);
-            request.put("targetAccountNumber", targetAccount);
-            request.put("description", description);
-            
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(request, headers);
-            restTemplate.exchange(url, HttpMethod.POST, entity, Map.class);
-            
-            System.out.println("Consumer: Created " + type + " transaction for account " + accountNumber);
-        } catch (Exception e) {
-            System.err.println("Consumer: Error creating transaction: " + e.getMessage());
-            // Don't throw exception - transaction recording is secondary
-        }
-    }
 }
\ No newline at end of file
@@ -0,0 +1,79 @@
+package com.bingbank.transactionservice.client;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Client for auth-service customer profiles.
+ *
+ * Profiles change rarely and every statement needs one, so responses are kept
+ * for a short TTL (app.services.auth-service.customer-cache-ttl-seconds) and
+ * repeated statements for the same customer skip the round trip.
+ */
+@Component
+public class AuthServiceClient {
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Value("${app.services.auth-service.url}")
+    private String authServiceUrl;
+
+    @Value("${app.services.auth-service.customer-cache-ttl-seconds:60}")
+    private long customerCacheTtlSeconds;
+
+    @Value("${app.services.auth-service.customer-cache-max-entries:10000}")
+    private int customerCacheMaxEntries;
+
+    private final Map<Long, CachedCustomer> customerCache = new ConcurrentHashMap<>();
+
+    /**
+     * Fetch customer profile (customerId/id, firstName, lastName, email, mobile, address)
+     */
+    public Map<String, Object> getCustomer(Long customerId, String authHeader) {
+        long now = System.currentTimeMillis();
+        CachedCustomer cached = customerCache.get(customerId);
+        if (cached != null && cached.expiresAtMillis > now) {
+            return cached.data;
+        }
+
+        String url = authServiceUrl + "/api/auth/customer/" + customerId;
+        System.out.println("AuthServiceClient: Fetching customer info from: " + url);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", authHeader);
+        ResponseEntity<Map> response = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), Map.class);
+        if (response.getBody() == null) {
+            throw new RuntimeException("Empty response from auth service for customer " + customerId);
+        }
+
+        Map<String, Object> data = response.getBody();
+        if (customerCache.size() >= customerCacheMaxEntries) {
+            customerCache.values().removeIf(entry -> entry.expiresAtMillis <= now);
+            if (customerCache.size() >= customerCacheMaxEntries) {
+                customerCache.clear();
+            }
+        }
+        customerCache.put(customerId, new CachedCustomer(data, now + customerCacheTtlSeconds * 1000));
+        return data;
+    }
+
+    private static class CachedCustomer {
+        final Map<String, Object> data;
+        final long expiresAtMillis;
+
+        CachedCustomer(Map<String, Object> data, long expiresAtMillis) {
+            this.data = data;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+}
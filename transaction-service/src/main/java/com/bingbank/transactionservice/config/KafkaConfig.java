@@ -0,0 +1,132 @@
+package com.bingbank.transactionservice.config;
+
+import com.bingbank.transactionservice.dto.BalanceChangedEvent;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.serializer.DelegatingByTypeSerializer;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.util.backoff.FixedBackOff;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Configuration
+public class KafkaConfig {
+
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    @Value("${spring.kafka.consumer.group-id}")
+    private String groupId;
+
+    @Value("${app.kafka.balance-events.max-poll-records:500}")
+    private int maxPollRecords;
+
+    @Value("${app.kafka.balance-events.concurrency:3}")
+    private int concurrency;
+
+    @Value("${app.kafka.balance-events.retry-interval-millis:5000}")
+    private long retryIntervalMillis;
+
+    @Value("${app.kafka.balance-events.max-retries:12}")
+    private long maxRetries;
+
+    @Value("${app.kafka.topic.balance-changed-dlt}")
+    private String deadLetterTopic;
+
+    /**
+     * Dead letter topic, same partition count as the balance-changed topic
+     * so a record keeps its partition
+     */
+    @Bean
+    public NewTopic balanceChangedDeadLetterTopic() {
+        return TopicBuilder.name(deadLetterTopic)
+                .partitions(3)
+                .replicas(1)
+                .build();
+    }
+
+    /**
+     * Producer for the dead letter topic. Records that could not be
+     * deserialized are forwarded as their original bytes.
+     */
+    @Bean
+    public KafkaTemplate<String, Object> deadLetterKafkaTemplate() {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ProducerConfig.ACKS_CONFIG, "all");
+
+        JsonSerializer<Object> jsonSerializer = new JsonSerializer<>();
+        jsonSerializer.setAddTypeInfo(false);
+        Map<Class<?>, Serializer<?>> valueSerializers = new HashMap<>();
+        valueSerializers.put(byte[].class, new ByteArraySerializer());
+        valueSerializers.put(BalanceChangedEvent.class, jsonSerializer);
+
+        ProducerFactory<String, Object> producerFactory = new DefaultKafkaProducerFactory<>(config,
+                new StringSerializer(), new DelegatingByTypeSerializer(valueSerializers));
+        return new KafkaTemplate<>(producerFactory);
+    }
+
+    /**
+     * Consumer Configuration
+     * Malformed payloads are handed to the listener as null instead of
+     * blocking the partition.
+     */
+    @Bean
+    public ConsumerFactory<String, BalanceChangedEvent> balanceEventConsumerFactory() {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+
+        JsonDeserializer<BalanceChangedEvent> jsonDeserializer = new JsonDeserializer<>(BalanceChangedEvent.class, false);
+        jsonDeserializer.addTrustedPackages("*");
+
+        return new DefaultKafkaConsumerFactory<>(
+                config,
+                new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(jsonDeserializer)
+        );
+    }
+
+    /**
+     * Batch listener: each poll is recorded with a single bulk insert.
+     * A failing batch is retried max-retries times, then its records go to the
+     * dead letter topic so the partition moves on. Recording is idempotent by
+     * event id, so records can be replayed from there once the cause is fixed.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, BalanceChangedEvent> balanceEventListenerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, BalanceChangedEvent> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(balanceEventConsumerFactory());
+        factory.setBatchListener(true);
+        factory.setConcurrency(concurrency);
+        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(deadLetterKafkaTemplate(),
+                (record, e) -> new TopicPartition(deadLetterTopic, record.partition()));
+        factory.setCommonErrorHandler(new DefaultErrorHandler(recoverer,
+                new FixedBackOff(retryIntervalMillis, maxRetries)));
+        return factory;
+    }
+}
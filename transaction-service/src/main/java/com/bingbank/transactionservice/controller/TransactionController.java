@@ -1,25 +1,30 @@
 package com.bingbank.transactionservice.controller;
 
+import com.bingbank.transactionservice.dto.AccountAnalyticsDTO;
+import com.bingbank.transactionservice.dto.CreateTransactionRequest;
+import com.bingbank.transactionservice.dto.StatementJobDTO;
 import com.bingbank.transactionservice.dto.StatementRequest;
 import com.bingbank.transactionservice.dto.TransactionDTO;
 import com.bingbank.transactionservice.dto.TransactionFilterRequest;
-import com.bingbank.transactionservice.service.PdfService;
+import com.bingbank.transactionservice.service.AccountAnalyticsService;
+import com.bingbank.transactionservice.service.BankStatementService;
+import com.bingbank.transactionservice.service.StatementJobService;
 import com.bingbank.transactionservice.service.TransactionService;
 import com.itextpdf.text.DocumentException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/transactions")
@@ -29,10 +34,13 @@ public class TransactionController {
     private TransactionService transactionService;
 
     @Autowired
-    private PdfService pdfService;
+    private BankStatementService bankStatementService;
 
     @Autowired
-    private RestTemplate restTemplate;
+    private StatementJobService statementJobService;
+
+    @Autowired
+    private AccountAnalyticsService accountAnalyticsService;
 
     /**
      * Get latest 5 transactions for dashboard
@@ -54,6 +62,27 @@ public class TransactionController {
         return ResponseEntity.ok(transactions);
     }
 
+    /**
+     * Get account analytics (debit/credit totals, category, counterparty, weekday and month breakdowns)
+     */
+    @GetMapping("/account/{accountNumber}/analytics")
+    public ResponseEntity<?> getAccountAnalytics(
+            @PathVariable String accountNumber,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        try {
+            System.out.println("TransactionController: Fetching analytics for account: " + accountNumber);
+            AccountAnalyticsDTO analytics = accountAnalyticsService.getAnalytics(accountNumber, startDate, endDate);
+            return ResponseEntity.ok(analytics);
+        } catch (Exception e) {
+            System.err.println("TransactionController: Error computing analytics - " + e.getMessage());
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+    }
+
     /**
      * Get filtered transactions
      */
@@ -76,126 +105,14 @@ public class TransactionController {
             System.out.println("TransactionController: Generating statement for account: " + request.getAccountNumber());
             System.out.println("TransactionController: Customer ID from request: " + request.getCustomerId());
             
-            // Get transactions
-            List<TransactionDTO> transactions;
-            if (request.getTransactionIds() != null && !request.getTransactionIds().isEmpty()) {
-                transactions = transactionService.getTransactionsByIds(request.getTransactionIds());
-            } else {
-                transactions = transactionService.getAllTransactions(request.getAccountNumber());
-            }
-            
-            // Fetch customer info from auth-service
-            Map<String, Object> customerInfo = null;
-            try {
-                String authServiceUrl = "http://localhost:8081/api/auth/customer/" + request.getCustomerId();
-                System.out.println("Fetching customer info from: " + authServiceUrl);
-                
-                org.springframework.http.HttpHeaders headers = new org.springframework.http.HttpHeaders();
-                headers.set("Authorization", authHeader);
-                org.springframework.http.HttpEntity<String> entity = new org.springframework.http.HttpEntity<>(headers);
-                
-                ResponseEntity<Map> customerResponse = restTemplate.exchange(
-                    authServiceUrl,
-                    org.springframework.http.HttpMethod.GET,
-                    entity,
-                    Map.class
-                );
-                
-                if (customerResponse.getStatusCode() == HttpStatus.OK && customerResponse.getBody() != null) {
-                    Map<String, Object> fetchedData = customerResponse.getBody();
-                    customerInfo = new java.util.HashMap<>();
-                    
-                    // Handle both 'id' and 'customerId' field names
-                    Object customerIdObj = fetchedData.get("customerId");
-                    if (customerIdObj == null) {
-                        customerIdObj = fetchedData.get("id");
-                    }
-                    if (customerIdObj == null) {
-                        customerIdObj = request.getCustomerId(); // Fallback to request
-                    }
-                    
-                    customerInfo.put("customerId", customerIdObj);
-                    customerInfo.put("firstName", fetchedData.getOrDefault("firstName", "Not Available"));
-                    customerInfo.put("lastName", fetchedData.getOrDefault("lastName", "Not Available"));
-                    customerInfo.put("email", fetchedData.getOrDefault("email", "Not Available"));
-                    customerInfo.put("mobile", fetchedData.getOrDefault("mobile", "Not Available"));
-                    customerInfo.put("address", fetchedData.getOrDefault("address", "Not Available"));
-                    
-                    System.out.println("Customer info fetched successfully: " + customerInfo);
-                }
-            } catch (Exception e) {
-                System.err.println("Error fetching customer info: " + e.getMessage());
-                e.printStackTrace();
-            }
-            
-            // If we couldn't fetch customer info, use defaults with request customer ID
-            if (customerInfo == null) {
-                customerInfo = new java.util.HashMap<>();
-                customerInfo.put("customerId", request.getCustomerId());
-                customerInfo.put("firstName", "Customer");
-                customerInfo.put("lastName", "Name");
-                customerInfo.put("email", "Not Available");
-                customerInfo.put("mobile", "Not Available");
-                customerInfo.put("address", "Not Available");
-            }
-            
-            // Fetch account info from account-service
-            Map<String, Object> accountInfo = null;
-            try {
-                String accountServiceUrl = "http://localhost:8082/api/accounts/" + request.getAccountNumber();
-                System.out.println("Fetching account info from: " + accountServiceUrl);
-                
-                org.springframework.http.HttpHeaders headers = new org.springframework.http.HttpHeaders();
-                headers.set("Authorization", authHeader);
-                org.springframework.http.HttpEntity<String> entity = new org.springframework.http.HttpEntity<>(headers);
-                
-                ResponseEntity<Map> accountResponse = restTemplate.exchange(
-                    accountServiceUrl,
-                    org.springframework.http.HttpMethod.GET,
-                    entity,
-                    Map.class
-                );
-                
-                if (accountResponse.getStatusCode() == HttpStatus.OK && accountResponse.getBody() != null) {
-                    Map<String, Object> accountData = accountResponse.getBody();
-                    accountInfo = new java.util.HashMap<>();
-                    accountInfo.put("accountNumber", accountData.get("accountNumber"));
-                    accountInfo.put("accountType", accountData.get("accountType"));
-                    accountInfo.put("balance", accountData.get("balance"));
-                    
-                    // Extract branch info if available
-                    if (accountData.get("branch") != null && accountData.get("branch") instanceof Map) {
-                        Map<String, Object> branch = (Map<String, Object>) accountData.get("branch");
-                        accountInfo.put("branchCode", branch.get("branchCode"));
-                    } else {
-                        accountInfo.put("branchCode", "N/A");
-                    }
-                    
-                    System.out.println("Account info fetched successfully: " + accountInfo);
-                }
-            } catch (Exception e) {
-                System.err.println("Error fetching account info: " + e.getMessage());
-                e.printStackTrace();
-            }
-            
-            // If we couldn't fetch account info, use defaults
-            if (accountInfo == null) {
-                accountInfo = new java.util.HashMap<>();
-                accountInfo.put("accountNumber", request.getAccountNumber());
-                accountInfo.put("accountType", "Not Available");
-                accountInfo.put("branchCode", "Not Available");
-                accountInfo.put("balance", "0.00");
-            }
-            
             // Generate PDF
-            byte[] pdfBytes = pdfService.generateBankStatement(customerInfo, accountInfo, transactions);
+            byte[] pdfBytes = bankStatementService.renderStatement(request, authHeader);
             
             // Set headers for PDF download
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_PDF);
-            String filename = "bank_statement_" + request.getAccountNumber() + "_" + 
-                    LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd")) + ".pdf";
-            headers.setContentDispositionFormData("attachment", filename);
+            headers.setContentDispositionFormData("attachment",
+                    BankStatementService.statementFilename(request.getAccountNumber()));
             headers.setCacheControl("must-revalidate, post-check=0, pre-check=0");
             
             return new ResponseEntity<>(pdfBytes, headers, HttpStatus.OK);
@@ -207,6 +124,57 @@ public class TransactionController {
         }
     }
     
+    /**
+     * Queue a bank statement for background rendering
+     */
+    @PostMapping("/statement/jobs")
+    public ResponseEntity<?> submitStatementJob(@RequestBody StatementRequest request) {
+        try {
+            StatementJobDTO job = statementJobService.submit(request);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        } catch (RejectedExecutionException e) {
+            System.err.println("TransactionController: Statement queue full");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("error", "Too many statement requests, please try again shortly"));
+        } catch (Exception e) {
+            System.err.println("TransactionController: Error - " + e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Poll a statement job
+     */
+    @GetMapping("/statement/jobs/{jobId}")
+    public ResponseEntity<?> getStatementJob(@PathVariable String jobId) {
+        try {
+            return ResponseEntity.ok(statementJobService.getJob(jobId));
+        } catch (Exception e) {
+            System.err.println("TransactionController: Error - " + e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Download the PDF of a completed statement job (the token works once)
+     */
+    @GetMapping("/statement/jobs/{jobId}/download")
+    public ResponseEntity<?> downloadStatementJob(@PathVariable String jobId, @RequestParam String token) {
+        try {
+            byte[] pdfBytes = statementJobService.download(jobId, token);
+            
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_PDF);
+            headers.setContentDispositionFormData("attachment", statementJobService.getJob(jobId).getFilename());
+            headers.setCacheControl("must-revalidate, post-check=0, pre-check=0");
+            
+            return new ResponseEntity<>(pdfBytes, headers, HttpStatus.OK);
+        } catch (Exception e) {
+            System.err.println("TransactionController: Error - " + e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
     /**
      * Create a new transaction
      */
@@ -238,4 +206,24 @@ public class TransactionController {
             return ResponseEntity.badRequest().body(errorResponse);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Create many transactions in one request (single DB transaction, batched inserts)
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<?> createTransactions(@RequestBody List<CreateTransactionRequest> requests) {
+        try {
+            System.out.println("TransactionController: Batch create request with " + requests.size() + " transactions");
+            
+            List<TransactionDTO> transactions = transactionService.createTransactions(requests);
+            
+            return ResponseEntity.status(HttpStatus.CREATED).body(transactions);
+        } catch (Exception e) {
+            System.err.println("TransactionController: Error creating transactions - " + e.getMessage());
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+    }
+}
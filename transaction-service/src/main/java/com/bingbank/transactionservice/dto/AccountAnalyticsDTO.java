@@ -0,0 +1,21 @@
+package com.bingbank.transactionservice.dto;
+
+import lombok.Data;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+@Data
+public class AccountAnalyticsDTO {
+    private String accountNumber;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private long debitCount;
+    private long creditCount;
+    private BigDecimal totalDebits;
+    private BigDecimal totalCredits;
+    private Map<String, BigDecimal> debitsByCategory;      // TRANSFER, FIXED_DEPOSIT, CREDIT_CARD_PAYMENT ...
+    private Map<String, BigDecimal> topCounterparties;     // highest outflow first
+    private Map<String, BigDecimal> debitsByWeekday;       // MONDAY .. SUNDAY
+    private Map<String, BigDecimal> debitsByMonth;         // yyyy-MM
+}
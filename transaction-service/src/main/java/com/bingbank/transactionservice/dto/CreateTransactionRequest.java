@@ -0,0 +1,13 @@
+package com.bingbank.transactionservice.dto;
+
+import lombok.Data;
+import java.math.BigDecimal;
+
+@Data
+public class CreateTransactionRequest {
+    private String accountNumber;
+    private BigDecimal amount;
+    private String transactionType; // DEBIT or CREDIT
+    private String sourceAccountNumber;
+    private String targetAccountNumber;
+}
@@ -12,11 +12,17 @@ import java.time.LocalDate;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "transactions")
+// Monthly range partitions on transaction_date, DDL owned by TransactionPartitionMaintenance
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_account_date", columnList = "account_number, transaction_date"),
+        @Index(name = "idx_transactions_posting_id", columnList = "posting_id, transaction_date", unique = true)
+})
 public class Transaction {
     
+	// Pooled sequence so Hibernate can batch inserts (IDENTITY forces one round trip per row)
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+	@SequenceGenerator(name = "transactions_seq", sequenceName = "transactions_seq", allocationSize = 50)
 	@Column(name = "transaction_id")
 	private Long transactionId;
     
@@ -37,4 +43,7 @@ public class Transaction {
     
     @Column(name = "account_number", nullable = false, length = 20)
     private String accountNumber;
+    
+    @Column(name = "posting_id", length = 36)
+    private String postingId; // eventId of the account-service posting, null for legacy rows
 }
\ No newline at end of file
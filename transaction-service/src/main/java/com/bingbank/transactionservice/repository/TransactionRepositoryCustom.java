@@ -0,0 +1,13 @@
+package com.bingbank.transactionservice.repository;
+
+import com.bingbank.transactionservice.dto.TransactionFilterRequest;
+import com.bingbank.transactionservice.model.Transaction;
+
+import java.util.List;
+
+public interface TransactionRepositoryCustom {
+
+    // Filter with only the predicates and ordering the request actually uses,
+    // reading at most maxResults rows
+    List<Transaction> findFilteredTransactions(TransactionFilterRequest filter, int maxResults);
+}
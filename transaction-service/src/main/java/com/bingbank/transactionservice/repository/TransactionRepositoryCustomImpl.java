@@ -0,0 +1,95 @@
+package com.bingbank.transactionservice.repository;
+
+import com.bingbank.transactionservice.dto.TransactionFilterRequest;
+import com.bingbank.transactionservice.model.Transaction;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Criteria-based filter query. Each filter combination produces its own SQL
+ * with only the predicates that were supplied, instead of one catch-all
+ * "(:param IS NULL OR ...)" statement that cannot use indexes well.
+ */
+public class TransactionRepositoryCustomImpl implements TransactionRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Transaction> findFilteredTransactions(TransactionFilterRequest filter, int maxResults) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Transaction> query = cb.createQuery(Transaction.class);
+        Root<Transaction> t = query.from(Transaction.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(t.get("accountNumber"), filter.getAccountNumber()));
+
+        // Supplied date bounds are bound as plain comparisons, so PostgreSQL prunes monthly partitions
+        if (filter.getStartDate() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(t.get("transactionDate"), filter.getStartDate()));
+        }
+        if (filter.getEndDate() != null) {
+            predicates.add(cb.lessThanOrEqualTo(t.get("transactionDate"), filter.getEndDate()));
+        }
+
+        if (filter.getMinAmount() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(t.get("amount"), filter.getMinAmount()));
+        }
+        if (filter.getMaxAmount() != null) {
+            predicates.add(cb.lessThanOrEqualTo(t.get("amount"), filter.getMaxAmount()));
+        }
+        if (hasText(filter.getTransactionType())) {
+            predicates.add(cb.equal(t.get("transactionType"), filter.getTransactionType()));
+        }
+        if (hasText(filter.getOtherAccountNumber())) {
+            predicates.add(cb.or(
+                    cb.equal(t.get("sourceAccountNumber"), filter.getOtherAccountNumber()),
+                    cb.equal(t.get("targetAccountNumber"), filter.getOtherAccountNumber())));
+        }
+
+        query.select(t)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(orderBy(cb, t, filter));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(maxResults)
+                .getResultList();
+    }
+
+    /**
+     * ORDER BY the requested column (transactionDate, amount, transactionType),
+     * newest transaction first as tie-breaker. Default is transaction_id DESC.
+     */
+    private List<Order> orderBy(CriteriaBuilder cb, Root<Transaction> t, TransactionFilterRequest filter) {
+        List<Order> orders = new ArrayList<>();
+        boolean ascending = "ASC".equalsIgnoreCase(filter.getSortDirection());
+
+        Path<?> sortColumn = null;
+        if ("transactionDate".equals(filter.getSortBy())) {
+            sortColumn = t.get("transactionDate");
+        } else if ("amount".equals(filter.getSortBy())) {
+            sortColumn = t.get("amount");
+        } else if ("transactionType".equals(filter.getSortBy())) {
+            sortColumn = t.get("transactionType");
+        }
+
+        if (sortColumn != null) {
+            orders.add(ascending ? cb.asc(sortColumn) : cb.desc(sortColumn));
+        }
+        orders.add(cb.desc(t.get("transactionId")));
+        return orders;
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+}
@@ -0,0 +1,218 @@
+package com.bingbank.transactionservice.service;
+
+import com.bingbank.transactionservice.dto.AccountAnalyticsDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outflow analytics for an account over a date window.
+ *
+ * The window is read once into parallel arrays indexed by row: cents,
+ * epoch day, month index, a debit flag and a counterparty id. Debits are
+ * summed per counterparty, weekday and month in a single loop; categories
+ * are derived afterwards from the per-counterparty totals, so they cost one
+ * step per distinct counterparty rather than per row.
+ */
+@Service
+public class AccountAnalyticsService {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.transactions.analytics.default-months:12}")
+    private int defaultMonths;
+
+    @Value("${app.transactions.analytics.max-months:36}")
+    private int maxMonths;
+
+    @Value("${app.transactions.analytics.top-counterparties:10}")
+    private int topCounterparties;
+
+    /**
+     * Debit/credit totals plus category, counterparty, weekday and month breakdowns of debits
+     */
+    public AccountAnalyticsDTO getAnalytics(String accountNumber, LocalDate startDate, LocalDate endDate) {
+        LocalDate end = endDate != null ? endDate : LocalDate.now();
+        LocalDate start = startDate != null ? startDate : end.minusMonths(defaultMonths).plusDays(1);
+        if (start.isAfter(end)) {
+            throw new RuntimeException("Start date must not be after end date");
+        }
+        if (start.isBefore(end.minusMonths(maxMonths))) {
+            throw new RuntimeException("Analytics window cannot exceed " + maxMonths + " months");
+        }
+
+        System.out.println("AccountAnalyticsService: Computing analytics for account " + accountNumber
+                + " from " + start + " to " + end);
+
+        Columns columns = load(accountNumber, start, end);
+
+        int rows = columns.size;
+        int counterpartyCount = columns.counterparties.size();
+        long[] counterpartyTotals = new long[counterpartyCount];
+        long[] weekdayTotals = new long[7];
+        int firstMonth = monthIndex(start);
+        long[] monthTotals = new long[monthIndex(end) - firstMonth + 1];
+        long debits = 0;
+        long credits = 0;
+        long debitCount = 0;
+
+        for (int i = 0; i < rows; i++) {
+            long cents = columns.cents[i];
+            if (!columns.debit[i]) {
+                credits += cents;
+                continue;
+            }
+            debits += cents;
+            debitCount++;
+            counterpartyTotals[columns.counterpartyIds[i]] += cents;
+            // Epoch day 0 is a Thursday; +3 makes Monday 0
+            weekdayTotals[(int) Math.floorMod(columns.epochDays[i] + 3, 7L)] += cents;
+            monthTotals[columns.monthIndexes[i] - firstMonth] += cents;
+        }
+
+        // Categories roll up counterparties: system targets keep their name, accounts are transfers
+        long[] categoryTotals = new long[counterpartyCount];
+        List<String> categories = new ArrayList<>();
+        Map<String, Integer> categoryIndex = new HashMap<>();
+        for (int c = 0; c < counterpartyCount; c++) {
+            int id = Columns.encode(categoryOf(columns.counterparties.get(c)), categoryIndex, categories);
+            categoryTotals[id] += counterpartyTotals[c];
+        }
+
+        AccountAnalyticsDTO dto = new AccountAnalyticsDTO();
+        dto.setAccountNumber(accountNumber);
+        dto.setStartDate(start);
+        dto.setEndDate(end);
+        dto.setDebitCount(debitCount);
+        dto.setCreditCount(rows - debitCount);
+        dto.setTotalDebits(toAmount(debits));
+        dto.setTotalCredits(toAmount(credits));
+        dto.setDebitsByCategory(toMap(categories, categoryTotals, categories.size()));
+        dto.setTopCounterparties(toMap(columns.counterparties, counterpartyTotals, topCounterparties));
+
+        Map<String, BigDecimal> byWeekday = new LinkedHashMap<>();
+        for (DayOfWeek day : DayOfWeek.values()) {
+            byWeekday.put(day.name(), toAmount(weekdayTotals[day.getValue() - 1]));
+        }
+        dto.setDebitsByWeekday(byWeekday);
+
+        Map<String, BigDecimal> byMonth = new LinkedHashMap<>();
+        for (int m = 0; m < monthTotals.length; m++) {
+            int index = firstMonth + m;
+            byMonth.put(String.format("%04d-%02d", index / 12, index % 12 + 1), toAmount(monthTotals[m]));
+        }
+        dto.setDebitsByMonth(byMonth);
+        return dto;
+    }
+
+    /**
+     * One query over the account's postings in the window. The date bounds let
+     * Postgres skip monthly partitions outside it, and the SELECT already hands
+     * back cents and day/month numbers.
+     */
+    private Columns load(String accountNumber, LocalDate start, LocalDate end) {
+        Columns columns = new Columns();
+        jdbcTemplate.query(
+                "SELECT CAST(ROUND(amount * 100) AS bigint) AS cents, " +
+                "transaction_date - DATE '1970-01-01' AS epoch_day, " +
+                "CAST(EXTRACT(YEAR FROM transaction_date) * 12 + EXTRACT(MONTH FROM transaction_date) - 1 AS int) AS month_index, " +
+                "transaction_type = 'DEBIT' AS debit, " +
+                "CASE WHEN transaction_type = 'DEBIT' THEN target_account_number ELSE source_account_number END AS counterparty " +
+                "FROM transactions " +
+                "WHERE account_number = ? AND transaction_date BETWEEN ? AND ?",
+                rs -> {
+                    columns.add(rs.getLong(1), rs.getLong(2), rs.getInt(3), rs.getBoolean(4), rs.getString(5));
+                },
+                accountNumber, start, end);
+        return columns;
+    }
+
+    private static String categoryOf(String counterparty) {
+        if (counterparty == null || counterparty.isBlank() || "N/A".equals(counterparty)) {
+            return "OTHER";
+        }
+        return Character.isDigit(counterparty.charAt(0)) ? "TRANSFER" : counterparty;
+    }
+
+    /**
+     * Largest debit totals first, at most limit of them. Counterparties (and their
+     * categories) that only appear on credits have a zero debit total and are omitted.
+     */
+    private static Map<String, BigDecimal> toMap(List<String> names, long[] totals, int limit) {
+        Integer[] order = new Integer[names.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(totals[b], totals[a]));
+
+        Map<String, BigDecimal> result = new LinkedHashMap<>();
+        for (int i = 0; i < order.length && result.size() < limit; i++) {
+            if (totals[order[i]] != 0) {
+                result.put(names.get(order[i]), toAmount(totals[order[i]]));
+            }
+        }
+        return result;
+    }
+
+    private static int monthIndex(LocalDate date) {
+        return date.getYear() * 12 + date.getMonthValue() - 1;
+    }
+
+    private static BigDecimal toAmount(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    /**
+     * Row-indexed arrays, doubled when full; counterparties are stored once in a dictionary
+     */
+    private static class Columns {
+        long[] cents = new long[1024];
+        long[] epochDays = new long[1024];
+        int[] monthIndexes = new int[1024];
+        boolean[] debit = new boolean[1024];
+        int[] counterpartyIds = new int[1024];
+        int size;
+
+        final List<String> counterparties = new ArrayList<>();
+        private final Map<String, Integer> counterpartyIndex = new HashMap<>();
+
+        void add(long amountCents, long epochDay, int monthIndex, boolean isDebit, String counterparty) {
+            if (size == cents.length) {
+                int capacity = size * 2;
+                cents = Arrays.copyOf(cents, capacity);
+                epochDays = Arrays.copyOf(epochDays, capacity);
+                monthIndexes = Arrays.copyOf(monthIndexes, capacity);
+                debit = Arrays.copyOf(debit, capacity);
+                counterpartyIds = Arrays.copyOf(counterpartyIds, capacity);
+            }
+            cents[size] = amountCents;
+            epochDays[size] = epochDay;
+            monthIndexes[size] = monthIndex;
+            debit[size] = isDebit;
+            counterpartyIds[size] = encode(counterparty != null ? counterparty : "N/A", counterpartyIndex, counterparties);
+            size++;
+        }
+
+        static int encode(String value, Map<String, Integer> index, List<String> names) {
+            Integer id = index.get(value);
+            if (id == null) {
+                id = names.size();
+                index.put(value, id);
+                names.add(value);
+            }
+            return id;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.bingbank.transactionservice.service;
+
+import com.bingbank.transactionservice.dto.BalanceChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+public class BalanceEventConsumer {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    /**
+     * Consume balance-changed events from account-service in batches
+     * and record one transaction row per posting
+     */
+    @KafkaListener(topics = "${app.kafka.topic.balance-changed}",
+                   groupId = "${spring.kafka.consumer.group-id}",
+                   containerFactory = "balanceEventListenerFactory")
+    public void consumeBalanceEvents(List<BalanceChangedEvent> events) {
+        System.out.println("BalanceEventConsumer: Received batch of " + events.size() + " events");
+        int recorded = transactionService.recordPostings(events);
+        System.out.println("BalanceEventConsumer: Recorded " + recorded + " transactions");
+    }
+}
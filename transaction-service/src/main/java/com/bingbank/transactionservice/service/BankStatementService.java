@@ -0,0 +1,189 @@
+package com.bingbank.transactionservice.service;
+
+import com.bingbank.transactionservice.client.AccountServiceClient;
+import com.bingbank.transactionservice.client.AuthServiceClient;
+import com.bingbank.transactionservice.dto.StatementRequest;
+import com.bingbank.transactionservice.dto.TransactionDTO;
+import com.itextpdf.text.DocumentException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Assembles and renders bank statement PDFs: transactions, customer details
+ * from auth-service and account details from account-service, fetched concurrently.
+ * Used by the synchronous statement endpoint and by StatementJobService workers.
+ */
+@Service
+public class BankStatementService {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private PdfService pdfService;
+
+    @Autowired
+    private AccountServiceClient accountServiceClient;
+
+    @Autowired
+    private AuthServiceClient authServiceClient;
+
+    @Value("${app.transactions.statement.enrichment-timeout-millis:3000}")
+    private long enrichmentTimeoutMillis;
+
+    private final ThreadPoolExecutor enrichmentExecutor;
+
+    public BankStatementService(@Value("${app.transactions.statement.enrichment-threads:8}") int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        // Aborts when saturated: running the lookup on the caller would block it past the timeout
+        this.enrichmentExecutor = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * 4),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "statement-enrichment-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Render the statement described by the request.
+     * Customer and account lookups run concurrently with the transaction query,
+     * each bounded by the enrichment timeout and falling back to placeholders.
+     */
+    public byte[] renderStatement(StatementRequest request, String authHeader) throws DocumentException {
+        CompletableFuture<Map<String, Object>> customerFuture =
+                enrich("customer", () -> fetchCustomerInfo(request.getCustomerId(), authHeader));
+        CompletableFuture<Map<String, Object>> accountFuture =
+                enrich("account", () -> fetchAccountInfo(request.getAccountNumber(), authHeader));
+
+        // Get transactions
+        List<TransactionDTO> transactions;
+        if (request.getTransactionIds() != null && !request.getTransactionIds().isEmpty()) {
+            transactions = transactionService.getTransactionsByIds(request.getTransactionIds());
+        } else {
+            transactions = transactionService.getAllTransactions(request.getAccountNumber());
+        }
+        
+        // If we couldn't fetch customer info, use defaults with request customer ID
+        Map<String, Object> customerInfo = customerFuture.join();
+        if (customerInfo == null) {
+            customerInfo = new HashMap<>();
+            customerInfo.put("customerId", request.getCustomerId());
+            customerInfo.put("firstName", "Customer");
+            customerInfo.put("lastName", "Name");
+            customerInfo.put("email", "Not Available");
+            customerInfo.put("mobile", "Not Available");
+            customerInfo.put("address", "Not Available");
+        }
+        
+        // If we couldn't fetch account info, use defaults
+        Map<String, Object> accountInfo = accountFuture.join();
+        if (accountInfo == null) {
+            accountInfo = new HashMap<>();
+            accountInfo.put("accountNumber", request.getAccountNumber());
+            accountInfo.put("accountType", "Not Available");
+            accountInfo.put("branchCode", "Not Available");
+            accountInfo.put("balance", "0.00");
+        }
+        
+        // Generate PDF
+        return pdfService.generateBankStatement(customerInfo, accountInfo, transactions);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        enrichmentExecutor.shutdown();
+    }
+
+    /**
+     * Run a lookup on the enrichment pool, bounded by the enrichment timeout.
+     * A saturated pool yields null straight away, so the statement uses placeholders.
+     */
+    private CompletableFuture<Map<String, Object>> enrich(String lookup, Supplier<Map<String, Object>> fetch) {
+        try {
+            return CompletableFuture.supplyAsync(fetch, enrichmentExecutor)
+                    .completeOnTimeout(null, enrichmentTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            System.err.println("BankStatementService: Enrichment pool full, skipping " + lookup + " lookup");
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    /**
+     * Customer details from auth-service, or null if unavailable
+     */
+    private Map<String, Object> fetchCustomerInfo(Long customerId, String authHeader) {
+        try {
+            Map<String, Object> fetchedData = authServiceClient.getCustomer(customerId, authHeader);
+            Map<String, Object> customerInfo = new HashMap<>();
+            
+            // Handle both 'id' and 'customerId' field names
+            Object customerIdObj = fetchedData.get("customerId");
+            if (customerIdObj == null) {
+                customerIdObj = fetchedData.get("id");
+            }
+            if (customerIdObj == null) {
+                customerIdObj = customerId; // Fallback to request
+            }
+            
+            customerInfo.put("customerId", customerIdObj);
+            customerInfo.put("firstName", fetchedData.getOrDefault("firstName", "Not Available"));
+            customerInfo.put("lastName", fetchedData.getOrDefault("lastName", "Not Available"));
+            customerInfo.put("email", fetchedData.getOrDefault("email", "Not Available"));
+            customerInfo.put("mobile", fetchedData.getOrDefault("mobile", "Not Available"));
+            customerInfo.put("address", fetchedData.getOrDefault("address", "Not Available"));
+            return customerInfo;
+        } catch (Exception e) {
+            System.err.println("BankStatementService: Error fetching customer info: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Account details from account-service, or null if unavailable
+     */
+    private Map<String, Object> fetchAccountInfo(String accountNumber, String authHeader) {
+        try {
+            Map<String, Object> accountData = accountServiceClient.getAccount(accountNumber, authHeader);
+            Map<String, Object> accountInfo = new HashMap<>();
+            accountInfo.put("accountNumber", accountData.get("accountNumber"));
+            accountInfo.put("accountType", accountData.get("accountType"));
+            accountInfo.put("balance", accountData.get("balance"));
+            
+            // Extract branch info if available
+            if (accountData.get("branch") instanceof Map) {
+                Map<String, Object> branch = (Map<String, Object>) accountData.get("branch");
+                accountInfo.put("branchCode", branch.get("branchCode"));
+            } else {
+                accountInfo.put("branchCode", "N/A");
+            }
+            return accountInfo;
+        } catch (Exception e) {
+            System.err.println("BankStatementService: Error fetching account info: " + e.getMessage());
+            return null;
+        }
+    }
+
+    public static String statementFilename(String accountNumber) {
+        return "bank_statement_" + accountNumber + "_" +
+                LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd")) + ".pdf";
+    }
+}
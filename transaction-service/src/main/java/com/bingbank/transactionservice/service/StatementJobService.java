@@ -0,0 +1,341 @@
+package com.bingbank.transactionservice.service;
+
+import com.bingbank.transactionservice.dto.StatementJobDTO;
+import com.bingbank.transactionservice.dto.StatementRequest;
+import com.bingbank.transactionservice.security.ServiceTokenProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Asynchronous bank statement generation.
+ *
+ * Jobs are rows in bank_statement_jobs (created at startup, this service runs
+ * with ddl-auto=none), so a job submitted to one instance can be polled and
+ * downloaded through any other. Rendering happens on a bounded local worker
+ * pool; the worker that flips a job from QUEUED to RUNNING owns it, and jobs
+ * stranded by an instance that stopped are re-queued by resumeStalledJobs.
+ * When the local queue is full, submission is rejected.
+ *
+ * The customer's JWT is not kept with the job: workers call auth-service and
+ * account-service with a service token. Download tokens are stored hashed
+ * and are single use, the PDF is cleared from the row when it is taken.
+ *
+ * Queue depth is published as statements.jobs.queue_depth.
+ */
+@Service
+public class StatementJobService {
+
+    private static final String TABLE = "bank_statement_jobs";
+    private static final String QUEUED = "QUEUED";
+    private static final String DOWNLOADED = "DOWNLOADED";
+
+    private static final String INSERT_JOB =
+            "INSERT INTO " + TABLE + " (job_id, customer_id, account_number, transaction_ids, token_hash, "
+                    + "status, created_at, queued_at) VALUES (?, ?, ?, ?, ?, 'QUEUED', ?, ?)";
+
+    private static final String SELECT_JOB =
+            "SELECT job_id, account_number, token_hash, status, error, created_at, completed_at "
+                    + "FROM " + TABLE + " WHERE job_id = ?";
+
+    private static final String CLAIM_JOB =
+            "UPDATE " + TABLE + " SET status = 'RUNNING', started_at = ? "
+                    + "WHERE job_id = ? AND status = 'QUEUED' "
+                    + "RETURNING customer_id, account_number, transaction_ids";
+
+    private static final String COMPLETE_JOB =
+            "UPDATE " + TABLE + " SET status = 'COMPLETED', pdf = ?, completed_at = ? "
+                    + "WHERE job_id = ? AND status = 'RUNNING'";
+
+    private static final String FAIL_JOB =
+            "UPDATE " + TABLE + " SET status = 'FAILED', error = ?, completed_at = ? "
+                    + "WHERE job_id = ? AND status = 'RUNNING'";
+
+    // Only one caller gets the PDF; the row keeps its status for polling until purged
+    private static final String TAKE_PDF =
+            "WITH taken AS ("
+                    + "SELECT job_id, pdf FROM " + TABLE + " "
+                    + "WHERE job_id = ? AND token_hash = ? AND status = 'COMPLETED' FOR UPDATE) "
+                    + "UPDATE " + TABLE + " j SET status = 'DOWNLOADED', pdf = NULL "
+                    + "FROM taken WHERE j.job_id = taken.job_id RETURNING taken.pdf";
+
+    private static final String REQUEUE_STALLED =
+            "UPDATE " + TABLE + " SET status = 'QUEUED', started_at = NULL, queued_at = ? "
+                    + "WHERE job_id IN ("
+                    + "SELECT job_id FROM " + TABLE + " "
+                    + "WHERE (status = 'QUEUED' AND queued_at < ?) OR (status = 'RUNNING' AND started_at < ?) "
+                    + "ORDER BY queued_at LIMIT ? FOR UPDATE SKIP LOCKED) "
+                    + "RETURNING job_id";
+
+    @Autowired
+    private BankStatementService bankStatementService;
+
+    @Autowired
+    private ServiceTokenProvider serviceTokenProvider;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ThreadPoolExecutor executor;
+    private final long retentionMinutes;
+    private final long staleMinutes;
+
+    public StatementJobService(@Value("${app.transactions.statement-jobs.threads:2}") int threads,
+                               @Value("${app.transactions.statement-jobs.queue-capacity:200}") int queueCapacity,
+                               @Value("${app.transactions.statement-jobs.retention-minutes:60}") long retentionMinutes,
+                               @Value("${app.transactions.statement-jobs.stale-minutes:10}") long staleMinutes,
+                               MeterRegistry meterRegistry) {
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "statement-job-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.retentionMinutes = retentionMinutes;
+        this.staleMinutes = staleMinutes;
+
+        meterRegistry.gauge("statements.jobs.queue_depth", executor, e -> e.getQueue().size());
+        meterRegistry.gauge("statements.jobs.active", executor, ThreadPoolExecutor::getActiveCount);
+
+        System.out.println("StatementJobService: Started with " + threads + " workers, queue capacity "
+                + queueCapacity);
+    }
+
+    @PostConstruct
+    public void createTable() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + TABLE + " (" +
+                "job_id VARCHAR(36) PRIMARY KEY, " +
+                "customer_id BIGINT, " +
+                "account_number VARCHAR(20) NOT NULL, " +
+                "transaction_ids TEXT, " +
+                "token_hash VARCHAR(64) NOT NULL, " +
+                "status VARCHAR(20) NOT NULL, " +
+                "error TEXT, " +
+                "pdf BYTEA, " +
+                "created_at TIMESTAMP NOT NULL, " +
+                "queued_at TIMESTAMP NOT NULL, " +
+                "started_at TIMESTAMP, " +
+                "completed_at TIMESTAMP)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_bank_statement_jobs_status ON " + TABLE +
+                " (status, queued_at)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_bank_statement_jobs_completed_at ON " + TABLE +
+                " (completed_at)");
+    }
+
+    /**
+     * Queue a statement for rendering. Throws RejectedExecutionException when the queue is full.
+     */
+    public StatementJobDTO submit(StatementRequest request) {
+        if (request.getAccountNumber() == null || request.getAccountNumber().isBlank()) {
+            throw new RuntimeException("Account number is required");
+        }
+
+        String jobId = UUID.randomUUID().toString();
+        String downloadToken = UUID.randomUUID().toString();
+        String transactionIds = request.getTransactionIds() == null || request.getTransactionIds().isEmpty()
+                ? null
+                : request.getTransactionIds().stream().map(String::valueOf).collect(Collectors.joining(","));
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update(INSERT_JOB, jobId, request.getCustomerId(), request.getAccountNumber(),
+                transactionIds, hashToken(downloadToken), now, now);
+        try {
+            executor.execute(() -> run(jobId));
+        } catch (RejectedExecutionException e) {
+            jdbcTemplate.update("DELETE FROM " + TABLE + " WHERE job_id = ?", jobId);
+            throw e;
+        }
+
+        System.out.println("StatementJobService: Queued job " + jobId + " for account " + request.getAccountNumber());
+        StatementJobDTO dto = new StatementJobDTO();
+        dto.setJobId(jobId);
+        dto.setStatus(QUEUED);
+        dto.setDownloadToken(downloadToken);
+        dto.setFilename(BankStatementService.statementFilename(request.getAccountNumber()));
+        dto.setCreatedAt(now);
+        return dto;
+    }
+
+    public StatementJobDTO getJob(String jobId) {
+        return convertToDTO(findJob(jobId));
+    }
+
+    /**
+     * Rendered PDF of a completed job. Needs the token handed out at submission,
+     * which is spent by the first successful download.
+     */
+    public byte[] download(String jobId, String token) {
+        if (token != null) {
+            List<byte[]> pdf = jdbcTemplate.query(TAKE_PDF, (rs, rowNum) -> rs.getBytes("pdf"),
+                    jobId, hashToken(token));
+            if (!pdf.isEmpty()) {
+                return pdf.get(0);
+            }
+        }
+
+        StatementJob job = findJob(jobId);
+        if (token == null || !MessageDigest.isEqual(job.tokenHash.getBytes(StandardCharsets.UTF_8),
+                hashToken(token).getBytes(StandardCharsets.UTF_8))) {
+            throw new RuntimeException("Invalid download token");
+        }
+        if (DOWNLOADED.equals(job.status)) {
+            throw new RuntimeException("Statement has already been downloaded");
+        }
+        throw new RuntimeException("Statement job is " + job.status);
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Pick up jobs left QUEUED or RUNNING by an instance that went away
+     */
+    @Scheduled(fixedDelayString = "${app.transactions.statement-jobs.recovery-interval-millis:60000}")
+    public void resumeStalledJobs() {
+        int capacity = executor.getQueue().remainingCapacity();
+        if (capacity == 0) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cutoff = now.minusMinutes(staleMinutes);
+        List<String> jobIds = jdbcTemplate.queryForList(REQUEUE_STALLED, String.class,
+                now, cutoff, cutoff, capacity);
+
+        for (String jobId : jobIds) {
+            try {
+                executor.execute(() -> run(jobId));
+            } catch (RejectedExecutionException e) {
+                // Left QUEUED; recovered again once it goes stale
+                break;
+            }
+        }
+        if (!jobIds.isEmpty()) {
+            System.out.println("StatementJobService: Re-queued " + jobIds.size() + " stalled jobs");
+        }
+    }
+
+    /**
+     * Drop finished jobs once the retention period has passed
+     */
+    @Scheduled(fixedDelayString = "${app.transactions.statement-jobs.cleanup-interval-millis:300000}")
+    public void purgeExpiredJobs() {
+        int purged = jdbcTemplate.update("DELETE FROM " + TABLE + " WHERE completed_at < ?",
+                LocalDateTime.now().minusMinutes(retentionMinutes));
+        if (purged > 0) {
+            System.out.println("StatementJobService: Purged " + purged + " expired jobs");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private void run(String jobId) {
+        List<StatementRequest> claimed = jdbcTemplate.query(CLAIM_JOB, (rs, rowNum) -> {
+            StatementRequest request = new StatementRequest();
+            request.setCustomerId(rs.getObject("customer_id", Long.class));
+            request.setAccountNumber(rs.getString("account_number"));
+            String transactionIds = rs.getString("transaction_ids");
+            if (transactionIds != null) {
+                request.setTransactionIds(Arrays.stream(transactionIds.split(","))
+                        .map(Long::valueOf)
+                        .collect(Collectors.toList()));
+            }
+            return request;
+        }, LocalDateTime.now(), jobId);
+        if (claimed.isEmpty()) {
+            // Already taken by another worker
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        try {
+            byte[] pdfBytes = bankStatementService.renderStatement(claimed.get(0),
+                    serviceTokenProvider.generateServiceToken());
+            jdbcTemplate.update(COMPLETE_JOB, pdfBytes, LocalDateTime.now(), jobId);
+            System.out.println("StatementJobService: Job " + jobId + " completed in "
+                    + (System.currentTimeMillis() - start) + " ms");
+        } catch (Exception e) {
+            System.err.println("StatementJobService: Job " + jobId + " failed - " + e.getMessage());
+            jdbcTemplate.update(FAIL_JOB, e.getMessage(), LocalDateTime.now(), jobId);
+        }
+    }
+
+    private StatementJob findJob(String jobId) {
+        List<StatementJob> jobs = jdbcTemplate.query(SELECT_JOB, (rs, rowNum) -> mapJob(rs), jobId);
+        if (jobs.isEmpty()) {
+            throw new RuntimeException("Statement job not found");
+        }
+        return jobs.get(0);
+    }
+
+    private StatementJob mapJob(ResultSet rs) throws SQLException {
+        StatementJob job = new StatementJob();
+        job.jobId = rs.getString("job_id");
+        job.accountNumber = rs.getString("account_number");
+        job.tokenHash = rs.getString("token_hash");
+        job.status = rs.getString("status");
+        job.error = rs.getString("error");
+        job.createdAt = rs.getObject("created_at", LocalDateTime.class);
+        job.completedAt = rs.getObject("completed_at", LocalDateTime.class);
+        return job;
+    }
+
+    private static String hashToken(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 not available", e);
+        }
+    }
+
+    private StatementJobDTO convertToDTO(StatementJob job) {
+        StatementJobDTO dto = new StatementJobDTO();
+        dto.setJobId(job.jobId);
+        dto.setStatus(job.status);
+        dto.setFilename(BankStatementService.statementFilename(job.accountNumber));
+        dto.setError(job.error);
+        dto.setCreatedAt(job.createdAt);
+        dto.setCompletedAt(job.completedAt);
+        return dto;
+    }
+
+    private static class StatementJob {
+        String jobId;
+        String accountNumber;
+        String tokenHash;
+        String status;
+        String error;
+        LocalDateTime createdAt;
+        LocalDateTime completedAt;
+    }
+}
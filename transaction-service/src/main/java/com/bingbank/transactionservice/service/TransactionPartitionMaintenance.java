@@ -0,0 +1,297 @@
+package com.bingbank.transactionservice.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Owns the schema of the "transactions" table, which is range-partitioned by
+ * transaction_date into one partition per month (transactions_yYYYYmMM).
+ *
+ * On startup an existing non-partitioned table is migrated in place: the old
+ * table is renamed and its rows are moved over in batches, each in its own
+ * transaction, so a restart resumes where the previous attempt stopped. A
+ * daily job keeps partitions created a few months ahead and moves partitions
+ * older than the retention period out of the live table into an archive
+ * schema. Rows outside every monthly range land in transactions_default and
+ * are moved into their month when its partition is created.
+ *
+ * Every schema change runs under the same advisory lock, so instances
+ * starting together do not race each other. Failures are counted in
+ * transactions.partitions.failures.
+ */
+@Component
+public class TransactionPartitionMaintenance {
+
+    private static final String TABLE = "transactions";
+    private static final String DEFAULT_PARTITION = "transactions_default";
+    private static final String UNPARTITIONED = "transactions_unpartitioned";
+    private static final Pattern PARTITION_NAME = Pattern.compile("transactions_y(\\d{4})m(\\d{2})");
+    private static final String COLUMNS = "transaction_id, amount, transaction_type, transaction_date, " +
+            "source_account_number, target_account_number, account_number, posting_id";
+
+    // pg_advisory_xact_lock key shared by every schema change on the transactions table
+    private static final long SCHEMA_LOCK_KEY = 0x7472616e_73706172L;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.transactions.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${app.transactions.partitions.retention-months:0}")
+    private int retentionMonths;
+
+    @Value("${app.transactions.partitions.archive-schema:transactions_archive}")
+    private String archiveSchema;
+
+    @Value("${app.transactions.partitions.migration-batch-size:50000}")
+    private int migrationBatchSize;
+
+    /**
+     * Create or migrate the partitioned table before any request or Kafka batch is served
+     */
+    @PostConstruct
+    public void initialize() {
+        inSchemaLock(() -> {
+            String kind = tableKind();
+            if (kind == null) {
+                System.out.println("TransactionPartitionMaintenance: Creating partitioned transactions table");
+                createPartitionedTable();
+            } else if ("r".equals(kind)) {
+                startMigration();
+            }
+        });
+        if (tableExists(UNPARTITIONED)) {
+            copyUnpartitionedRows();
+        }
+        inSchemaLock(this::syncSequence);
+        maintainPartitions();
+    }
+
+    /**
+     * Create upcoming monthly partitions and archive expired ones
+     */
+    @Scheduled(cron = "${app.transactions.partitions.maintenance-cron:0 30 2 * * *}")
+    public void maintainPartitions() {
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            createPartition(current.plusMonths(i));
+        }
+        if (retentionMonths > 0) {
+            archivePartitionsBefore(current.minusMonths(retentionMonths));
+        }
+    }
+
+    /**
+     * relkind of the transactions table: "r" plain, "p" partitioned, null if missing
+     */
+    private String tableKind() {
+        List<String> kinds = jdbcTemplate.queryForList(
+                "SELECT c.relkind::text FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace " +
+                "WHERE c.relname = ? AND n.nspname = current_schema()", String.class, TABLE);
+        return kinds.isEmpty() ? null : kinds.get(0);
+    }
+
+    private void createPartitionedTable() {
+        // The partition key must be part of the primary key and of every unique index
+        jdbcTemplate.execute("CREATE TABLE " + TABLE + " (" +
+                "transaction_id BIGINT NOT NULL, " +
+                "amount NUMERIC(10,2) NOT NULL, " +
+                "transaction_type VARCHAR(10) NOT NULL, " +
+                "transaction_date DATE NOT NULL, " +
+                "source_account_number VARCHAR(20) NOT NULL, " +
+                "target_account_number VARCHAR(20), " +
+                "account_number VARCHAR(20) NOT NULL, " +
+                "posting_id VARCHAR(36), " +
+                "PRIMARY KEY (transaction_id, transaction_date)" +
+                ") PARTITION BY RANGE (transaction_date)");
+        jdbcTemplate.execute("CREATE TABLE " + DEFAULT_PARTITION + " PARTITION OF " + TABLE + " DEFAULT");
+        jdbcTemplate.execute("CREATE INDEX idx_transactions_account_date ON " + TABLE +
+                " (account_number, transaction_date)");
+        jdbcTemplate.execute("CREATE UNIQUE INDEX idx_transactions_posting_id ON " + TABLE +
+                " (posting_id, transaction_date)");
+    }
+
+    /**
+     * First step of the one-off migration: swap in the partitioned table.
+     * Rows are copied afterwards by copyUnpartitionedRows.
+     */
+    private void startMigration() {
+        System.out.println("TransactionPartitionMaintenance: Migrating transactions table to monthly partitions");
+
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " RENAME TO " + UNPARTITIONED);
+        jdbcTemplate.execute("ALTER INDEX IF EXISTS transactions_pkey RENAME TO transactions_unpartitioned_pkey");
+        jdbcTemplate.execute("DROP INDEX IF EXISTS idx_transactions_posting_id");
+        jdbcTemplate.execute("ALTER TABLE " + UNPARTITIONED + " ADD COLUMN IF NOT EXISTS posting_id VARCHAR(36)");
+
+        createPartitionedTable();
+
+        LocalDate oldest = jdbcTemplate.queryForObject(
+                "SELECT MIN(transaction_date) FROM " + UNPARTITIONED, LocalDate.class);
+        if (oldest != null) {
+            for (YearMonth month = YearMonth.from(oldest); !month.isAfter(YearMonth.now()); month = month.plusMonths(1)) {
+                jdbcTemplate.execute(createPartitionSql(month));
+            }
+        }
+    }
+
+    /**
+     * Move rows out of the old table in batches, one transaction each, then drop it.
+     * Moved rows are deleted from the old table, so an interrupted copy resumes.
+     */
+    private void copyUnpartitionedRows() {
+        long start = System.currentTimeMillis();
+        long copied = 0;
+        while (true) {
+            Integer moved = computeInSchemaLock(() -> jdbcTemplate.update(
+                    "WITH batch AS (DELETE FROM " + UNPARTITIONED + " WHERE transaction_id IN (" +
+                    "SELECT transaction_id FROM " + UNPARTITIONED + " ORDER BY transaction_id LIMIT ?) " +
+                    "RETURNING " + COLUMNS + ") " +
+                    "INSERT INTO " + TABLE + " (" + COLUMNS + ") SELECT " + COLUMNS + " FROM batch",
+                    migrationBatchSize));
+            if (moved == null || moved == 0) {
+                break;
+            }
+            copied += moved;
+            System.out.println("TransactionPartitionMaintenance: Copied " + copied + " transactions");
+        }
+        inSchemaLock(() -> jdbcTemplate.execute("DROP TABLE IF EXISTS " + UNPARTITIONED));
+
+        System.out.println("TransactionPartitionMaintenance: Migrated " + copied + " transactions in "
+                + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    /**
+     * Keep the pooled id sequence (allocationSize = 50) ahead of every existing id
+     */
+    private void syncSequence() {
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS transactions_seq START WITH 1 INCREMENT BY 50");
+        jdbcTemplate.queryForObject("SELECT setval('transactions_seq', GREATEST(" +
+                "(SELECT COALESCE(MAX(transaction_id), 0) FROM " + TABLE + ") + 50, " +
+                "(SELECT last_value FROM transactions_seq)))", Long.class);
+    }
+
+    /**
+     * Create a month's partition. Rows for that month already in the default
+     * partition would make a plain CREATE fail, so they are moved in: detach
+     * the default partition, create the month, move the rows, reattach.
+     */
+    private void createPartition(YearMonth month) {
+        String name = partitionName(month);
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(1).atDay(1);
+        try {
+            inSchemaLock(() -> {
+                if (tableExists(name)) {
+                    return;
+                }
+                Boolean strayRows = jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM " + DEFAULT_PARTITION +
+                        " WHERE transaction_date >= ? AND transaction_date < ?)", Boolean.class, from, to);
+                if (!Boolean.TRUE.equals(strayRows)) {
+                    jdbcTemplate.execute(createPartitionSql(month));
+                    return;
+                }
+
+                jdbcTemplate.execute("ALTER TABLE " + TABLE + " DETACH PARTITION " + DEFAULT_PARTITION);
+                jdbcTemplate.execute(createPartitionSql(month));
+                int moved = jdbcTemplate.update("WITH stray AS (DELETE FROM " + DEFAULT_PARTITION +
+                        " WHERE transaction_date >= ? AND transaction_date < ? RETURNING " + COLUMNS + ") " +
+                        "INSERT INTO " + name + " (" + COLUMNS + ") SELECT " + COLUMNS + " FROM stray", from, to);
+                jdbcTemplate.execute("ALTER TABLE " + TABLE + " ATTACH PARTITION " + DEFAULT_PARTITION + " DEFAULT");
+                System.out.println("TransactionPartitionMaintenance: Created partition " + name
+                        + " with " + moved + " rows from " + DEFAULT_PARTITION);
+            });
+        } catch (Exception e) {
+            meterRegistry.counter("transactions.partitions.failures", "operation", "create").increment();
+            System.err.println("TransactionPartitionMaintenance: Could not create partition " + name
+                    + " - " + e.getMessage());
+        }
+    }
+
+    private String createPartitionSql(YearMonth month) {
+        return "CREATE TABLE IF NOT EXISTS " + partitionName(month) + " PARTITION OF " + TABLE +
+                " FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')";
+    }
+
+    /**
+     * Detach monthly partitions older than the cutoff and move them to the archive schema.
+     * Archived months stay queryable there but are no longer scanned by live queries.
+     */
+    private void archivePartitionsBefore(YearMonth cutoff) {
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname::text FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid " +
+                "JOIN pg_class p ON p.oid = i.inhparent " +
+                "JOIN pg_namespace n ON n.oid = p.relnamespace " +
+                "WHERE p.relname = ? AND n.nspname = current_schema()", String.class, TABLE);
+
+        for (String partition : partitions) {
+            Matcher matcher = PARTITION_NAME.matcher(partition);
+            if (!matcher.matches()) {
+                continue;
+            }
+            YearMonth month = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+            if (!month.isBefore(cutoff)) {
+                continue;
+            }
+            try {
+                inSchemaLock(() -> {
+                    jdbcTemplate.execute("ALTER TABLE " + TABLE + " DETACH PARTITION " + partition);
+                    jdbcTemplate.execute("CREATE SCHEMA IF NOT EXISTS " + archiveSchema);
+                    jdbcTemplate.execute("ALTER TABLE " + partition + " SET SCHEMA " + archiveSchema);
+                });
+                System.out.println("TransactionPartitionMaintenance: Archived partition " + partition);
+            } catch (Exception e) {
+                meterRegistry.counter("transactions.partitions.failures", "operation", "archive").increment();
+                System.err.println("TransactionPartitionMaintenance: Could not archive partition " + partition
+                        + " - " + e.getMessage());
+            }
+        }
+    }
+
+    private boolean tableExists(String name) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT to_regclass(?) IS NOT NULL", Boolean.class, name));
+    }
+
+    /**
+     * Run in a transaction holding the schema advisory lock
+     */
+    private void inSchemaLock(Runnable work) {
+        computeInSchemaLock(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    private <T> T computeInSchemaLock(Supplier<T> work) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(?)", SCHEMA_LOCK_KEY);
+            return work.get();
+        });
+    }
+
+    private static String partitionName(YearMonth month) {
+        return String.format("transactions_y%04dm%02d", month.getYear(), month.getMonthValue());
+    }
+}
@@ -1,15 +1,24 @@
 package com.bingbank.transactionservice.service;
 
+import com.bingbank.transactionservice.dto.BalanceChangedEvent;
+import com.bingbank.transactionservice.dto.CreateTransactionRequest;
 import com.bingbank.transactionservice.dto.TransactionDTO;
 import com.bingbank.transactionservice.dto.TransactionFilterRequest;
 import com.bingbank.transactionservice.model.Transaction;
 import com.bingbank.transactionservice.repository.TransactionRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -18,6 +27,12 @@ public class TransactionService {
     @Autowired
     private TransactionRepository transactionRepository;
 
+    @Value("${app.transactions.batch.max-size:1000}")
+    private int maxBatchSize;
+
+    @Value("${app.transactions.filter.max-results:500}")
+    private int maxFilterResults;
+
     /**
      * Get latest 5 transactions for an account (for dashboard)
      * Sorted by transaction_id DESC
@@ -27,9 +42,7 @@ public class TransactionService {
         List<Transaction> transactions = transactionRepository
                 .findTop5ByAccountNumberOrderByTransactionIdDesc(accountNumber);
         
-        // Take only first 5
         return transactions.stream()
-                .limit(5)
                 .map(this::mapToDTO)
                 .collect(Collectors.toList());
     }
@@ -49,27 +62,16 @@ public class TransactionService {
 
     /**
      * Get filtered transactions
-     * Sorted by transaction_id DESC
+     * Sorted by the requested column, then transaction_id DESC
      */
     public List<TransactionDTO> getFilteredTransactions(TransactionFilterRequest request) {
         System.out.println("TransactionService: Fetching filtered transactions");
         
-        List<Transaction> transactions = transactionRepository.findFilteredTransactions(
-                request.getAccountNumber(),
-                request.getStartDate(),
-                request.getEndDate(),
-                request.getMinAmount(),
-                request.getMaxAmount(),
-                request.getTransactionType(),
-                request.getOtherAccountNumber()
-        );
-        
-        // Apply limit if specified
-        if (request.getLimit() != null && request.getLimit() > 0) {
-            transactions = transactions.stream()
-                    .limit(request.getLimit())
-                    .collect(Collectors.toList());
-        }
+        // Limit is applied in SQL and capped by the server-side maximum
+        int limit = request.getLimit() != null && request.getLimit() > 0
+                ? Math.min(request.getLimit(), maxFilterResults)
+                : maxFilterResults;
+        List<Transaction> transactions = transactionRepository.findFilteredTransactions(request, limit);
         
         return transactions.stream()
                 .map(this::mapToDTO)
@@ -83,18 +85,107 @@ public class TransactionService {
                                            String sourceAccountNumber, String targetAccountNumber) {
         System.out.println("TransactionService: Creating " + transactionType + " transaction for account: " + accountNumber);
         
+        Transaction transaction = buildTransaction(accountNumber, amount, transactionType,
+                sourceAccountNumber, targetAccountNumber, LocalDate.now());
+        
+        Transaction savedTransaction = transactionRepository.save(transaction);
+        System.out.println("TransactionService: Transaction created with ID: " + savedTransaction.getTransactionId());
+        
+        return mapToDTO(savedTransaction);
+    }
+
+    /**
+     * Create many transactions in one database transaction.
+     * Inserts are sent as JDBC batches (hibernate.jdbc.batch_size).
+     */
+    @Transactional
+    public List<TransactionDTO> createTransactions(List<CreateTransactionRequest> requests) {
+        if (requests.size() > maxBatchSize) {
+            throw new RuntimeException("Batch too large: " + requests.size() + " (max " + maxBatchSize + ")");
+        }
+        
+        List<Transaction> transactions = new ArrayList<>(requests.size());
+        for (CreateTransactionRequest request : requests) {
+            if (request.getAccountNumber() == null || request.getAmount() == null
+                    || request.getTransactionType() == null || request.getSourceAccountNumber() == null) {
+                throw new RuntimeException("accountNumber, amount, transactionType and sourceAccountNumber are required");
+            }
+            transactions.add(buildTransaction(request.getAccountNumber(), request.getAmount(),
+                    request.getTransactionType(), request.getSourceAccountNumber(),
+                    request.getTargetAccountNumber(), LocalDate.now()));
+        }
+        
+        return saveBatch(transactions).stream()
+                .map(this::mapToDTO)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Record a batch of account-service postings.
+     * Events that already have a row (redeliveries) are skipped, the rest
+     * are inserted together. Returns the number of rows inserted.
+     */
+    @Transactional
+    public int recordPostings(List<BalanceChangedEvent> events) {
+        Map<String, BalanceChangedEvent> byPostingId = new LinkedHashMap<>();
+        for (BalanceChangedEvent event : events) {
+            if (event == null || event.getEventId() == null) {
+                System.err.println("TransactionService: Skipping malformed balance event");
+                continue;
+            }
+            byPostingId.putIfAbsent(event.getEventId(), event);
+        }
+        if (byPostingId.isEmpty()) {
+            return 0;
+        }
+        
+        Set<String> alreadyRecorded = new HashSet<>(transactionRepository.findExistingPostingIds(byPostingId.keySet()));
+        
+        List<Transaction> transactions = new ArrayList<>();
+        for (BalanceChangedEvent event : byPostingId.values()) {
+            if (alreadyRecorded.contains(event.getEventId())) {
+                continue;
+            }
+            Transaction transaction = buildTransaction(event.getAccountNumber(), event.getAmount(),
+                    event.getTransactionType(),
+                    event.getSourceAccountNumber() != null ? event.getSourceAccountNumber() : event.getAccountNumber(),
+                    event.getTargetAccountNumber(),
+                    event.getOccurredAt() != null ? event.getOccurredAt().toLocalDate() : LocalDate.now());
+            transaction.setPostingId(event.getEventId());
+            transactions.add(transaction);
+        }
+        
+        saveBatch(transactions);
+        return transactions.size();
+    }
+
+    /**
+     * Bulk insert, logging the achieved insert rate
+     */
+    private List<Transaction> saveBatch(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return transactions;
+        }
+        long start = System.nanoTime();
+        List<Transaction> saved = transactionRepository.saveAll(transactions);
+        transactionRepository.flush();
+        long micros = Math.max((System.nanoTime() - start) / 1_000, 1);
+        System.out.println("TransactionService: Inserted " + saved.size() + " transactions in "
+                + (micros / 1000) + " ms (~" + (saved.size() * 1_000_000L / micros) + " rows/sec)");
+        return saved;
+    }
+
+    private Transaction buildTransaction(String accountNumber, BigDecimal amount, String transactionType,
+                                         String sourceAccountNumber, String targetAccountNumber,
+                                         LocalDate transactionDate) {
         Transaction transaction = new Transaction();
         transaction.setAccountNumber(accountNumber);
         transaction.setAmount(amount);
         transaction.setTransactionType(transactionType);
-        transaction.setTransactionDate(LocalDate.now());
+        transaction.setTransactionDate(transactionDate);
         transaction.setSourceAccountNumber(sourceAccountNumber);
         transaction.setTargetAccountNumber(targetAccountNumber != null ? targetAccountNumber : "N/A");
-        
-        Transaction savedTransaction = transactionRepository.save(transaction);
-        System.out.println("TransactionService: Transaction created with ID: " + savedTransaction.getTransactionId());
-        
-        return mapToDTO(savedTransaction);
+        return transaction;
     }
 
     /**
@@ -0,0 +1,112 @@
+package com.bingbank.transactionservice.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Records the SQL Hibernate sends (registered as hibernate.session_factory.statement_inspector)
+ * and explains it the way PostgreSQL plans it for given parameter values.
+ */
+public class QueryPlans implements StatementInspector {
+
+	private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+	private static final Pattern INDEX_SCAN = Pattern.compile(
+			"(?:Index Scan|Index Only Scan)(?: Backward)? using (\\S+)|Bitmap Index Scan on (\\S+)");
+
+	@Override
+	public String inspect(String sql) {
+		STATEMENTS.add(sql);
+		return sql;
+	}
+
+	public static void clear() {
+		STATEMENTS.clear();
+	}
+
+	/**
+	 * Last recorded statement reading from the given table
+	 */
+	public static String lastSelectFrom(String table) {
+		for (int i = STATEMENTS.size() - 1; i >= 0; i--) {
+			String sql = STATEMENTS.get(i);
+			if (sql.toLowerCase().startsWith("select") && sql.contains(" " + table + " ")) {
+				return sql;
+			}
+		}
+		throw new AssertionError("No select from " + table + " was recorded: " + STATEMENTS);
+	}
+
+	/**
+	 * EXPLAIN of a JDBC statement (parameters as ?) for the given parameter values,
+	 * in the order of the ?s. Sequential scans are priced out, so a Seq Scan in the
+	 * result means no index can serve the query. Must run inside a transaction.
+	 */
+	public static List<String> explain(JdbcTemplate jdbcTemplate, String sql, Object... values) {
+		StringBuilder prepared = new StringBuilder(sql.length());
+		int parameters = 0;
+		for (char c : sql.toCharArray()) {
+			if (c == '?') {
+				prepared.append('$').append(++parameters);
+			} else {
+				prepared.append(c);
+			}
+		}
+		if (parameters != values.length) {
+			throw new AssertionError(parameters + " parameters but " + values.length + " values: " + sql);
+		}
+
+		List<String> literals = new ArrayList<>();
+		for (Object value : values) {
+			literals.add(value instanceof Number ? value.toString() : "'" + value.toString().replace("'", "''") + "'");
+		}
+
+		jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+		jdbcTemplate.execute("SET LOCAL plan_cache_mode = force_custom_plan");
+		jdbcTemplate.execute("PREPARE filter_plan AS " + prepared);
+		try {
+			String arguments = literals.isEmpty() ? "" : "(" + String.join(", ", literals) + ")";
+			return jdbcTemplate.queryForList("EXPLAIN EXECUTE filter_plan" + arguments, String.class);
+		} finally {
+			jdbcTemplate.execute("DEALLOCATE filter_plan");
+		}
+	}
+
+	/**
+	 * Names of the indexes scanned anywhere in a text plan
+	 */
+	public static List<String> scannedIndexes(List<String> plan) {
+		List<String> indexes = new ArrayList<>();
+		for (String line : plan) {
+			Matcher matcher = INDEX_SCAN.matcher(line);
+			while (matcher.find()) {
+				indexes.add(matcher.group(1) != null ? matcher.group(1) : matcher.group(2));
+			}
+		}
+		return indexes;
+	}
+
+	/**
+	 * Conditions the index scans of a text plan look up (rather than filter afterwards)
+	 */
+	public static List<String> indexConditions(List<String> plan) {
+		List<String> conditions = new ArrayList<>();
+		for (String line : plan) {
+			int start = line.indexOf("Index Cond: ");
+			if (start >= 0) {
+				conditions.add(line.substring(start + "Index Cond: ".length()));
+			}
+		}
+		return conditions;
+	}
+
+	public static boolean hasSeqScan(List<String> plan) {
+		return plan.stream().anyMatch(line -> line.contains("Seq Scan"));
+	}
+}
@@ -0,0 +1,182 @@
+package com.bingbank.transactionservice.repository;
+
+import com.bingbank.transactionservice.dto.TransactionFilterRequest;
+import com.bingbank.transactionservice.service.TransactionPartitionMaintenance;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.client.RestTemplateAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Every filter shape and sort option of findFilteredTransactions must be servable
+ * by idx_transactions_account_date in every monthly partition. The SQL is the one
+ * Hibernate generates from the Criteria query, explained on a real PostgreSQL
+ * with the schema TransactionPartitionMaintenance creates.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+		+ "com.bingbank.transactionservice.repository.QueryPlans")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(RestTemplateAutoConfiguration.class)
+@Import({TransactionPartitionMaintenance.class, TransactionFilterPlanTest.Metrics.class})
+class TransactionFilterPlanTest {
+
+	private static final String FILTER_INDEX = "idx_transactions_account_date";
+
+	private static final int MAX_RESULTS = 500;
+
+	// Columns every index scan must look up (Index Cond), not filter afterwards
+	private static final List<String> ACCOUNT = List.of("(account_number)::text = ");
+	private static final List<String> ACCOUNT_AND_DATES =
+			List.of("(account_number)::text = ", "transaction_date >= ", "transaction_date <= ");
+
+	private static final EmbeddedPostgres POSTGRES = start();
+
+	@Autowired
+	private TransactionRepository repository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@TestConfiguration
+	static class Metrics {
+		@Bean
+		MeterRegistry meterRegistry() {
+			return new SimpleMeterRegistry();
+		}
+	}
+
+	@DynamicPropertySource
+	static void datasource(DynamicPropertyRegistry registry) {
+		registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+		registry.add("spring.datasource.username", () -> "postgres");
+	}
+
+	@AfterAll
+	static void stop() throws IOException {
+		POSTGRES.close();
+	}
+
+	@BeforeEach
+	void seed() {
+		// 200 accounts with 25 transactions each, spread over every monthly partition and the default one
+		jdbcTemplate.update("INSERT INTO transactions (transaction_id, amount, transaction_type, transaction_date, " +
+				"source_account_number, target_account_number, account_number) " +
+				"SELECT i, i % 500 + 0.99, CASE WHEN i % 2 = 0 THEN 'DEBIT' ELSE 'CREDIT' END, CURRENT_DATE - 120 + i % 210, " +
+				"lpad((i % 200)::text, 10, '0'), lpad(((i + 1) % 200)::text, 10, '0'), lpad((i % 200)::text, 10, '0') " +
+				"FROM generate_series(1, 5000) AS i");
+		jdbcTemplate.execute("ANALYZE transactions");
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("filters")
+	void filterUsesAccountDateIndex(String shape, TransactionFilterRequest filter, List<String> indexCondition) {
+		QueryPlans.clear();
+		repository.findFilteredTransactions(filter, MAX_RESULTS);
+		List<String> plan = QueryPlans.explain(jdbcTemplate, QueryPlans.lastSelectFrom("transactions"),
+				parameters(filter));
+
+		String planText = String.join("\n", plan);
+		assertFalse(QueryPlans.hasSeqScan(plan), shape + " needs a sequential scan:\n" + planText);
+		List<String> indexes = QueryPlans.scannedIndexes(plan);
+		assertTrue(!indexes.isEmpty() && partitionIndexes().containsAll(indexes), shape + " plan:\n" + planText);
+		assertTrue(QueryPlans.indexConditions(plan).stream().allMatch(c -> indexCondition.stream().allMatch(c::contains)),
+				shape + " does not look up " + indexCondition + " in the index:\n" + planText);
+	}
+
+	static Stream<Arguments> filters() {
+		List<Arguments> filters = new ArrayList<>();
+		for (String sortBy : Arrays.asList(null, "transactionDate", "amount", "transactionType")) {
+			for (String direction : List.of("DESC", "ASC")) {
+				String sort = (sortBy != null ? sortBy : "default") + " " + direction;
+				filters.add(Arguments.of("account, " + sort, filter(sortBy, direction, f -> { }), ACCOUNT));
+				filters.add(Arguments.of("date range, " + sort, filter(sortBy, direction, f -> {
+					f.setStartDate(LocalDate.now().minusMonths(1));
+					f.setEndDate(LocalDate.now());
+				}), ACCOUNT_AND_DATES));
+				filters.add(Arguments.of("amount and type, " + sort, filter(sortBy, direction, f -> {
+					f.setMinAmount(new BigDecimal("10.00"));
+					f.setMaxAmount(new BigDecimal("250.00"));
+					f.setTransactionType("DEBIT");
+				}), ACCOUNT));
+				filters.add(Arguments.of("other account, " + sort,
+						filter(sortBy, direction, f -> f.setOtherAccountNumber("0000000008")), ACCOUNT));
+			}
+		}
+		return filters.stream();
+	}
+
+	/**
+	 * Bound values in the order TransactionRepositoryCustomImpl adds its predicates, then the row limit
+	 */
+	private static Object[] parameters(TransactionFilterRequest filter) {
+		List<Object> values = new ArrayList<>();
+		values.add(filter.getAccountNumber());
+		Stream.of(filter.getStartDate(), filter.getEndDate(), filter.getMinAmount(), filter.getMaxAmount(),
+				filter.getTransactionType()).filter(Objects::nonNull).forEach(values::add);
+		if (filter.getOtherAccountNumber() != null) {
+			values.add(filter.getOtherAccountNumber());
+			values.add(filter.getOtherAccountNumber());
+		}
+		values.add(MAX_RESULTS);
+		return values.toArray();
+	}
+
+	/**
+	 * idx_transactions_account_date and its copy on every partition
+	 */
+	private Set<String> partitionIndexes() {
+		Set<String> indexes = new HashSet<>(jdbcTemplate.queryForList(
+				"SELECT c.relname::text FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+				"WHERE i.inhparent = ?::regclass", String.class, FILTER_INDEX));
+		indexes.add(FILTER_INDEX);
+		return indexes;
+	}
+
+	private static TransactionFilterRequest filter(String sortBy, String direction, Consumer<TransactionFilterRequest> shape) {
+		TransactionFilterRequest filter = new TransactionFilterRequest();
+		filter.setAccountNumber("0000000007");
+		filter.setSortBy(sortBy);
+		filter.setSortDirection(direction);
+		shape.accept(filter);
+		return filter;
+	}
+
+	private static EmbeddedPostgres start() {
+		try {
+			return EmbeddedPostgres.start();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}